@@ -0,0 +1,84 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Boards at fixed densities shared by the benchmarks.
+ */
+public class BoardFixtures {
+	/** No plants and no zombies. */
+	public static final String EMPTY = "EMPTY";
+	/** Roughly half the cells taken: a third of the columns plants, a quarter zombies. */
+	public static final String HALF = "HALF";
+	/** Every cell taken: plants on the left five ninths, zombies on the rest. */
+	public static final String FULL = "FULL";
+	/** A half-full board with a large queue of zombies waiting to spawn. */
+	public static final String QUEUED = "QUEUED";
+
+	public static final int QUEUED_ZOMBIES = 10000;
+
+	private static final String[] PLANTS = {"SunFlower", "VenusFlyTrap", "Walnut", "Potatoe", "PeaShooter"};
+	private static final String[] ZOMBIES = {"GenericZombie", "FrankTheTank", "BurrowingBailey"};
+
+	/**
+	 * This method builds a standard size board with a seeded spawn source.
+	 * @param density (String), one of the density constants.
+	 * @return A board whose level has plenty of coins.
+	 */
+	public static Board build(String density) {
+		return build(density, Board.GRID_HEIGHT, Board.GRID_WIDTH);
+	}
+
+	/**
+	 * This method builds a board of any size with a seeded spawn source.
+	 * @param density (String), one of the density constants.
+	 * @param height (int), the number of rows.
+	 * @param width (int), the number of columns.
+	 * @return A board whose level has plenty of coins.
+	 */
+	public static Board build(String density, int height, int width) {
+		Level level = new Level(1);
+		level.setAllZombies(new ArrayList<Zombie>());
+		Board board = new Board(new CommandManager(), height, width);
+		board.setLevel(level);
+		board.setupGrid();
+		board.setRandom(new Random(1));
+
+		switch (density) {
+		case EMPTY:
+			break;
+		case HALF:
+			fill(board, width / 3, width / 4);
+			break;
+		case FULL:
+			fill(board, width * 5 / 9, width - width * 5 / 9);
+			break;
+		case QUEUED:
+			fill(board, width / 3, width / 4);
+			for (int i = 0; i < QUEUED_ZOMBIES; i++)
+				level.getWave().add(EntityType.forTitle(ZOMBIES[i % ZOMBIES.length]));
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown density " + density);
+		}
+		level.coins = 1000;
+		return board;
+	}
+
+	/**
+	 * This method fills every row with plants from the left and zombies from the right.
+	 * @param board (Board), an empty board.
+	 * @param plantColumns (int), the number of plant columns.
+	 * @param zombieColumns (int), the number of zombie columns.
+	 */
+	private static void fill(Board board, int plantColumns, int zombieColumns) {
+		int n = 0;
+		for (int i = 0; i < board.getHeight(); i++) {
+			for (int j = 0; j < plantColumns; j++)
+				board.placePlant((Plant) GridObjectFactory.createNewGridObject(PLANTS[n++ % PLANTS.length]), i, j);
+			for (int j = board.getWidth() - zombieColumns; j < board.getWidth(); j++)
+				board.placeZombie((Zombie) GridObjectFactory.createNewGridObject(ZOMBIES[n++ % ZOMBIES.length]), i, j);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one board turn as the board grows, at the same density, with the
+ * lanes resolved serially and in parallel. A turn should cost about the same
+ * per cell at every size; a score that falls faster than the cell count grows
+ * means something in the turn scales worse than linearly. Each board keeps its
+ * cells in the backend given.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardScalingBenchmark {
+	@Param({"6x9", "20x60", "50x150", "100x300"})
+	public String size;
+
+	@Param({BoardFixtures.HALF})
+	public String density;
+
+	@Param({"SERIAL", "PARALLEL"})
+	public String turnMode;
+
+	@Param({"OBJECTS", "COMPACT"})
+	public String backend;
+
+	private Board board;
+
+	@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+	public void setUp() {
+		String[] dimensions = size.split("x");
+		board = BoardFixtures.build(density, Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+		board.setTurnMode(Board.TurnMode.valueOf(turnMode));
+		board.setBackend(Board.Backend.valueOf(backend));
+	}
+
+	@Benchmark
+	public Board boardTurn() {
+		board.boardTurn();
+		return board;
+	}
+
+	@Benchmark
+	public BoardTurnCommand boardTurnCommand() {
+		return new BoardTurnCommand(board, board.getLevel());
+	}
+}
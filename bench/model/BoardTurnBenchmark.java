@@ -0,0 +1,66 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of one board turn, with and without the undo snapshot, and of
+ * placing a plant, with the lanes resolved serially and in parallel. Each invocation gets a freshly built board because a turn
+ * changes the board it runs on. The GC profiler counts the bytes the fixture
+ * allocates too, so subtract the fixture benchmark's B/op from the others.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardTurnBenchmark {
+	@Param({BoardFixtures.EMPTY, BoardFixtures.HALF, BoardFixtures.FULL, BoardFixtures.QUEUED})
+	public String density;
+
+	@Param({"SERIAL", "PARALLEL"})
+	public String turnMode;
+
+	private Board board;
+
+	@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+	public void setUp() {
+		board = BoardFixtures.build(density);
+		board.setTurnMode(Board.TurnMode.valueOf(turnMode));
+	}
+
+	@Benchmark
+	public Board fixture() {
+		return board;
+	}
+
+	@Benchmark
+	public Board boardTurn() {
+		board.boardTurn();
+		return board;
+	}
+
+	@Benchmark
+	public BoardTurnCommand boardTurnCommand() {
+		return new BoardTurnCommand(board, board.getLevel());
+	}
+
+	@Benchmark
+	public PlacePlantCommand placePlantCommand() {
+		PlacePlantCommand command = new PlacePlantCommand(board, board.getLevel(), new PeaShooter(), 0, 3);
+		command.execute();
+		return command;
+	}
+}
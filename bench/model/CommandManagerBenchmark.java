@@ -0,0 +1,53 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of stepping back and forth through the command history. The
+ * history is built once; every invocation undoes and redoes the whole of it
+ * so the board ends where it started.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandManagerBenchmark {
+	@Param({BoardFixtures.EMPTY, BoardFixtures.HALF, BoardFixtures.FULL, BoardFixtures.QUEUED})
+	public String density;
+
+	@Param({"20"})
+	public int turns;
+
+	private Board board;
+
+	@Setup(org.openjdk.jmh.annotations.Level.Trial)
+	public void setUp() {
+		board = BoardFixtures.build(density);
+		for (int i = 0; i < turns; i++)
+			board.startBoardTurn();
+	}
+
+	@Benchmark
+	public Board undoRedoHistory() {
+		CommandManager commandManager = board.getCommandManager();
+		for (int i = 0; i < turns; i++)
+			commandManager.undo();
+		for (int i = 0; i < turns; i++)
+			commandManager.redo();
+		return board;
+	}
+}
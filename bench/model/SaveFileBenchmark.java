@@ -0,0 +1,115 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving and loading a recorded game with Java serialization of the whole
+ * board against the binary save format, with and without its history. The
+ * size of each save is printed when the trial starts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveFileBenchmark {
+	private static final String[] PLANTS = {"SunFlower", "PeaShooter", "Walnut", "VenusFlyTrap", "Potatoe"};
+
+	@Param({"20", "200"})
+	public int turns;
+
+	private Board board;
+	private byte[] legacy;
+	private byte[] binary;
+	private byte[] binaryWithHistory;
+
+	@Setup(org.openjdk.jmh.annotations.Level.Trial)
+	public void setUp() throws IOException {
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < turns; i++)
+			zombies.add(new GenericZombie());
+		board = new Board(new CommandManager());
+		board.setLevel(new Level(zombies));
+		board.setupGrid();
+		board.clear();
+		board.startRecording(1);
+
+		//A plant in the first empty cell whenever one is affordable, then end the turn
+		Level level = board.getLevel();
+		int n = 0;
+		for (int turn = 0; turn < turns; turn++) {
+			Plant plant = (Plant) GridObjectFactory.createNewGridObject(PLANTS[n % PLANTS.length]);
+			int cell = n % (Board.GRID_HEIGHT * (Board.GRID_WIDTH - 1));
+			int row = cell / (Board.GRID_WIDTH - 1);
+			int col = cell % (Board.GRID_WIDTH - 1);
+			if (plant.isAvailable() && plant.getPrice() <= level.coins && board.isEmpty(row, col)) {
+				board.getCommandManager().executeCommand(new PlacePlantCommand(board, level, plant, row, col));
+				n++;
+			}
+			board.startBoardTurn();
+			board.giftCoinsIfStuck();
+		}
+
+		legacy = saveLegacy().toByteArray();
+		binary = saveBinary().toByteArray();
+		binaryWithHistory = saveBinaryWithHistory().toByteArray();
+		System.out.println("\nSave sizes after " + turns + " turns: serialized " + legacy.length + " bytes, binary "
+				+ binary.length + " bytes, binary with history " + binaryWithHistory.length + " bytes");
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream saveLegacy() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(board);
+		out.close();
+		return bytes;
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream saveBinary() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SaveFile.write(board, bytes, false);
+		return bytes;
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream saveBinaryWithHistory() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SaveFile.write(board, bytes, true);
+		return bytes;
+	}
+
+	@Benchmark
+	public Board loadLegacy() throws IOException {
+		return SaveFile.readLegacy(new ByteArrayInputStream(legacy));
+	}
+
+	@Benchmark
+	public Board loadBinary() throws IOException {
+		return SaveFile.read(new ByteArrayInputStream(binary), false);
+	}
+
+	@Benchmark
+	public Board loadBinaryWithHistory() throws IOException {
+		return SaveFile.read(new ByteArrayInputStream(binaryWithHistory), true);
+	}
+}
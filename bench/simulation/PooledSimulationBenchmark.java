@@ -0,0 +1,61 @@
+package simulation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Level;
+
+/**
+ * Throughput of whole headless games played one after another, with and
+ * without an entity pool. Compare gc.alloc.rate.norm and gc.count between the
+ * two to see the garbage the pool saves; the pool's hit rate is printed at the
+ * end of each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PooledSimulationBenchmark {
+	@Param({"false", "true"})
+	public boolean pooled;
+
+	//Level 4 is endless mode, played until the policy loses
+	@Param({"3", "4"})
+	public int levelNo;
+
+	private SimulationRunner runner;
+	private long seed;
+
+	@Setup
+	public void setUp() {
+		runner = new SimulationRunner();
+		runner.setPooled(pooled);
+	}
+
+	@Benchmark
+	public SimulationResult game() {
+		return runner.run(new Level(levelNo), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS,
+				new Random(++seed));
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (pooled)
+			System.out.println("\nPool: " + runner.getPool());
+	}
+}
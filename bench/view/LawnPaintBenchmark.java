@@ -0,0 +1,174 @@
+package view;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.ImageIcon;
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.EntityType;
+import util.ResourceLoader;
+
+/**
+ * Time to paint the lawn drawn with a button per cell and drawn on one
+ * LawnCanvas, painted offscreen so it runs headless. Half the cells hold an
+ * entity. An animation tick gives every entity its next frame and paints what
+ * changed, a single change paints one cell as after a quiet turn, and a layout
+ * lays the lawn out again. With tiles the cell backgrounds and danger zone
+ * overlays are blitted from pre-rendered images instead of drawn. Run from the
+ * project directory so the sprites load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LawnPaintBenchmark {
+	@Param({"buttons", "canvas"})
+	public String renderer;
+
+	//rows x columns
+	@Param({"6x9", "30x100"})
+	public String size;
+
+	//Whether cells blit pre-rendered backgrounds or draw them on every paint
+	@Param({"false", "true"})
+	public boolean tiles;
+
+	private GridCellButton[][] cells;
+	private GridCellButton[] occupied;
+	private ImageIcon[][] frames;
+	private JPanel panel;
+	private LawnCanvas canvas;
+	private BufferedImage screen;
+	private Graphics2D graphics;
+	private int frame;
+
+	@Setup
+	public void setUp() {
+		GridCellButton.setCacheTiles(tiles);
+		String[] dimensions = size.split("x");
+		int rows = Integer.parseInt(dimensions[0]);
+		int cols = Integer.parseInt(dimensions[1]);
+		cells = new GridCellButton[rows][cols];
+		occupied = new GridCellButton[(rows * cols + 1) / 2];
+		frames = new ImageIcon[occupied.length][];
+		int k = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				cells[i][j] = new GridCellButton(i, j, cols);
+				cells[i][j].setEnabled(true);
+				if ((i + j) % 2 == 0) {
+					EntityType type = (j % 3 == 0) ? EntityType.GENERIC_ZOMBIE : EntityType.SUN_FLOWER;
+					cells[i][j].setEntity(type.create());
+					frames[k] = new ImageIcon[4];
+					for (int f = 0; f < 4; f++)
+						frames[k][f] = ResourceLoader.loadAnimationFrame(type.getTitle(), f,
+								GameTheme.GRID_ICON_WIDTH, GameTheme.GRID_ICON_HEIGHT);
+					occupied[k++] = cells[i][j];
+				}
+			}
+		}
+		panel = View.createGridPanel(cells, renderer.equals("canvas"));
+		canvas = renderer.equals("canvas") ? (LawnCanvas) panel.getComponent(0) : null;
+		Dimension preferred = panel.getPreferredSize();
+		panel.setSize(preferred);
+		layOut(panel);
+		screen = new BufferedImage(preferred.width, preferred.height, BufferedImage.TYPE_INT_RGB);
+		graphics = screen.createGraphics();
+		panel.paint(graphics);
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	private static void layOut(Component component) {
+		if (component instanceof Container) {
+			((Container) component).doLayout();
+			for (Component child : ((Container) component).getComponents())
+				layOut(child);
+		}
+	}
+
+	@Benchmark
+	public BufferedImage fullPaint() {
+		if (canvas != null)
+			for (GridCellButton[] row : cells)
+				for (GridCellButton cell : row)
+					canvas.cellChanged(cell);
+		panel.paint(graphics);
+		return screen;
+	}
+
+	@Benchmark
+	public BufferedImage animationTick() {
+		frame++;
+		Rectangle dirty = null;
+		for (int k = 0; k < occupied.length; k++) {
+			occupied[k].setEntityIcon(frames[k][frame & 3]);
+			Rectangle r = bounds(occupied[k]);
+			dirty = dirty == null ? r : dirty.union(r);
+		}
+		paintChanged(dirty);
+		return screen;
+	}
+
+	@Benchmark
+	public BufferedImage singleCellChange() {
+		frame++;
+		occupied[0].setEntityIcon(frames[0][frame & 3]);
+		paintChanged(bounds(occupied[0]));
+		return screen;
+	}
+
+	@Benchmark
+	public JPanel layout() {
+		panel.invalidate();
+		layOut(panel);
+		return panel;
+	}
+
+	/**
+	 * Paint what the repaint manager would after the occupied cells changed. It
+	 * merges the dirty regions of one root into their union and paints the root
+	 * once, clipped to that union, so both renderers are painted that way from the
+	 * panel holding them.
+	 */
+	private void paintChanged(Rectangle dirty) {
+		Graphics2D g = (Graphics2D) graphics.create();
+		g.clip(dirty);
+		panel.paint(g);
+		g.dispose();
+	}
+
+	/**
+	 * This method gets the bounds of a cell in the panel.
+	 */
+	private Rectangle bounds(GridCellButton cell) {
+		Rectangle r = cell.getBounds();
+		if (canvas != null)
+			r.translate(canvas.getX(), canvas.getY());
+		return r;
+	}
+}
@@ -1,44 +1,47 @@
 package controller;
 
 import model.Level;
-import model.NullSpace;
 import model.PlacePlantCommand;
+import model.SaveFile;
 import model.PeaShooter;
 import model.Plant;
 import model.Potatoe;
-import model.SunFlower;
 import model.VenusFlyTrap;
 import model.Walnut;
 import model.Zombie;
+import model.ZombieWave;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Scanner;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.event.ListSelectionEvent;
 
 import model.Board;
 import model.Board.State;
-import model.BurrowingBailey;
+import model.BoardEvent;
+import model.BoardListener;
+import model.BoardStats;
 import model.CommandManager;
-import model.FrankTheTank;
-import model.GenericZombie;
+import model.EntityType;
 import model.GridObject;
-import model.GridObjectFactory;
+import model.HistoryPolicy;
 import util.SoundManager;
 import view.AnimationManager;
 import view.GameOverDialog;
@@ -56,6 +59,35 @@ public class Controller {
 	private boolean isStartOfLevel;
 	private AnimationManager animationManager;
 	private boolean gameStarted = false;
+	//How long the engine took over the last board turn, shown in the endless mode HUD
+	private long lastTurnNanos;
+	//Cells changed since the grid was last drawn, row * width + col, marked by the board's events
+	private final BitSet dirtyCells = new BitSet();
+	//True when every cell must be drawn again, after a new board, level or grid
+	private boolean gridStale = true;
+	private final BoardListener boardListener = new BoardListener() {
+		@Override
+		public void boardChanged(BoardEvent event) {
+			if (!event.isCellEvent()) {
+				view.getCoins().setText("       Sun Points: " + event.getAfter());
+				view.updateSunPoints(event.getAfter());
+				updatePlantCardStates();
+				return;
+			}
+			dirtyCells.set(event.getRow() * board.getWidth() + event.getCol());
+			if (event.getType() == BoardEvent.Type.MOVED)
+				dirtyCells.set(event.getFromRow() * board.getWidth() + event.getFromCol());
+		}
+	};
+	//The largest custom board the level editor allows, bigger boards can still be simulated
+	private static final int MAX_ROWS = 30;
+	private static final int MAX_COLUMNS = 100;
+	//The lawn endless mode offers first, larger than the levels' so more lanes fill up
+	private static final int ENDLESS_ROWS = 10;
+	private static final int ENDLESS_COLUMNS = 16;
+	//The lawn the player chose for endless mode, kept for trying again
+	private int endlessRows = ENDLESS_ROWS;
+	private int endlessColumns = ENDLESS_COLUMNS;
 
 	/**
 	 * The constructor, constructs the controller.
@@ -69,6 +101,7 @@ public class Controller {
 		this.board = board;
 		commandManager = cm;
 		animationManager = new AnimationManager();
+		board.addBoardListener(boardListener);
 
 		// Don't start game immediately - show start screen first
 		setupStartScreen();
@@ -89,6 +122,12 @@ public class Controller {
 				startGameFromMenu(level);
 			}
 
+			@Override
+			public void onEndlessMode() {
+				if (chooseEndlessSize())
+					startGameFromMenu(Level.ENDLESS);
+			}
+
 			@Override
 			public void onLevelEditor() {
 				view.showGameScreen();
@@ -100,6 +139,52 @@ public class Controller {
 		view.showStartScreen();
 	}
 
+	/**
+	 * This method asks the player how large a lawn to play endless mode on, within
+	 * the same limits as the level editor.
+	 * @return A boolean, true if the player chose a size.
+	 */
+	private boolean chooseEndlessSize() {
+		JTextField rowsField = new JTextField(String.valueOf(endlessRows), 5);
+		JTextField columnsField = new JTextField(String.valueOf(endlessColumns), 5);
+		JPanel panel = new JPanel();
+		panel.add(new JLabel("Rows:"));
+		panel.add(rowsField);
+		panel.add(new JLabel("Columns:"));
+		panel.add(columnsField);
+		if (JOptionPane.showConfirmDialog(null, panel, "Endless Mode", JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION)
+			return false;
+
+		int rows, columns;
+		try {
+			rows = Integer.parseInt(rowsField.getText().trim());
+			columns = Integer.parseInt(columnsField.getText().trim());
+		} catch (NumberFormatException e) {
+			JOptionPane.showMessageDialog(null,"You may only enter numbers in the fields");
+			return false;
+		}
+		if (!checkBoardSize(rows, columns))
+			return false;
+		endlessRows = rows;
+		endlessColumns = columns;
+		return true;
+	}
+
+	/**
+	 * This method checks a board size the player entered, telling them if the
+	 * level editor does not allow it.
+	 * @param rows (int), the number of rows.
+	 * @param columns (int), the number of columns.
+	 * @return A boolean, true if the size is allowed.
+	 */
+	private boolean checkBoardSize(int rows, int columns) {
+		if (rows < 2 || rows > MAX_ROWS || columns < 2 || columns > MAX_COLUMNS) {
+			JOptionPane.showMessageDialog(null,"The board must have 2 to " + MAX_ROWS + " rows and 2 to " + MAX_COLUMNS + " columns");
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Start game from the start menu.
 	 */
@@ -126,9 +211,29 @@ public class Controller {
 		// Initialize the level and grid
 		level = new Level(levelNo);
 		board.setLevel(level);
+		//Endless mode is played on the lawn the player chose, the levels on the standard one
+		if (level.isEndless())
+			board.setDimensions(endlessRows, endlessColumns);
+		else
+			board.setDimensions(Board.GRID_HEIGHT, Board.GRID_WIDTH);
 		board.setupGrid();
 		board.clear();
+		resetHistory();
+		board.startRecording(ThreadLocalRandom.current().nextLong());
+		resizeGrid();
+		gridStale = true;
 		isStartOfLevel = true;
+		view.setLevelInfo(level.isEndless() ? "Endless" : "Level " + levelNo);
+		lastTurnNanos = 0;
+		updateHud();
+	}
+
+	/**
+	 * This method forgets the undo history and bounds it from here on.
+	 */
+	private void resetHistory() {
+		board.getCommandManager().clear();
+		board.getCommandManager().setHistoryPolicy(HistoryPolicy.DEFAULT);
 	}
 
 	/**
@@ -167,10 +272,10 @@ public class Controller {
 	 * Register all grid entities for animation.
 	 */
 	private void registerAllAnimations() {
-		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
-			for (int j = 0; j < Board.GRID_WIDTH; j++) {
+		for (int i = 0; i < board.getHeight(); i++) {
+			for (int j = 0; j < board.getWidth(); j++) {
 				GridObject obj = board.getObject(i, j);
-				if (obj != null && !(obj instanceof NullSpace)) {
+				if (obj != null && !obj.getEntityType().isEmpty()) {
 					JButton button = view.getButtons()[i][j];
 					if (button instanceof GridCellButton) {
 						animationManager.registerEntity((GridCellButton) button, obj);
@@ -200,10 +305,7 @@ public class Controller {
 		view.getConfirm().addActionListener(e -> confirmLevelChoices());
 
 		// Initialize action listener for all of the grid buttons
-		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
-			for (int j = 0; j < Board.GRID_WIDTH; j++)
-				view.getButtons()[i][j].addActionListener(e -> gridPositionSelected(e));
-		}
+		listenToGrid();
 
 		// Initialize action listener for the end turn button
 		view.getEndTurn().addActionListener(e -> endTurn());
@@ -212,9 +314,9 @@ public class Controller {
 		view.getUndoTurn().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				SoundManager.play(SoundManager.BUTTON_CLICK);
-				board.commandManager.undo();
+				board.undo();
+				updateHud();
 				gridCond(State.STATS);
-				registerAllAnimations();
 			}
 		});
 
@@ -222,9 +324,9 @@ public class Controller {
 		view.getRedoTurn().addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				SoundManager.play(SoundManager.BUTTON_CLICK);
-				board.commandManager.redo();
+				board.redo();
+				updateHud();
 				gridCond(State.STATS);
-				registerAllAnimations();
 			}
 		});
 	}
@@ -233,11 +335,15 @@ public class Controller {
 		int numGenericZombie = 0;
 		int numFrankTheTank = 0;
 		int numBurrowingBailey = 0;
+		int rows = 0;
+		int columns = 0;
 
 		try {
 			numGenericZombie = Integer.parseInt(view.getGenericZombieCB().getText());
 			numFrankTheTank = Integer.parseInt(view.getFrankTheTankCB().getText());
 			numBurrowingBailey = Integer.parseInt(view.getBurrowingBaileyCB().getText());
+			rows = Integer.parseInt(view.getRowsField().getText());
+			columns = Integer.parseInt(view.getColumnsField().getText());
 		} catch (NumberFormatException e) {
 			JOptionPane.showMessageDialog(null,"You may only enter numbers in the fields");
 			return;
@@ -253,19 +359,31 @@ public class Controller {
 			return;
 		}
 
-		ArrayList<Zombie> userZombie = new ArrayList<Zombie>();
+		if (!checkBoardSize(rows, columns))
+			return;
+
+		if ((long) numGenericZombie + numFrankTheTank + numBurrowingBailey > Integer.MAX_VALUE) {
+			JOptionPane.showMessageDialog(null,"You cannot select more than " + Integer.MAX_VALUE + " zombies");
+			return;
+		}
 
-		for (int i = 0; i < numGenericZombie; i++)
-			userZombie.add(new GenericZombie());
-		for (int i = 0; i < numFrankTheTank; i++)
-			userZombie.add(new FrankTheTank());
-		for (int i = 0; i < numBurrowingBailey; i++)
-			userZombie.add(new BurrowingBailey());
+		//Only the counts are kept, each zombie is created when it spawns
+		ZombieWave wave = new ZombieWave();
+		wave.add(EntityType.GENERIC_ZOMBIE, numGenericZombie);
+		wave.add(EntityType.FRANK_THE_TANK, numFrankTheTank);
+		wave.add(EntityType.BURROWING_BAILEY, numBurrowingBailey);
 
-		level = new Level(userZombie);
+		level = new Level(wave);
 		board.setLevel(level);
+		view.setLevelInfo("Custom Level");
+		updateHud();
+		board.setDimensions(rows, columns);
 		board.clear();
 		board.setupGrid();
+		resetHistory();
+		board.startRecording(ThreadLocalRandom.current().nextLong());
+		resizeGrid();
+		gridStale = true;
 
 		// Initialize plant cards for custom level
 		initPlantCards();
@@ -276,6 +394,30 @@ public class Controller {
 		view.getLevelEditorFrame().dispose();
 	}
 
+	/**
+	 * This method listens to every button of the view's grid.
+	 */
+	private void listenToGrid() {
+		JButton[][] buttons = view.getButtons();
+		for (int i = 0; i < buttons.length; i++) {
+			for (int j = 0; j < buttons[i].length; j++)
+				buttons[i][j].addActionListener(e -> gridPositionSelected(e));
+		}
+	}
+
+	/**
+	 * This method rebuilds the view's grid when the board's size has changed.
+	 */
+	private void resizeGrid() {
+		JButton[][] buttons = view.getButtons();
+		if (buttons.length == board.getHeight() && buttons[0].length == board.getWidth())
+			return;
+		animationManager.clearAll();
+		view.createGrid(board.getHeight(), board.getWidth());
+		listenToGrid();
+		gridStale = true;
+	}
+
 	private void editLevel() {
 		view.makeLevelEditor();
 	}
@@ -378,16 +520,16 @@ public class Controller {
 			return;
 		}
 
-		// Get selected plant name
-		String plantSelected = null;
+		// Get selected plant type
+		EntityType plantSelected = null;
 
 		// Try new plant cards first
 		int selectedCardIndex = view.getSelectedPlantIndex();
 		if (selectedCardIndex >= 0 && selectedCardIndex < level.allPlants.size()) {
-			plantSelected = level.allPlants.get(selectedCardIndex).getObjectTitle();
+			plantSelected = level.allPlants.get(selectedCardIndex).getEntityType();
 		} else if (view.getPlants().getSelectedValue() != null) {
 			// Fall back to legacy JList
-			plantSelected = ((JLabel) view.getPlants().getSelectedValue().getComponent(0)).getText();
+			plantSelected = EntityType.forTitle(((JLabel) view.getPlants().getSelectedValue().getComponent(0)).getText());
 		}
 
 		if (plantSelected == null) {
@@ -410,7 +552,7 @@ public class Controller {
 		SoundManager.play(SoundManager.PLANT_PLACE);
 
 		// Add the plant to the board
-		Plant newPlant = (Plant) GridObjectFactory.createNewGridObject(plantSelected);
+		Plant newPlant = (Plant) plantSelected.create();
 		commandManager.executeCommand(
 				new PlacePlantCommand(board, level, newPlant, i, j));
 
@@ -422,13 +564,6 @@ public class Controller {
 			animationManager.registerEntity((GridCellButton) button, newPlant);
 		}
 
-		// Display coins
-		view.getCoins().setText("       Sun Points: " + level.coins);
-		view.updateSunPoints(level.coins);
-
-		// Update plant card states
-		updatePlantCardStates();
-
 		// Allow player to check current stats of any object
 		gridCond(State.STATS);
 		// Enable the flower buttons in case player would like to plant another plant
@@ -445,7 +580,10 @@ public class Controller {
 		boolean zombiesWillSpawn = !level.zombiesEmpty();
 
 		// Plants and zombies attack then zombies spawn
+		long start = System.nanoTime();
 		board.startBoardTurn();
+		lastTurnNanos = System.nanoTime() - start;
+		updateHud();
 
 		// Play combat sounds if there are zombies on board
 		if (!board.zombiesOnBoard.isEmpty()) {
@@ -464,33 +602,16 @@ public class Controller {
 		}
 
 		// Play sun collection sound (sunflowers generate sun)
-		boolean hasSunflowers = false;
-		for (int row = 0; row < Board.GRID_HEIGHT; row++) {
-			for (int col = 0; col < Board.GRID_WIDTH; col++) {
-				if (board.getObject(row, col) instanceof SunFlower) {
-					hasSunflowers = true;
-					break;
-				}
-			}
-			if (hasSunflowers) break;
-		}
-		if (hasSunflowers) {
+		if (board.getStats().hasSunflowers()) {
 			SoundManager.play(SoundManager.SUN_COLLECT);
 		}
 
-		// Update the coins on the GUI
-		view.getCoins().setText("       Sun Points: " + level.coins);
-		view.updateSunPoints(level.coins);
+		// Redraw only the cells the turn changed, the coins were updated as they changed
+		gridCond(State.STATS);
 
-		// Update plant card states
+		// Cooldowns count down every turn whether or not the coins changed
 		updatePlantCardStates();
 
-		// Update the grid
-		gridCond(State.DISABLED);
-
-		// Re-register animations for any new entities
-		registerAllAnimations();
-
 		// Flash cells with zombies
 		flashZombieCells();
 
@@ -498,31 +619,37 @@ public class Controller {
 		playerWinLose();
 
 		// If no plant is affordable the player is gifted coins.
-		if (!level.plantAffordable() && board.noSunflowers()) {
-			JOptionPane.showMessageDialog(view, "Wow you just found " + (50 - level.coins) + " Sun Points...");
-			level.coins = 50;
-			view.updateSunPoints(level.coins);
-			updatePlantCardStates();
-		}
+		int gift = board.giftCoinsIfStuck();
+		if (gift > 0)
+			JOptionPane.showMessageDialog(view, "Wow you just found " + gift + " Sun Points...");
 
 		// Board turn has ended, allow the player to pick another plant
 		plantButtonsEnabled(true);
 		gridCond(State.STATS);
 	}
 
+	/**
+	 * This method shows the turns survived, the entities alive and the time of the
+	 * last board turn in endless mode, and hides the HUD for the other levels.
+	 */
+	private void updateHud() {
+		if (level == null || !level.isEndless()) {
+			view.setHud(null);
+			return;
+		}
+		BoardStats stats = board.getStats();
+		view.setHud(String.format("Turn %d   Wave %d   Zombies %d   Plants %d   Engine %.2f ms", level.getTurns(),
+				level.getWaveNo(), stats.getZombieCount(), stats.getPlantCount(), lastTurnNanos / 1e6));
+	}
+
 	/**
 	 * Flash cells containing zombies.
 	 */
 	private void flashZombieCells() {
-		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
-			for (int j = 0; j < Board.GRID_WIDTH; j++) {
-				GridObject obj = board.getObject(i, j);
-				if (obj instanceof Zombie) {
-					JButton button = view.getButtons()[i][j];
-					if (button instanceof GridCellButton) {
-						((GridCellButton) button).flashDanger();
-					}
-				}
+		for (Zombie zombie : board.getZombiesOnBoard()) {
+			JButton button = view.getButtons()[board.getY(zombie)][board.getX(zombie)];
+			if (button instanceof GridCellButton) {
+				((GridCellButton) button).flashDanger();
 			}
 		}
 	}
@@ -615,48 +742,72 @@ public class Controller {
 
 	/**
 	 * This method refreshes the board and sets the unoccupied buttons to enabled or
-	 * disabled according to the parameter passed.
+	 * disabled according to the parameter passed. When the state is unchanged only
+	 * the cells the board reported changing are redrawn, so the work after a turn
+	 * grows with what the turn did rather than with the size of the board.
 	 *
 	 * @param state
 	 */
 	private void gridCond(State state) {
+		boolean full = gridStale || state != board.getGridState();
 		board.setGridState(state);
-		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
-			for (int j = 0; j < Board.GRID_WIDTH; j++) {
-				JButton button = view.getButtons()[i][j];
-				// Update the button at the specified location
-				view.updateButton(button, board.grid[i][j]);
-
-				switch (state) {
-				case STATS:
-					if (!board.isEmpty(i, j)) {
-						button.setEnabled(true);
-					} else
-						button.setEnabled(false);
-					break;
-				case POSITIONS:
-					if (!board.isEmpty(i, j) || j == Board.GRID_WIDTH - 1)
-						button.setEnabled(false);
-					else {
-						button.setEnabled(true);
-						button.setContentAreaFilled(true);
-					}
-					break;
-				case DISABLED:
-					button.setEnabled(false);
-					button.setContentAreaFilled(false);
-					break;
-				}
+		if (full) {
+			for (int i = 0; i < board.getHeight(); i++) {
+				for (int j = 0; j < board.getWidth(); j++)
+					updateCell(i, j, state);
 			}
 		}
+		else {
+			int width = board.getWidth();
+			for (int cell = dirtyCells.nextSetBit(0); cell >= 0; cell = dirtyCells.nextSetBit(cell + 1))
+				updateCell(cell / width, cell % width, state);
+		}
+		dirtyCells.clear();
+		gridStale = false;
 		view.getCoins().setText("       Sun Points: " + level.coins);
 
 		view.getUndoTurn().setEnabled(board.commandManager.isUndoAvailable());
 		view.getRedoTurn().setEnabled(board.commandManager.isRedoAvailable());
 
-		// Refresh the GUI
-		view.revalidate();
-		view.repaint();
+		// Refresh the GUI, redrawn cells repaint themselves
+		if (full) {
+			view.revalidate();
+			view.repaint();
+		}
+	}
+
+	/**
+	 * This method redraws one cell and enables or disables it for the state.
+	 *
+	 * @param i (int), the row.
+	 * @param j (int), the column.
+	 * @param state (State), the grid's state.
+	 */
+	private void updateCell(int i, int j, State state) {
+		JButton button = view.getButtons()[i][j];
+		// Update the button at the specified location
+		view.updateButton(button, board.getObject(i, j));
+
+		switch (state) {
+		case STATS:
+			if (!board.isEmpty(i, j)) {
+				button.setEnabled(true);
+			} else
+				button.setEnabled(false);
+			break;
+		case POSITIONS:
+			if (!board.isEmpty(i, j) || j == board.getWidth() - 1)
+				button.setEnabled(false);
+			else {
+				button.setEnabled(true);
+				button.setContentAreaFilled(true);
+			}
+			break;
+		case DISABLED:
+			button.setEnabled(false);
+			button.setContentAreaFilled(false);
+			break;
+		}
 	}
 
 	private void importFromFile() {
@@ -679,29 +830,30 @@ public class Controller {
 		if (selection == -1)
 			return;
 
+		//Saves in the binary format and older serialized saves are both read
 		Board boardIn = null;
-		try {
-			FileInputStream fileIn = new FileInputStream(PVZDirectory + file.list()[selection]);
-			ObjectInputStream in = new ObjectInputStream(fileIn);
-			boardIn = (Board) in.readObject();
-			in.close();
-			fileIn.close();
+		try (FileInputStream fileIn = new FileInputStream(PVZDirectory + file.list()[selection])) {
+			boardIn = SaveFile.load(fileIn);
 		} catch (IOException i) {
 			i.printStackTrace();
-			return;
-		} catch (ClassNotFoundException c) {
-			System.out.println("Board class not found");
-			c.printStackTrace();
+			JOptionPane.showMessageDialog(view, "That save could not be loaded");
 			return;
 		}
+		board.removeBoardListener(boardListener);
 		board = boardIn;
+		board.addBoardListener(boardListener);
+		gridStale = true;
 		level = boardIn.getLevel();
 		commandManager = boardIn.getCommandManager();
+		commandManager.setHistoryPolicy(HistoryPolicy.DEFAULT);
+		lastTurnNanos = 0;
+		updateHud();
 		view.getPlants().clearSelection();
 		view.clearPlantSelection();
 
 		// Reinitialize plant cards for loaded level
 		initPlantCards();
+		resizeGrid();
 
 		// Re-register animations
 		registerAllAnimations();
@@ -726,12 +878,9 @@ public class Controller {
 
 		new File(PVZDirectory).mkdirs();
 
-		try {
-			FileOutputStream fileOut = new FileOutputStream(PVZDirectory + exportFile + ".ser");
-			ObjectOutputStream out = new ObjectOutputStream(fileOut);
-			out.writeObject(board);
-			out.close();
-			fileOut.close();
+		try (BufferedOutputStream fileOut = new BufferedOutputStream(
+				new FileOutputStream(PVZDirectory + exportFile + SaveFile.EXTENSION))) {
+			SaveFile.write(board, fileOut, true);
 			SoundManager.play(SoundManager.BUTTON_CLICK);
 		} catch (IOException i) {
 			i.printStackTrace();
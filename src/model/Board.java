@@ -1,26 +1,91 @@
 package model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class Board implements Serializable{
+	//The size of the standard board
 	public static final int GRID_HEIGHT = 6;
 	public static final int GRID_WIDTH = 9;
+	//Cells are packed into ints, row * width + col
+	public static final int MAX_CELLS = 1 << 24;
+	private int height = GRID_HEIGHT;
+	private int width = GRID_WIDTH;
 	private State gridState;
 	
 	public enum State implements Serializable{
 		POSITIONS, STATS, DISABLED;
 	}
 	
-	public GridObject[][] grid;
+	/**
+	 * How the lanes of a turn are resolved. PARALLEL resolves every lane with
+	 * zombies as its own fork-join task, VERIFY also resolves a copy of the board
+	 * serially and fails if the two differ.
+	 */
+	public enum TurnMode {
+		SERIAL, PARALLEL, VERIFY;
+	}
+	
+	/**
+	 * Where the board keeps its cells. OBJECTS keeps an object per cell, each
+	 * plant and zombie holding its own health. COMPACT keeps the type id and
+	 * health of every cell in flat arrays that the plants and zombies read and
+	 * write through, with no object for an empty cell, for headless games on
+	 * large boards.
+	 */
+	public enum Backend {
+		OBJECTS, COMPACT;
+	}
+	
+	//What is in each cell, null until the grid is set up
+	private BoardStorage storage;
+	private Backend backend = Backend.OBJECTS;
 	public ArrayList<GridObject> gridObjects = new ArrayList<GridObject>();
 	public ArrayList<Zombie> zombiesOnBoard = new ArrayList<Zombie>();
 	public ArrayList<Plant> plantsOnBoard = new ArrayList<Plant>();
 	public CommandManager commandManager;
 	
 	private Level level;
+	//Source of spawn rolls, null to use the seeded draws or, if unseeded, the thread's shared generator
+	private Random random;
+	//Seeded draws are a pure function of the seed and the draw count so saving them takes two longs
+	private boolean seeded;
+	private long seed;
+	private long draws;
+	//Records the player's actions, null when the game is not being recorded
+	private Replay replay;
+	//False until the cells of the objects on the grid and the lanes are built
+	private transient boolean indexed;
+	//Per row, the zombies and plants in that lane ordered by column
+	private transient ArrayList<ArrayList<Zombie>> laneZombies;
+	private transient ArrayList<ArrayList<Plant>> lanePlants;
+	//Per row, the plants and zombies whose health dropped to zero since the last removal
+	private transient ArrayList<ArrayList<GridObject>> laneDeaths;
+	//Records the changes made by the running command, null when no command is recording
+	private transient MutationJournal journal;
+	//Per row, the journal of a lane being resolved in parallel, null otherwise
+	private transient MutationJournal[] laneJournals;
+	//True while lanes are being resolved in parallel
+	private transient boolean inParallel;
+	//Counts of what is on the grid, rebuilt with the index
+	private transient BoardStats stats;
+	//Where the dead go when no journal needs them for undo, null to leave them to the garbage collector
+	private transient EntityPool pool;
+	//Told of each change to the cells and coins, null when nothing listens
+	private transient ArrayList<BoardListener> listeners;
+	//The coins the listeners were last told of
+	private transient int reportedCoins;
+	//True while a spawned zombie is being placed, so its event says it spawned
+	private transient boolean spawning;
+	//True while the dead are removed, who leave their lanes together afterwards
+	private transient boolean sweeping;
+	private TurnMode turnMode = TurnMode.SERIAL;
 	
 	//Use this constructor for tests only
 	public Board() {
@@ -29,32 +94,439 @@ public class Board implements Serializable{
 	public Board(CommandManager cm) {
 		commandManager = cm;
 	}
+	
+	/**
+	 * This constructor creates a board of any size.
+	 * @param cm (CommandManager), the command manager.
+	 * @param height (int), the number of rows.
+	 * @param width (int), the number of columns.
+	 */
+	public Board(CommandManager cm, int height, int width) {
+		commandManager = cm;
+		setDimensions(height, width);
+	}
+	
+	/**
+	 * This method changes the size of the board. The grid must be set up again
+	 * afterwards with setupGrid().
+	 * @param height (int), the number of rows, at least 2 since zombies never spawn on the last row.
+	 * @param width (int), the number of columns, at least 2.
+	 */
+	public void setDimensions(int height, int width) {
+		if (height < 2 || width < 2 || (long) height * width > MAX_CELLS)
+			throw new IllegalArgumentException("Bad board size " + height + "x" + width);
+		this.height = height;
+		this.width = width;
+		storage = null;
+		indexed = false;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+	
+	public int getWidth() {
+		return width;
+	}
 
 	/**
 	 * This method sets up and prints the grid.
 	 */
 	public void setupGrid() {
-		grid = new GridObject[GRID_HEIGHT][GRID_WIDTH];
-		for (int i = 0; i < GRID_HEIGHT; i++) {
-			for (int j = 0; j < GRID_WIDTH; j++) {
-				grid[i][j] = new NullSpace();
+		storage = newStorage(backend, height, width);
+		for (int cell = 0; cell < height * width; cell++)
+			storage.set(cell, storage.emptyCell(cell));
+		reindex();
+	}
+	
+	private static BoardStorage newStorage(Backend backend, int height, int width) {
+		return backend == Backend.COMPACT ? new CompactStorage(height, width) : new ObjectStorage(height * width);
+	}
+	
+	/**
+	 * This method changes where the board keeps its cells. Whatever is on the
+	 * grid moves to the new storage as it is, so a game can change backend
+	 * between turns.
+	 * @param backend (Backend), the backend.
+	 */
+	public void setBackend(Backend backend) {
+		if (backend == this.backend)
+			return;
+		this.backend = backend;
+		if (storage == null)
+			return;
+		BoardStorage moved = newStorage(backend, height, width);
+		storage.release();
+		for (int cell = 0; cell < height * width; cell++) {
+			GridObject gridObject = storage.get(cell);
+			if (gridObject.getEntityType().isEmpty()) {
+				gridObject = moved.emptyCell(cell);
+				gridObject.cell = cell;
+				gridObject.board = this;
+			}
+			moved.set(cell, gridObject);
+		}
+		storage = moved;
+	}
+	
+	public Backend getBackend() {
+		return backend;
+	}
+	
+	/**
+	 * This method gets the storage of the cells.
+	 * @return BoardStorage, or null if the grid is not set up.
+	 */
+	BoardStorage getStorage() {
+		return storage;
+	}
+	
+	/**
+	 * This method rebuilds the objects' cells and the lanes from the grid.
+	 */
+	public void reindex() {
+		laneZombies = new ArrayList<ArrayList<Zombie>>(height);
+		lanePlants = new ArrayList<ArrayList<Plant>>(height);
+		laneDeaths = new ArrayList<ArrayList<GridObject>>(height);
+		stats = new BoardStats(height);
+		for (int i = 0; i < height; i++) {
+			ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+			ArrayList<Plant> plants = new ArrayList<Plant>();
+			ArrayList<GridObject> deaths = new ArrayList<GridObject>();
+			for (int j = 0; j < width; j++) {
+				GridObject o = storage.get(i * width + j);
+				o.cell = i * width + j;
+				o.board = this;
+				if (!o.getEntityType().isEmpty() && healthOf(o) <= 0)
+					deaths.add(o);
+				stats.added(o, i, j);
+				if (o.getEntityType().isZombie()) {
+					o.laneIndex = zombies.size();
+					zombies.add((Zombie) o);
+				}
+				else if (o.getEntityType().isPlant()) {
+					o.laneIndex = plants.size();
+					plants.add((Plant) o);
+				}
+			}
+			laneZombies.add(zombies);
+			lanePlants.add(plants);
+			laneDeaths.add(deaths);
+		}
+		indexed = true;
+	}
+	
+	/**
+	 * This method rebuilds the index if the board was deserialized.
+	 */
+	private void ensureIndexed() {
+		if (!indexed)
+			reindex();
+	}
+	
+	/**
+	 * This method writes an object into a cell and records its position. Any plant
+	 * or zombie it overwrites leaves its lane, unless the dead are being swept.
+	 * @param gridObject (GridObject), the object to store.
+	 * @param i (int), the row.
+	 * @param j (int), the column.
+	 */
+	private void setObject(GridObject gridObject, int i, int j) {
+		ensureIndexed();
+		GridObject old = storage.get(i * width + j);
+		storage.set(i * width + j, gridObject);
+		old.cell = -1;
+		if (old.board == this)
+			old.board = null;
+		//While sweeping, removeTheDead() compacts the lane once all its dead are gone
+		if (!sweeping && old.getEntityType().isZombie())
+			removeFromLane(laneZombies.get(i), old);
+		else if (!sweeping && old.getEntityType().isPlant())
+			removeFromLane(lanePlants.get(i), old);
+		stats.removed(old, i, j);
+		gridObject.cell = i * width + j;
+		gridObject.board = this;
+		if (!gridObject.getEntityType().isEmpty() && healthOf(gridObject) <= 0)
+			laneDeaths.get(i).add(gridObject);
+		stats.added(gridObject, i, j);
+		if (listeners == null)
+			return;
+		if (!old.getEntityType().isEmpty())
+			fire(healthOf(old) <= 0 ? BoardEvent.Type.DIED : BoardEvent.Type.REMOVED, old, i, j, i, j, 0, 0);
+		if (!gridObject.getEntityType().isEmpty())
+			fire(spawning ? BoardEvent.Type.SPAWNED : BoardEvent.Type.PLACED, gridObject, i, j, i, j, 0, 0);
+	}
+	
+	/**
+	 * This method inserts an object into a lane keeping the lane ordered by column.
+	 * Spawns happen on the right, so the search starts from the end.
+	 * @param lane (ArrayList), the lane.
+	 * @param gridObject (GridObject), the object already placed on the grid.
+	 */
+	private <T extends GridObject> void addToLane(ArrayList<T> lane, T gridObject) {
+		int col = getX(gridObject);
+		int k = lane.size();
+		while (k > 0 && getX(lane.get(k - 1)) > col)
+			k--;
+		lane.add(k, gridObject);
+		for (; k < lane.size(); k++)
+			lane.get(k).laneIndex = k;
+	}
+	
+	/**
+	 * This method takes an object out of a lane, found by its lane index. Lanes are
+	 * ordered by column, zombies moving left to right in that order, so the entries
+	 * after it shift down rather than the last taking its place.
+	 * @param lane (ArrayList), the lane.
+	 * @param gridObject (GridObject), the object leaving the lane.
+	 */
+	private void removeFromLane(ArrayList<? extends GridObject> lane, GridObject gridObject) {
+		int k = indexIn(lane, gridObject, gridObject.laneIndex);
+		if (k == -1)
+			return;
+		lane.remove(k);
+		for (; k < lane.size(); k++)
+			lane.get(k).laneIndex = k;
+		gridObject.laneIndex = -1;
+	}
+	
+	/**
+	 * This method takes every object no longer on the board out of a lane in one
+	 * pass, keeping the order of the rest.
+	 * @param lane (ArrayList), the lane.
+	 */
+	private <T extends GridObject> void compactLane(ArrayList<T> lane) {
+		int kept = 0;
+		for (int k = 0; k < lane.size(); k++) {
+			T gridObject = lane.get(k);
+			if (cellOf(gridObject) == -1) {
+				gridObject.laneIndex = -1;
+				continue;
 			}
+			gridObject.laneIndex = kept;
+			lane.set(kept++, gridObject);
 		}
+		for (int k = lane.size() - 1; k >= kept; k--)
+			lane.remove(k);
+	}
+	
+	/**
+	 * This method gets the packed cell of a grid object.
+	 * @param gridObject (GridObject), the object on the grid.
+	 * @return A int, row * width + col, or -1 if the object is not on the grid.
+	 */
+	int cellOf(GridObject gridObject) {
+		ensureIndexed();
+		if (gridObject == null)
+			return -1;
+		//A stale cell, left by another board or by deserialization, does not hold the object
+		int cell = gridObject.cell;
+		if (cell < 0 || cell >= height * width || storage.get(cell) != gridObject)
+			return -1;
+		return cell;
+	}
+	
+	/**
+	 * This method queues a plant or zombie on the board whose health has dropped to
+	 * zero, to be removed at the end of the lanes' fighting. A lane only queues its
+	 * own row's deaths, so lanes resolved in parallel do not share a queue.
+	 * @param gridObject (GridObject), the plant or zombie.
+	 */
+	void died(GridObject gridObject) {
+		int cell = cellOf(gridObject);
+		if (cell != -1)
+			laneDeaths.get(cell / width).add(gridObject);
+	}
+	
+	/**
+	 * This method is told of every change to the health of a plant or zombie on
+	 * the board. It queues the object's death when its health drops to zero and
+	 * tells the listeners.
+	 * @param gridObject (GridObject), the plant or zombie.
+	 * @param before (int), the health before the change.
+	 * @param after (int), the health after the change.
+	 */
+	void healthChanged(GridObject gridObject, int before, int after) {
+		if (before > 0 && after <= 0)
+			died(gridObject);
+		if (listeners == null || before == after)
+			return;
+		int cell = cellOf(gridObject);
+		if (cell != -1)
+			fire(BoardEvent.Type.DAMAGED, gridObject, cell / width, cell % width, cell / width, cell % width, before, after);
+	}
+	
+	/**
+	 * This method adds a listener told of each change to the cells and coins. While
+	 * a board has listeners its lanes are resolved one after the other whatever
+	 * its turn mode, so the events come in order on the calling thread.
+	 * @param listener (BoardListener), the listener.
+	 */
+	public void addBoardListener(BoardListener listener) {
+		if (listeners == null) {
+			listeners = new ArrayList<BoardListener>();
+			reportedCoins = level == null ? 0 : level.coins;
+		}
+		listeners.add(listener);
+	}
+	
+	/**
+	 * This method removes a listener.
+	 * @param listener (BoardListener), the listener.
+	 */
+	public void removeBoardListener(BoardListener listener) {
+		if (listeners == null)
+			return;
+		listeners.remove(listener);
+		if (listeners.isEmpty())
+			listeners = null;
+	}
+	
+	/**
+	 * This method tells the listeners of a change. Events are only created when
+	 * someone listens, so a headless turn still allocates nothing.
+	 */
+	private void fire(BoardEvent.Type type, GridObject entity, int row, int col, int fromRow, int fromCol, int before, int after) {
+		BoardEvent event = new BoardEvent(type, entity, row, col, fromRow, fromCol, before, after);
+		for (int k = 0; k < listeners.size(); k++)
+			listeners.get(k).boardChanged(event);
+	}
+	
+	/**
+	 * This method tells the listeners if the coins changed since they were last told.
+	 */
+	void reportCoins() {
+		if (listeners == null || level == null || level.coins == reportedCoins)
+			return;
+		int before = reportedCoins;
+		reportedCoins = level.coins;
+		fire(BoardEvent.Type.COINS_CHANGED, null, -1, -1, -1, -1, before, reportedCoins);
+	}
+	
+	/**
+	 * This method gets the counts of what is on the board.
+	 * @return A view of the counts, kept up to date by the board.
+	 */
+	public BoardStats getStats() {
+		ensureIndexed();
+		return stats;
+	}
+	
+	/**
+	 * This method gets the zombies in a row ordered by column.
+	 * @param row (int), the row.
+	 * @return The zombies in the lane, leftmost first.
+	 */
+	public ArrayList<Zombie> getZombiesInLane(int row) {
+		ensureIndexed();
+		return laneZombies.get(row);
+	}
+	
+	/**
+	 * This method gets the plants in a row ordered by column.
+	 * @param row (int), the row.
+	 * @return The plants in the lane, leftmost first.
+	 */
+	public ArrayList<Plant> getPlantsInLane(int row) {
+		ensureIndexed();
+		return lanePlants.get(row);
+	}
+	
+	/**
+	 * This method gets the nearest zombie to the right of a column.
+	 * @param row (int), the row.
+	 * @param col (int), the column.
+	 * @return The closest zombie with a greater column, or null if there is none.
+	 */
+	public Zombie nearestZombieRightOf(int row, int col) {
+		ArrayList<Zombie> zombies = getZombiesInLane(row);
+		for (int k = 0; k < zombies.size(); k++) {
+			if (getX(zombies.get(k)) > col)
+				return zombies.get(k);
+		}
+		return null;
+	}
+	
+	/**
+	 * This method gets the nearest plant to the left of a column.
+	 * @param row (int), the row.
+	 * @param col (int), the column.
+	 * @return The closest plant with a smaller column, or null if there is none.
+	 */
+	public Plant nearestPlantLeftOf(int row, int col) {
+		ArrayList<Plant> plants = getPlantsInLane(row);
+		for (int k = plants.size() - 1; k >= 0; k--) {
+			if (getX(plants.get(k)) < col)
+				return plants.get(k);
+		}
+		return null;
+	}
+	
+	/**
+	 * This method draws the next spawn roll.
+	 * @param bound (int), the exclusive upper bound.
+	 * @return A number from 0 to bound - 1.
+	 */
+	private int draw(int bound) {
+		if (random != null)
+			return random.nextInt(bound);
+		if (!seeded)
+			return ThreadLocalRandom.current().nextInt(bound);
+		return seededDraw(seed, ++draws, bound);
+	}
+	
+	/**
+	 * This method computes one roll of a seeded sequence.
+	 * @param seed (long), the seed.
+	 * @param draw (long), the number of the roll, counting from 1.
+	 * @param bound (int), the exclusive upper bound.
+	 * @return A number from 0 to bound - 1.
+	 */
+	static int seededDraw(long seed, long draw, int bound) {
+		//SplitMix64 of the seed and the draw number
+		long z = seed + draw * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (int) ((z >>> 1) % bound);
 	}
 	
 	/**
 	 * This method spawns the zombies on the board.
 	 */
 	public void spawnZombies() {
-		if (level.getAllZombies().isEmpty())
-			return;
+		for (int k = level.getSpawnsPerTurn(); k > 0; k--)
+			spawnZombie();
+	}
+
+	/**
+	 * This method draws one zombie from the level's wave and places it in a random
+	 * row of the last column, if that cell is free.
+	 */
+	private void spawnZombie() {
+		ZombieWave wave = level.getWave();
+		if (wave.isEmpty()) {
+			//Endless mode starts its next wave as the last one runs out
+			if (!level.nextWave())
+				return;
+			if (journal != null)
+				journal.recordWave();
+		}
 		
-		int yPos = ThreadLocalRandom.current().nextInt(0, Board.GRID_HEIGHT-1);
-		int randZombie = ThreadLocalRandom.current().nextInt(0, level.getAllZombies().size());
-		Zombie zombie = level.getAllZombies().remove(randZombie); 
+		int yPos = draw(height-1);
+		EntityType type = wave.take(draw(wave.size()));
+		if (journal != null)
+			journal.recordDraw(type);
 
-		if (isEmpty(yPos, Board.GRID_WIDTH - 1))
-			placeZombie(zombie, yPos, Board.GRID_WIDTH - 1);
+		//The zombie is only created once it has somewhere to go
+		if (isEmpty(yPos, width - 1)) {
+			spawning = true;
+			try {
+				placeZombie((Zombie) (pool == null ? type.create() : pool.create(type)), yPos, width - 1);
+			} finally {
+				spawning = false;
+			}
+		}
 	}
 	
 	/**
@@ -68,32 +540,194 @@ public class Board implements Serializable{
 	 * This method executes the board's turn
 	 */
 	public void boardTurn() {
-		//All plants then all zombies on the board - Advance or attack
+		if (replay != null)
+			replay.recordEndTurn();
+		//Lane by lane, all plants then all zombies - Advance or attack.
+		//Combat never crosses rows so lanes without zombies are skipped.
 		if (!zombiesOnBoard.isEmpty()) {
-			for (Plant plant : plantsOnBoard)
-				plant.go(this);
-			
-			for (Zombie zombie : zombiesOnBoard)			
-				zombie.go(this);
+			if (turnMode == TurnMode.SERIAL || listeners != null)
+				resolveLanes();
+			else if (turnMode == TurnMode.PARALLEL)
+				resolveLanesInParallel();
+			else
+				verifyLanes();
 		}
+		//Deaths, spawns and coins touch the whole board so they stay serial
 		removeTheDead();
 		//Spawn
 		spawnZombies();
 
 		//Give player coins reduce count down on plant timers
 		prepareNextTurn();
+		level.setTurns(level.getTurns() + 1);
+		reportCoins();
+	}
+	
+	/**
+	 * This method starts recording the changes made to the board and level so a
+	 * command can undo and redo them.
+	 */
+	void beginJournal() {
+		journal = new MutationJournal(level);
+	}
+	
+	/**
+	 * This method stops recording.
+	 * @return The changes made since beginJournal().
+	 */
+	MutationJournal endJournal() {
+		MutationJournal finished = journal;
+		journal = null;
+		finished.finish(level);
+		return finished;
+	}
+	
+	/**
+	 * This method resolves the lanes with zombies one after the other.
+	 */
+	private void resolveLanes() {
+		for (int i = 0; i < height; i++) {
+			if (getZombiesInLane(i).isEmpty())
+				continue;
+			if (journal != null)
+				watchLane(i);
+			resolveLane(i);
+		}
+	}
+	
+	/**
+	 * This method resolves the lanes with zombies at the same time. A lane only
+	 * touches its own row of the grid, its lanes, and the cells and health of its
+	 * own objects, and its moves go to its own journal. The lane journals are then
+	 * appended in row order, so the turn records exactly what a serial turn would.
+	 */
+	private void resolveLanesInParallel() {
+		ensureIndexed();
+		int[] lanes = new int[height];
+		int count = 0;
+		for (int i = 0; i < height; i++) {
+			if (!getZombiesInLane(i).isEmpty())
+				lanes[count++] = i;
+		}
+		if (journal != null) {
+			laneJournals = new MutationJournal[height];
+			for (int k = 0; k < count; k++) {
+				watchLane(lanes[k]);
+				laneJournals[lanes[k]] = new MutationJournal();
+			}
+		}
+		inParallel = true;
+		try {
+			new LaneTask(lanes, 0, count).invoke();
+		} finally {
+			inParallel = false;
+			stats.recountBreaches();
+			if (laneJournals != null) {
+				for (int k = 0; k < count; k++)
+					journal.append(laneJournals[lanes[k]]);
+				laneJournals = null;
+			}
+		}
+	}
+	
+	/**
+	 * This method resolves the lanes in parallel and a copy of the board serially,
+	 * then checks the two boards match.
+	 * @throws IllegalStateException if the boards differ.
+	 */
+	private void verifyLanes() {
+		Board serial;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			SaveFile.write(this, bytes, false);
+			serial = SaveFile.read(new ByteArrayInputStream(bytes.toByteArray()), false);
+			serial.setBackend(backend);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not copy the board", e);
+		}
+		resolveLanesInParallel();
+		serial.resolveLanes();
+		for (int i = 0; i < height; i++) {
+			for (int j = 0; j < width; j++) {
+				GridObject expected = serial.getObject(i, j);
+				GridObject actual = getObject(i, j);
+				if (!expected.getClass().equals(actual.getClass()) || healthOf(expected) != healthOf(actual))
+					throw new IllegalStateException("Parallel turn differs from the serial turn at row " + i
+							+ " column " + j + ": " + actual.getObjectTitle() + " " + healthOf(actual) + " instead of "
+							+ expected.getObjectTitle() + " " + healthOf(expected));
+			}
+		}
+	}
+	
+	private static int healthOf(GridObject gridObject) {
+		if (gridObject.getEntityType().isPlant())
+			return ((Plant) gridObject).getHealth();
+		if (gridObject.getEntityType().isZombie())
+			return ((Zombie) gridObject).getHealth();
+		return 0;
+	}
+	
+	/**
+	 * This method resolves one lane: all plants then all zombies.
+	 * @param row (int), the row.
+	 */
+	private void resolveLane(int row) {
+		ArrayList<Plant> plants = getPlantsInLane(row);
+		for (int k = 0; k < plants.size(); k++)
+			plants.get(k).go(this);
+		
+		//Zombies never pass each other so moves keep the lane ordered
+		ArrayList<Zombie> zombies = getZombiesInLane(row);
+		for (int k = 0; k < zombies.size(); k++)
+			zombies.get(k).go(this);
+	}
+	
+	/**
+	 * Resolves a range of lanes, splitting it until each task has one lane.
+	 */
+	private class LaneTask extends RecursiveAction {
+		private final int[] lanes;
+		private final int from, to;
+		
+		LaneTask(int[] lanes, int from, int to) {
+			this.lanes = lanes;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= 1) {
+				if (to > from)
+					resolveLane(lanes[from]);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new LaneTask(lanes, from, middle), new LaneTask(lanes, middle, to));
+		}
+	}
+	
+	/**
+	 * This method has the journal remember the health of everything in a lane that
+	 * is about to fight, so that only real health changes are recorded.
+	 * @param row (int), the lane.
+	 */
+	private void watchLane(int row) {
+		ArrayList<Plant> plants = getPlantsInLane(row);
+		for (int k = 0; k < plants.size(); k++)
+			journal.watch(plants.get(k));
+		ArrayList<Zombie> zombies = getZombiesInLane(row);
+		for (int k = 0; k < zombies.size(); k++)
+			journal.watch(zombies.get(k));
 	}
 	
 	/**
 	 * This method prepares for the upcomming turn
 	 */
 	public void prepareNextTurn() {
-		for (Plant plant: plantsOnBoard) {
-			if (plant instanceof SunFlower)
-				level.coins = level.coins + SunFlower.COIN_BONUS;
-		}
-		for (Plant plant: level.allPlants) {
-			plant.newTurn();
+		level.coins = level.coins + getStats().getCoinYield();
+		for (int k = 0; k < level.allPlants.size(); k++) {
+			level.allPlants.get(k).newTurn();
 		}
 	}
 
@@ -102,12 +736,7 @@ public class Board implements Serializable{
      * @return A boolean, true is there is any zombies in the first column otherwise false.
 	 */
 	public boolean zombiesInFirstColumn() {
-		for (int i = 0; i < GRID_HEIGHT; i++) {
-			if (getObject(i, 0) instanceof Zombie) {
-				return true;
-			}
-		}
-		return false;
+		return getStats().getZombiesInFirstColumn() > 0;
 	}
 
 	/**
@@ -117,11 +746,15 @@ public class Board implements Serializable{
 	 * @param posX  (int), the x-coordinate of the grid.
 	 */
 	public void placePlant(Plant plant, int posX, int posY) {
-		grid[posX][posY] = plant;
-		plantsOnBoard.add(plant);
-		gridObjects.add(plant);
+		if (replay != null)
+			replay.recordPlace(plant.getType(), posX, posY);
+		if (journal != null)
+			journal.recordPlace(plant, getObject(posX, posY), posX * width + posY);
+		put(plant, posX * width + posY);
 		level.coins -= plant.getPrice();
+		plant.setCooldowns(level.getCooldowns());
 		plant.setCurrentTime(plant.getFullTime());
+		reportCoins();
 	}
 
 	/**
@@ -131,9 +764,74 @@ public class Board implements Serializable{
 	 * @param posX   (int), the x-coordinate of the grid.
 	 */
 	public void placeZombie(Zombie zombie, int posX, int posY) {
-		grid[posX][posY] = zombie;
-		zombiesOnBoard.add(zombie);
-		gridObjects.add(zombie);
+		if (journal != null)
+			journal.recordPlace(zombie, getObject(posX, posY), posX * width + posY);
+		put(zombie, posX * width + posY);
+	}
+	
+	/**
+	 * This method puts a plant or zombie in a cell and adds it to the end of the
+	 * board's lists.
+	 * @param gridObject (GridObject), a plant or zombie.
+	 * @param cell (int), the packed cell.
+	 */
+	void put(GridObject gridObject, int cell) {
+		int i = cell / width;
+		setObject(gridObject, i, cell % width);
+		if (gridObject.getEntityType().isZombie()) {
+			addToLane(laneZombies.get(i), (Zombie) gridObject);
+			gridObject.typedIndex = zombiesOnBoard.size();
+			zombiesOnBoard.add((Zombie) gridObject);
+		}
+		else {
+			addToLane(lanePlants.get(i), (Plant) gridObject);
+			gridObject.typedIndex = plantsOnBoard.size();
+			plantsOnBoard.add((Plant) gridObject);
+		}
+		gridObject.listIndex = gridObjects.size();
+		gridObjects.add(gridObject);
+	}
+	
+	/**
+	 * This method reverts put(): the object that was in the cell goes back and the
+	 * plant or zombie leaves the end of the board's lists.
+	 * @param gridObject (GridObject), the last plant or zombie put on the board.
+	 * @param replaced (GridObject), what was in its cell before, or null if it was empty.
+	 */
+	void takeBack(GridObject gridObject, GridObject replaced) {
+		int cell = cellOf(gridObject);
+		setObject(replaced == null ? storage.emptyCell(cell) : replaced, cell / width, cell % width);
+		gridObjects.remove(gridObjects.size() - 1);
+		if (gridObject.getEntityType().isZombie())
+			zombiesOnBoard.remove(zombiesOnBoard.size() - 1);
+		else
+			plantsOnBoard.remove(plantsOnBoard.size() - 1);
+	}
+	
+	/**
+	 * This method reverts remove(): the plant or zombie goes back to its cell and
+	 * to the positions it had in the board's lists, and the objects that filled
+	 * those positions go back to the ends of the lists.
+	 * @param gridObject (GridObject), a removed plant or zombie.
+	 * @param cell (int), the packed cell it was removed from.
+	 * @param gridObjectsIndex (int), its index in gridObjects, or -1.
+	 * @param typedIndex (int), its index in plantsOnBoard or zombiesOnBoard, or -1.
+	 */
+	void restore(GridObject gridObject, int cell, int gridObjectsIndex, int typedIndex) {
+		int i = cell / width;
+		setObject(gridObject, i, cell % width);
+		if (gridObjectsIndex != -1)
+			swapInsert(gridObjects, gridObjectsIndex, gridObject, false);
+		if (gridObject.getEntityType().isZombie()) {
+			addToLane(laneZombies.get(i), (Zombie) gridObject);
+			if (typedIndex != -1)
+				swapInsert(zombiesOnBoard, typedIndex, (Zombie) gridObject, true);
+		}
+		else {
+			addToLane(lanePlants.get(i), (Plant) gridObject);
+			if (typedIndex != -1)
+				swapInsert(plantsOnBoard, typedIndex, (Plant) gridObject, true);
+		}
 	}
 
 	/**
@@ -145,7 +843,7 @@ public class Board implements Serializable{
 		int j = getX(zombie);
 		int i = getY(zombie);
 		if ((i != -1 || j != -1) && j!=0)
-			return (grid[i][j - 1]);
+			return storage.get(i * width + j - 1);
 		return null;
 	}
 
@@ -157,8 +855,8 @@ public class Board implements Serializable{
 	public GridObject toTheRight(GridObject plant) {
 		int j = getX(plant);
 		int i = getY(plant);
-		if ((i != -1 || j != -1) && j!= Board.GRID_WIDTH-1) {
-			return grid[i][j + 1];
+		if ((i != -1 || j != -1) && j!= width-1) {
+			return storage.get(i * width + j + 1);
 		}
 		return null;
 	}
@@ -169,12 +867,25 @@ public class Board implements Serializable{
 	 * @param nullSpace  (NullSpace), empty space.
 	 */
 	public void move(GridObject gridObject, NullSpace nullSpace) {
-		int j = getX(gridObject);
-		int i = getY(gridObject);
-		int jnext = getX(nullSpace);
-		int inext = getY(nullSpace);
-		grid[inext][jnext] = gridObject;
-		grid[i][j] = nullSpace;
+		moveTo(gridObject, cellOf(nullSpace));
+	}
+	
+	/**
+	 * This method moves a grid object to an empty cell of its row.
+	 * @param gridObject (GridObject), the object on the grid.
+	 * @param next (int), the packed empty cell.
+	 */
+	void moveTo(GridObject gridObject, int next) {
+		int cell = cellOf(gridObject);
+		storage.swap(cell, next);
+		gridObject.cell = next;
+		storage.get(cell).cell = cell;
+		stats.moved(gridObject, cell / width, cell % width, next % width, inParallel);
+		MutationJournal target = laneJournals != null ? laneJournals[cell / width] : journal;
+		if (target != null)
+			target.recordMove(gridObject, cell, next);
+		if (listeners != null)
+			fire(BoardEvent.Type.MOVED, gridObject, next / width, next % width, cell / width, cell % width, 0, 0);
 	}
 
 	/**
@@ -183,38 +894,109 @@ public class Board implements Serializable{
 	 * @param nullSpace  (NullSpace), empty space.
 	 */
 	public boolean remove(GridObject gridObject) {
-		int j = getX(gridObject);
-		int i = getY(gridObject);
-		if (i!=-1 && j!=-1) {
-			grid[i][j] = new NullSpace();
-			
-			gridObjects.remove(gridObject);
-			if (gridObject instanceof Zombie )
-				zombiesOnBoard.remove(gridObject);
-			if (gridObject instanceof Plant)
-				plantsOnBoard.remove(gridObject);
-			
-			if(grid[i][j] instanceof NullSpace) {
-				return true;
-			}
+		int cell = cellOf(gridObject);
+		if (cell == -1)
+			return false;
+		return remove(gridObject, storage.emptyCell(cell));
+	}
+	
+	/**
+	 * This method removes a grid object from the board, leaving the given empty space.
+	 * @param gridObject (GridObject), the object on the grid.
+	 * @param nullSpace  (NullSpace), the empty space to leave in its cell.
+	 * @return A boolean, true if the object was on the board.
+	 */
+	boolean remove(GridObject gridObject, NullSpace nullSpace) {
+		int cell = cellOf(gridObject);
+		if (cell == -1)
+			return false;
+		setObject(nullSpace, cell / width, cell % width);
+		
+		int gridObjectsIndex = indexIn(gridObjects, gridObject, gridObject.listIndex);
+		if (gridObjectsIndex != -1)
+			swapRemove(gridObjects, gridObjectsIndex, false);
+		int typedIndex = -1;
+		if (gridObject.getEntityType().isZombie()) {
+			typedIndex = indexIn(zombiesOnBoard, gridObject, gridObject.typedIndex);
+			if (typedIndex != -1)
+				swapRemove(zombiesOnBoard, typedIndex, true);
+		}
+		if (gridObject.getEntityType().isPlant()) {
+			typedIndex = indexIn(plantsOnBoard, gridObject, gridObject.typedIndex);
+			if (typedIndex != -1)
+				swapRemove(plantsOnBoard, typedIndex, true);
 		}
-		return false;
+		if (journal != null)
+			journal.recordRemove(gridObject, cell, gridObjectsIndex, typedIndex);
+		return true;
 	}
 
+	/**
+	 * This method finds an object in one of the board's lists, trying the index it
+	 * was last stored at first.
+	 * @param list (ArrayList), the list.
+	 * @param gridObject (GridObject), the object.
+	 * @param hint (int), the index the object was last stored at.
+	 * @return The index, or -1 if the object is not in the list.
+	 */
+	private static int indexIn(ArrayList<? extends GridObject> list, GridObject gridObject, int hint) {
+		if (hint >= 0 && hint < list.size() && list.get(hint) == gridObject)
+			return hint;
+		return list.indexOf(gridObject);
+	}
+	
+	/**
+	 * This method removes an entry from one of the board's lists by moving the last
+	 * entry into its place. The order of the lists does not matter to the game.
+	 * @param list (ArrayList), the list.
+	 * @param index (int), the index of the entry to remove.
+	 * @param typed (boolean), true for plantsOnBoard or zombiesOnBoard.
+	 */
+	private static <T extends GridObject> void swapRemove(ArrayList<T> list, int index, boolean typed) {
+		T last = list.remove(list.size() - 1);
+		if (index < list.size()) {
+			list.set(index, last);
+			setIndex(last, index, typed);
+		}
+	}
+	
+	/**
+	 * This method reverts swapRemove(): the entry that was moved into the index goes
+	 * back to the end and the object goes back to the index.
+	 * @param list (ArrayList), the list.
+	 * @param index (int), the index the object was removed from.
+	 * @param gridObject (GridObject), the object.
+	 * @param typed (boolean), true for plantsOnBoard or zombiesOnBoard.
+	 */
+	private static <T extends GridObject> void swapInsert(ArrayList<T> list, int index, T gridObject, boolean typed) {
+		if (index < list.size()) {
+			T moved = list.get(index);
+			setIndex(moved, list.size(), typed);
+			list.add(moved);
+			list.set(index, gridObject);
+			setIndex(gridObject, index, typed);
+		}
+		else {
+			setIndex(gridObject, list.size(), typed);
+			list.add(gridObject);
+		}
+	}
+	
+	private static void setIndex(GridObject gridObject, int index, boolean typed) {
+		if (typed)
+			gridObject.typedIndex = index;
+		else
+			gridObject.listIndex = index;
+	}
+	
 	/**
 	 * This method gets the x-coordinate of the gridObject. 
 	 * @param gridObject (Grid Object), the object on the grid.
 	 * @return A int, the x-coordinate of the gridObject.
 	 */
 	public int getX(GridObject gridObject) {
-		int i, j = 0;
-		for (i = 0; i < GRID_HEIGHT; i++) {
-			for (j = 0; j < GRID_WIDTH; j++) {
-				if (grid[i][j].equals(gridObject))
-					return j;
-			}
-		}
-		return -1;
+		int cell = cellOf(gridObject);
+		return cell == -1 ? -1 : cell % width;
 	}
 
 	/**
@@ -223,14 +1005,8 @@ public class Board implements Serializable{
 	 * @return A int, the y-coordinate of the gridObject.
 	 */
 	public int getY(GridObject gridObject) {
-		int i, j = 0;
-		for (i = 0; i < GRID_HEIGHT; i++) {
-			for (j = 0; j < GRID_WIDTH; j++) {
-				if (grid[i][j].equals(gridObject))
-					return i;
-			}
-		}
-		return -1;
+		int cell = cellOf(gridObject);
+		return cell == -1 ? -1 : cell / width;
 	}
 	
 	/**
@@ -238,33 +1014,62 @@ public class Board implements Serializable{
 	 * Removes dead plants or zombies from the board.
 	 */
 	private void removeTheDead() {
-		Iterator<Plant> iteratorP = plantsOnBoard.iterator();
-		Iterator<Zombie> iteratorZ = zombiesOnBoard.iterator();
-		while(iteratorP.hasNext())
-		{ 
-			Plant p = iteratorP.next();
-			if (p.getHealth() <= 0) {
-				iteratorP.remove();
-				remove(p);
+		ensureIndexed();
+		for (int i = 0; i < height; i++) {
+			ArrayList<GridObject> deaths = laneDeaths.get(i);
+			if (deaths.isEmpty())
+				continue;
+			sweeping = true;
+			try {
+				for (int k = 0; k < deaths.size(); k++) {
+					//A queued object may have been removed already or healed by an undo
+					GridObject dead = deaths.get(k);
+					if (healthOf(dead) <= 0 && remove(dead) && pool != null && journal == null)
+						pool.release(dead);
+				}
+			} finally {
+				sweeping = false;
 			}
+			deaths.clear();
+			compactLane(laneZombies.get(i));
+			compactLane(lanePlants.get(i));
 		}
-		while(iteratorZ.hasNext())
-		{
-			Zombie z = iteratorZ.next();
-			
-			if (z.getHealth() <= 0) {
-				iteratorZ.remove();
-				remove(z);
-			}
-		}
-	} 	
+	}	
+	
+	/**
+	 * This method gifts the player coins when they cannot afford any plant and
+	 * have no sunflowers to earn more.
+	 * @return The number of coins gifted, 0 if none.
+	 */
+	public int giftCoinsIfStuck() {
+		if (level.plantAffordable() || !noSunflowers())
+			return 0;
+		int gift = 50 - level.coins;
+		level.coins = 50;
+		reportCoins();
+		return gift;
+	}
+	
+	/**
+	 * This method undoes the last command and records it in the replay.
+	 */
+	public void undo() {
+		if (replay != null)
+			replay.recordUndo();
+		commandManager.undo();
+	}
+	
+	/**
+	 * This method redoes the last undone command and records it in the replay.
+	 */
+	public void redo() {
+		if (replay != null)
+			replay.recordRedo();
+		commandManager.redo();
+	}
 	
 	public boolean noSunflowers() {
-		for (Plant plant: plantsOnBoard) {
-			if (plant instanceof SunFlower)
-				return false;
-		}
-		return true;
+		return !getStats().hasSunflowers();
 	}
 	
 	public void clear() {
@@ -281,7 +1086,7 @@ public class Board implements Serializable{
 	 * @return A boolean, true if the position is empty otherwise false.
 	 */
 	public boolean isEmpty(int posY, int posX) {
-		return (getObject(posY, posX) instanceof NullSpace);
+		return storage.isEmpty(posY * width + posX);
 	}
 
 	/**
@@ -291,7 +1096,7 @@ public class Board implements Serializable{
 	 * @return A GridObject, the item on the grid.
 	 */
 	public GridObject getObject(int i, int j) {
-		return grid[i][j];
+		return storage.get(i * width + j);
 	}
 	 /**
 	  * This method gets the gridObject array
@@ -349,6 +1154,105 @@ public class Board implements Serializable{
 		return level;
 	}
 
+	/**
+	 * This method sets the random source used to spawn zombies. Giving each game
+	 * its own seeded source makes its spawns repeatable.
+	 * @param random (Random), the source, or null for the thread's shared generator.
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	public Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * This method sets the pool the board returns dead plants and zombies to. They
+	 * are only returned while no command is recording the turn, as an undo would
+	 * bring them back.
+	 * @param pool (EntityPool), the pool, or null to keep nothing.
+	 */
+	public void setPool(EntityPool pool) {
+		this.pool = pool;
+	}
+
+	public EntityPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * This method sets how the lanes of each turn are resolved.
+	 * @param turnMode (TurnMode), the mode.
+	 */
+	public void setTurnMode(TurnMode turnMode) {
+		this.turnMode = turnMode;
+	}
+
+	public TurnMode getTurnMode() {
+		return turnMode;
+	}
+
+	/**
+	 * This method makes the board's spawn rolls a repeatable sequence started
+	 * from the seed, replacing any random source that was set.
+	 * @param seed (long), the seed.
+	 */
+	public void setSeed(long seed) {
+		setSeed(seed, 0);
+	}
+
+	/**
+	 * This method resumes a seeded sequence after a number of draws.
+	 * @param seed (long), the seed.
+	 * @param draws (long), the number of rolls already drawn.
+	 */
+	void setSeed(long seed, long draws) {
+		this.seed = seed;
+		this.draws = draws;
+		seeded = true;
+		random = null;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public boolean isSeeded() {
+		return seeded;
+	}
+
+	long getDraws() {
+		return draws;
+	}
+
+	/**
+	 * This method starts recording a new game. The level and the command manager's
+	 * history policy must be set and no zombie spawned yet.
+	 * @param seed (long), the seed of the game's spawn source.
+	 */
+	public void startRecording(long seed) {
+		setSeed(seed);
+		replay = new Replay(level, seed, height, width, commandManager.getHistoryPolicy());
+	}
+
+	/**
+	 * This method gets the recording of the current game.
+	 * @return Replay, or null if the game is not being recorded.
+	 */
+	public Replay getReplay() {
+		return replay;
+	}
+
+	/**
+	 * This method continues recording into an existing replay, used when a saved
+	 * game is loaded.
+	 * @param replay (Replay), the game's recording.
+	 */
+	void resumeRecording(Replay replay) {
+		this.replay = replay;
+	}
+
 	public State getGridState() {
 		return gridState;
 	}
@@ -0,0 +1,105 @@
+package model;
+
+/**
+ * One change to a board: an entity entering, moving within, being hurt on or
+ * leaving the grid, or the coins changing. Undo and redo report the changes
+ * they make in the same way.
+ */
+public class BoardEvent {
+	public enum Type {
+		//A plant was planted, or an undo or redo put an entity back in its cell
+		PLACED,
+		//A zombie came on in the last column
+		SPAWNED,
+		//An entity went from one cell to another
+		MOVED,
+		//An entity's health changed, up as well as down on an undo
+		DAMAGED,
+		//A dead entity was taken off the grid
+		DIED,
+		//A living entity was taken off the grid by an undo
+		REMOVED,
+		//The player's coins changed
+		COINS_CHANGED;
+	}
+
+	private final Type type;
+	private final GridObject entity;
+	private final int row, col;
+	private final int fromRow, fromCol;
+	private final int before, after;
+
+	/**
+	 * This constructor creates an event.
+	 * @param type (Type), the kind of change.
+	 * @param entity (GridObject), the entity changed, null for the coins.
+	 * @param row (int), the cell changed, or for a move the cell moved to, -1 for the coins.
+	 * @param col (int)
+	 * @param fromRow (int), the cell moved from, the same as row for anything but a move.
+	 * @param fromCol (int)
+	 * @param before (int), the health or coins before, 0 for other changes.
+	 * @param after (int), the health or coins after, 0 for other changes.
+	 */
+	BoardEvent(Type type, GridObject entity, int row, int col, int fromRow, int fromCol, int before, int after) {
+		this.type = type;
+		this.entity = entity;
+		this.row = row;
+		this.col = col;
+		this.fromRow = fromRow;
+		this.fromCol = fromCol;
+		this.before = before;
+		this.after = after;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public GridObject getEntity() {
+		return entity;
+	}
+
+	public int getRow() {
+		return row;
+	}
+
+	public int getCol() {
+		return col;
+	}
+
+	public int getFromRow() {
+		return fromRow;
+	}
+
+	public int getFromCol() {
+		return fromCol;
+	}
+
+	public int getBefore() {
+		return before;
+	}
+
+	public int getAfter() {
+		return after;
+	}
+
+	/**
+	 * This method checks if the event is about a cell of the grid.
+	 * @return A boolean, false for the coins.
+	 */
+	public boolean isCellEvent() {
+		return type != Type.COINS_CHANGED;
+	}
+
+	@Override
+	public String toString() {
+		if (type == Type.COINS_CHANGED)
+			return type + " " + before + " -> " + after;
+		String s = type + " " + entity.getObjectTitle() + " at " + row + "," + col;
+		if (type == Type.MOVED)
+			s += " from " + fromRow + "," + fromCol;
+		else if (type == Type.DAMAGED)
+			s += " " + before + " -> " + after;
+		return s;
+	}
+}
@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * Told of each change to a board's cells and to the coins as it happens, so a
+ * view can redraw only what changed.
+ */
+public interface BoardListener {
+	/**
+	 * This method is called after every change to the board. The board is already
+	 * in its new state.
+	 * @param event (BoardEvent), what changed.
+	 */
+	public void boardChanged(BoardEvent event);
+}
@@ -0,0 +1,69 @@
+package model;
+
+/**
+ * Games and descriptions of boards shared by the model tests.
+ */
+class BoardStates {
+
+	/**
+	 * This method plays a game of turns, placements, undos and redos.
+	 */
+	static void playGame(Board board) {
+		Level level = board.getLevel();
+		for (int turn = 0; turn < 40; turn++) {
+			for (int type = 0; type < EntityType.plantTypeCount(); type++) {
+				Plant plant = GridObjectFactory.createPlant(type);
+				int row = (turn + type) % board.getHeight();
+				int col = (turn * 3 + type) % (board.getWidth() - 1);
+				if (plant.isAvailable() && plant.getPrice() <= level.coins && board.isEmpty(row, col))
+					board.getCommandManager().executeCommand(new PlacePlantCommand(board, level, plant, row, col));
+			}
+			board.startBoardTurn();
+			board.giftCoinsIfStuck();
+			if (turn % 7 == 3) {
+				board.undo();
+				board.undo();
+				board.redo();
+			}
+		}
+	}
+
+	/**
+	 * This method describes everything the player can see of a board.
+	 */
+	static String state(Board board) {
+		StringBuilder sb = new StringBuilder();
+		Level level = board.getLevel();
+		sb.append(level.coins).append(' ').append(level.getWave()).append(' ').append(level.getTurns()).append('\n');
+		for (int type = 0; type < EntityType.plantTypeCount(); type++)
+			sb.append(level.getCooldowns().get(type)).append(' ');
+		sb.append('\n');
+		for (int i = 0; i < board.getHeight(); i++) {
+			for (int j = 0; j < board.getWidth(); j++)
+				sb.append(describe(board.getObject(i, j))).append(' ');
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * This method describes one object by its title and health.
+	 */
+	static String describe(GridObject obj) {
+		if (obj.getEntityType().isEmpty())
+			return obj.getObjectTitle();
+		return obj.getObjectTitle() + ":" + health(obj);
+	}
+
+	/**
+	 * This method gets the health of a plant or zombie, or 0 for an empty cell.
+	 */
+	static int health(GridObject obj) {
+		EntityType type = obj.getEntityType();
+		if (type.isPlant())
+			return ((Plant) obj).getHealth();
+		if (type.isZombie())
+			return ((Zombie) obj).getHealth();
+		return 0;
+	}
+}
@@ -0,0 +1,143 @@
+package model;
+
+/**
+ * Counts of what is on a board, kept up to date by the board as objects enter,
+ * move and leave its cells, so they can be read without scanning the grid.
+ * Objects that have died but not yet been removed are still counted.
+ */
+public class BoardStats {
+	private final int[] plantsByType = new int[EntityType.plantTypeCount()];
+	private final int[] zombiesByLane;
+	//Per lane, the zombies in the first column
+	private final int[] breachesByLane;
+	private int plants;
+	//The coins the plants earn each turn
+	private int coinYield;
+	private int zombies;
+	private int breaches;
+
+	/**
+	 * This constructor creates the counts of an empty board.
+	 * @param height (int), the number of lanes.
+	 */
+	BoardStats(int height) {
+		zombiesByLane = new int[height];
+		breachesByLane = new int[height];
+	}
+
+	/**
+	 * This method counts an object entering a cell.
+	 * @param gridObject (GridObject), the object.
+	 * @param row (int), the row.
+	 * @param col (int), the column.
+	 */
+	void added(GridObject gridObject, int row, int col) {
+		count(gridObject, row, col, 1);
+	}
+
+	/**
+	 * This method counts an object leaving a cell.
+	 * @param gridObject (GridObject), the object.
+	 * @param row (int), the row.
+	 * @param col (int), the column.
+	 */
+	void removed(GridObject gridObject, int row, int col) {
+		count(gridObject, row, col, -1);
+	}
+
+	private void count(GridObject gridObject, int row, int col, int change) {
+		EntityType type = gridObject.getEntityType();
+		if (type.isPlant()) {
+			plantsByType[type.getPlantType()] += change;
+			plants += change;
+			coinYield += change * type.getCoinBonus();
+		}
+		else if (type.isZombie()) {
+			zombiesByLane[row] += change;
+			zombies += change;
+			if (col == 0) {
+				breachesByLane[row] += change;
+				breaches += change;
+			}
+		}
+	}
+
+	/**
+	 * This method counts an object moving within its lane. Lanes resolved in
+	 * parallel only touch their own row, so the total of zombies in the first
+	 * column is left to recountBreaches().
+	 * @param gridObject (GridObject), the object.
+	 * @param row (int), the row.
+	 * @param from (int), the column it left.
+	 * @param to (int), the column it entered.
+	 * @param inParallel (boolean), true if lanes are being resolved in parallel.
+	 */
+	void moved(GridObject gridObject, int row, int from, int to, boolean inParallel) {
+		if (!gridObject.getEntityType().isZombie() || (from != 0 && to != 0))
+			return;
+		int change = to == 0 ? 1 : -1;
+		breachesByLane[row] += change;
+		if (!inParallel)
+			breaches += change;
+	}
+
+	/**
+	 * This method totals the zombies in the first column from the lanes' counts.
+	 */
+	void recountBreaches() {
+		breaches = 0;
+		for (int row = 0; row < breachesByLane.length; row++)
+			breaches += breachesByLane[row];
+	}
+
+	/**
+	 * This method gets the number of plants of a type on the board.
+	 * @param type (int), the plant type as returned by Plant.getType().
+	 * @return The number of plants.
+	 */
+	public int getPlantCount(int type) {
+		return plantsByType[type];
+	}
+
+	public int getPlantCount() {
+		return plants;
+	}
+
+	public int getZombieCount() {
+		return zombies;
+	}
+
+	/**
+	 * This method gets the number of zombies in a lane.
+	 * @param row (int), the row.
+	 * @return The number of zombies.
+	 */
+	public int getZombieCount(int row) {
+		return zombiesByLane[row];
+	}
+
+	/**
+	 * This method gets the number of zombies in the first column, which lose the
+	 * game for the player.
+	 * @return The number of zombies.
+	 */
+	public int getZombiesInFirstColumn() {
+		return breaches;
+	}
+
+	/**
+	 * This method checks if any plant on the board earns coins.
+	 * @return A boolean, true if there is a coin producer such as a sunflower.
+	 */
+	public boolean hasSunflowers() {
+		return coinYield > 0;
+	}
+
+	/**
+	 * This method gets the coins the plants on the board earn each turn.
+	 * @return The coins.
+	 */
+	public int getCoinYield() {
+		return coinYield;
+	}
+}
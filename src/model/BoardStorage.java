@@ -0,0 +1,50 @@
+package model;
+
+/**
+ * Where a board keeps what is in each of its cells. Cells are packed, row *
+ * width + col. The board decides what goes where; a storage only holds it, so
+ * the turn rules in Plant.go() and Zombie.go() play the same on every storage.
+ */
+interface BoardStorage {
+
+	/**
+	 * This method gets the object in a cell.
+	 * @param cell (int), the packed cell.
+	 * @return GridObject
+	 */
+	GridObject get(int cell);
+
+	/**
+	 * This method puts an object in a cell, taking out the one that was there.
+	 * @param cell (int), the packed cell.
+	 * @param gridObject (GridObject), the object.
+	 */
+	void set(int cell, GridObject gridObject);
+
+	/**
+	 * This method swaps what is in two cells.
+	 * @param a (int), a packed cell.
+	 * @param b (int), another packed cell.
+	 */
+	void swap(int a, int b);
+
+	/**
+	 * This method checks if a cell holds no plant or zombie.
+	 * @param cell (int), the packed cell.
+	 * @return A boolean, true if the cell is empty.
+	 */
+	boolean isEmpty(int cell);
+
+	/**
+	 * This method gets an object to put in a cell that is being emptied.
+	 * @param cell (int), the packed cell.
+	 * @return NullSpace
+	 */
+	NullSpace emptyCell(int cell);
+
+	/**
+	 * This method takes every object out, leaving each with its own state, before
+	 * the board moves them to another storage.
+	 */
+	void release();
+}
@@ -1,6 +1,11 @@
 package model;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Random;
+
+import com.sun.management.ThreadMXBean;
 
 import junit.framework.TestCase;
 
@@ -19,12 +24,20 @@ public class BoardTest extends TestCase {
 		g1 = new GenericZombie();
 		g2 = new GenericZombie();
 		board = new Board(new CommandManager());
+		board.setBackend(backend());
 		board.setupGrid();
 		level = new Level(1);
 		board.setLevel(level);
 
 	}
 
+	/**
+	 * This method gets the backend the tests' boards keep their cells in.
+	 */
+	protected Board.Backend backend() {
+		return Board.Backend.OBJECTS;
+	}
+
 	/**
 	 * This test the spawnZombies() method.
 	 */
@@ -186,4 +199,333 @@ public class BoardTest extends TestCase {
 		board.boardTurn();		
 		assertEquals(true, !board.getZombiesOnBoard().contains(g1));
 	}
+	
+	/**
+	 * This method tests the nearest zombie and plant lane queries.
+	 */
+	public void testLaneQueries() {
+		board.placePlant(s1, 2, 1);
+		board.placePlant(v1, 2, 4);
+		board.placeZombie(g2, 2, 7);
+		board.placeZombie(g1, 2, 5);
+		assertEquals(g1, board.nearestZombieRightOf(2, 4));
+		assertEquals(g2, board.nearestZombieRightOf(2, 5));
+		assertEquals(null, board.nearestZombieRightOf(2, 7));
+		assertEquals(v1, board.nearestPlantLeftOf(2, 5));
+		assertEquals(s1, board.nearestPlantLeftOf(2, 4));
+		assertEquals(null, board.nearestZombieRightOf(3, 0));
+	}
+	
+	/**
+	 * This method tests that the position index and lanes agree with the grid after a
+	 * random sequence of placements, turns, undos and redos.
+	 */
+	public void testPositionIndexAfterRandomTurns() {
+		String[] plants = {"SunFlower", "VenusFlyTrap", "Walnut", "Potatoe", "PeaShooter"};
+		Random random = new Random(42);
+		level = new Level(3);
+		board.setLevel(level);
+		for (int step = 0; step < 200; step++) {
+			int action = random.nextInt(4);
+			if (action == 0) {
+				int i = random.nextInt(Board.GRID_HEIGHT);
+				int j = random.nextInt(Board.GRID_WIDTH - 1);
+				if (board.isEmpty(i, j)) {
+					Plant plant = (Plant) GridObjectFactory.createNewGridObject(plants[random.nextInt(plants.length)]);
+					board.commandManager.executeCommand(new PlacePlantCommand(board, level, plant, i, j));
+				}
+			}
+			else if (action == 1)
+				board.startBoardTurn();
+			else if (action == 2)
+				board.commandManager.undo();
+			else
+				board.commandManager.redo();
+			assertIndexConsistent();
+		}
+	}
+	
+	/**
+	 * This method tests that parallel and verified turns play the same game as serial turns
+	 */
+	public void testTurnModesMatch() {
+		String expected = null;
+		for (Board.TurnMode turnMode : Board.TurnMode.values()) {
+			ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+			for (int i = 0; i < 30; i++) {
+				zombies.add(new GenericZombie());
+				zombies.add(new BurrowingBailey());
+			}
+			board = new Board(new CommandManager());
+			board.setBackend(backend());
+			board.setLevel(new Level(zombies));
+			board.setupGrid();
+			board.clear();
+			board.startRecording(11L);
+			board.setTurnMode(turnMode);
+			BoardStates.playGame(board);
+			String state = BoardStates.state(board);
+			if (expected == null)
+				expected = state;
+			assertEquals(turnMode.toString(), expected, state);
+			assertIndexConsistent();
+		}
+	}
+	
+	/**
+	 * This method tests a board larger than the standard one
+	 */
+	public void testLargeBoard() {
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 200; i++)
+			zombies.add(new GenericZombie());
+		board = new Board(new CommandManager(), 20, 60);
+		board.setBackend(backend());
+		level = new Level(zombies);
+		board.setLevel(level);
+		board.setupGrid();
+		board.setSeed(3);
+		board.setTurnMode(Board.TurnMode.VERIFY);
+		board.placePlant(new PeaShooter(), 19, 0);
+		for (int turn = 0; turn < 100; turn++)
+			board.startBoardTurn();
+		assertEquals(20, board.getHeight());
+		assertEquals(60, board.getWidth());
+		assertNotNull(board.getObject(19, 59));
+		for (Zombie zombie : board.getZombiesOnBoard())
+			assertTrue(board.getY(zombie) < 19);
+		assertEquals(19, board.getY(board.getPlantsOnBoard().get(0)));
+		assertFalse(board.getZombiesOnBoard().isEmpty());
+		assertNull(board.toTheRight(board.getObject(5, 59)));
+		assertIndexConsistent();
+		for (int turn = 0; turn < 100; turn++)
+			board.getCommandManager().undo();
+		assertTrue(board.getZombiesOnBoard().isEmpty());
+		assertIndexConsistent();
+	}
+
+	/**
+	 * This test checks that a turn without history allocates nothing once the
+	 * board is in a steady state of zombies spawning and dying, as zombies are
+	 * created when they spawn, with a pool to reuse the dead ones.
+	 */
+	public void testSteadyTurnAllocatesNothing() {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported())
+			return;
+		threads.setThreadAllocatedMemoryEnabled(true);
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 3000; i++)
+			zombies.add(i % 2 == 0 ? new GenericZombie() : new BurrowingBailey());
+		board = new Board(new CommandManager());
+		board.setBackend(backend());
+		level = new Level(zombies);
+		board.setLevel(level);
+		board.setupGrid();
+		board.setSeed(5);
+		board.setPool(new EntityPool());
+		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
+			for (int j = 0; j < 4; j++)
+				board.placePlant(new PeaShooter(), i, j);
+			board.placePlant(new Walnut(), i, 4);
+		}
+		for (int turn = 0; turn < 1000; turn++)
+			board.boardTurn();
+
+		int turns = 1000;
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int turn = 0; turn < turns; turn++) {
+			board.boardTurn();
+			board.giftCoinsIfStuck();
+		}
+		long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		assertFalse(board.getZombiesOnBoard().isEmpty());
+		assertEquals(5 * Board.GRID_HEIGHT, board.getPlantsOnBoard().size());
+		assertTrue(allocated + " bytes allocated in " + turns + " turns", allocated < turns);
+		assertIndexConsistent();
+	}
+	
+	/**
+	 * This method asserts that every cell and every object on the board is found
+	 * at its grid position by getX() and getY().
+	 */
+	private void assertIndexConsistent() {
+		for (int i = 0; i < board.getHeight(); i++) {
+			for (int j = 0; j < board.getWidth(); j++) {
+				GridObject o = board.getObject(i, j);
+				assertEquals(i, board.getY(o));
+				assertEquals(j, board.getX(o));
+			}
+		}
+		for (GridObject o : board.getGridObjects())
+			assertSame(o, board.getObject(board.getY(o), board.getX(o)));
+		for (int i = 0; i < board.getHeight(); i++) {
+			int previous = -1;
+			for (Zombie zombie : board.getZombiesInLane(i)) {
+				assertEquals(i, board.getY(zombie));
+				assertTrue(board.getX(zombie) > previous);
+				previous = board.getX(zombie);
+			}
+			for (int k = 0; k < board.getZombiesInLane(i).size(); k++)
+				assertEquals(k, board.getZombiesInLane(i).get(k).laneIndex);
+			for (int k = 0; k < board.getPlantsInLane(i).size(); k++)
+				assertEquals(k, board.getPlantsInLane(i).get(k).laneIndex);
+		}
+		
+		//The counts must match a scan of the grid
+		BoardStats stats = board.getStats();
+		int[] plants = new int[EntityType.plantTypeCount()];
+		int zombies = 0, breaches = 0;
+		for (int i = 0; i < board.getHeight(); i++) {
+			int lane = 0;
+			for (int j = 0; j < board.getWidth(); j++) {
+				EntityType type = board.getObject(i, j).getEntityType();
+				if (type.isPlant())
+					plants[type.getPlantType()]++;
+				else if (type.isZombie()) {
+					lane++;
+					if (j == 0)
+						breaches++;
+				}
+			}
+			assertEquals(lane, stats.getZombieCount(i));
+			zombies += lane;
+		}
+		for (int type = 0; type < EntityType.plantTypeCount(); type++)
+			assertEquals(plants[type], stats.getPlantCount(type));
+		assertEquals(zombies, stats.getZombieCount());
+		assertEquals(breaches, stats.getZombiesInFirstColumn());
+		assertEquals(plants[SunFlower.TYPE] * SunFlower.COIN_BONUS, stats.getCoinYield());
+		assertEquals(plants[SunFlower.TYPE] > 0, stats.hasSunflowers());
+	}
+	
+	/**
+	 * This test checks that plants killed during a turn are removed at its end, and
+	 * that undoing the turn puts the board's lists back in their exact order.
+	 */
+	public void testDeathsRemovedAndUndone() {
+		board.clear();
+		level.setAllZombies(new ArrayList<Zombie>());
+		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
+			board.placePlant(new Walnut(), i, 1);
+			board.placePlant(new SunFlower(), i, 3);
+		}
+		board.placeZombie(g1, 3, 8);
+		ArrayList<GridObject> objects = new ArrayList<GridObject>(board.getGridObjects());
+		ArrayList<Plant> plants = new ArrayList<Plant>(board.getPlantsOnBoard());
+		Plant first = (Plant) board.getObject(0, 1);
+		Plant middle = (Plant) board.getObject(2, 3);
+		first.loseHealth(first.getHealth());
+		middle.setHealth(0);
+		board.startBoardTurn();
+		assertTrue(board.isEmpty(0, 1));
+		assertTrue(board.isEmpty(2, 3));
+		assertEquals(plants.size() - 2, board.getPlantsOnBoard().size());
+		assertFalse(board.getPlantsOnBoard().contains(first));
+		assertIndexConsistent();
+		
+		board.getCommandManager().undo();
+		assertEquals(objects, board.getGridObjects());
+		assertEquals(plants, board.getPlantsOnBoard());
+		board.getCommandManager().redo();
+		assertTrue(board.isEmpty(2, 3));
+		board.getCommandManager().undo();
+		first.setHealth(first.getFullHealth());
+		middle.setHealth(middle.getFullHealth());
+		board.startBoardTurn();
+		assertSame(first, board.getObject(0, 1));
+		assertSame(middle, board.getObject(2, 3));
+		assertIndexConsistent();
+	}
+	
+	/**
+	 * This test checks the counts follow zombies into and out of the first column,
+	 * including when a turn is undone and redone.
+	 */
+	public void testStatsFollowUndo() {
+		board.clear();
+		board.placePlant(s1, 0, 3);
+		board.placeZombie(g1, 2, 1);
+		board.placeZombie(g2, 4, 0);
+		level.setAllZombies(new ArrayList<Zombie>());
+		assertEquals(1, board.getStats().getZombiesInFirstColumn());
+		assertEquals(SunFlower.COIN_BONUS, board.getStats().getCoinYield());
+		board.startBoardTurn();
+		assertEquals(2, board.getStats().getZombiesInFirstColumn());
+		assertTrue(board.zombiesInFirstColumn());
+		assertIndexConsistent();
+		board.getCommandManager().undo();
+		assertEquals(1, board.getStats().getZombiesInFirstColumn());
+		assertIndexConsistent();
+		board.getCommandManager().redo();
+		assertEquals(2, board.getStats().getZombiesInFirstColumn());
+		assertIndexConsistent();
+	}
+	
+	/**
+	 * This test checks that across turns, undos and redos the events name every
+	 * cell whose entity or health changed and end with the current coins, and that
+	 * a parallel board with a listener still reports from the calling thread.
+	 */
+	public void testEventsCoverChanges() {
+		board.setSeed(7);
+		board.setTurnMode(Board.TurnMode.PARALLEL);
+		final ArrayList<Integer> dirty = new ArrayList<Integer>();
+		final int[] coins = {-1};
+		final EnumSet<BoardEvent.Type> seen = EnumSet.noneOf(BoardEvent.Type.class);
+		final Thread thread = Thread.currentThread();
+		board.addBoardListener(new BoardListener() {
+			public void boardChanged(BoardEvent event) {
+				assertSame(thread, Thread.currentThread());
+				seen.add(event.getType());
+				if (!event.isCellEvent()) {
+					coins[0] = event.getAfter();
+					return;
+				}
+				dirty.add(event.getRow() * Board.GRID_WIDTH + event.getCol());
+				if (event.getType() == BoardEvent.Type.MOVED)
+					dirty.add(event.getFromRow() * Board.GRID_WIDTH + event.getFromCol());
+			}
+		});
+		Random random = new Random(3);
+		for (int step = 0; step < 60; step++) {
+			Object[] before = cells();
+			int coinsBefore = level.coins;
+			dirty.clear();
+			coins[0] = -1;
+			int action = random.nextInt(4);
+			if (action == 0 && board.getCommandManager().isUndoAvailable())
+				board.undo();
+			else if (action == 1 && board.getCommandManager().isRedoAvailable())
+				board.redo();
+			else if (action == 2 && board.isEmpty(step % Board.GRID_HEIGHT, 2))
+				board.getCommandManager().executeCommand(new PlacePlantCommand(board, level, new PeaShooter(), step % Board.GRID_HEIGHT, 2));
+			else
+				board.startBoardTurn();
+			Object[] after = cells();
+			for (int c = 0; c < after.length; c += 2) {
+				if (before[c] != after[c] || !before[c + 1].equals(after[c + 1]))
+					assertTrue("Cell " + c / 2 + " changed unreported", dirty.contains(c / 2));
+			}
+			assertEquals(level.coins == coinsBefore ? -1 : level.coins, coins[0]);
+		}
+		assertEquals(EnumSet.allOf(BoardEvent.Type.class), seen);
+	}
+	
+	/**
+	 * This method gets the entity and health in every cell.
+	 * @return Per cell, the entity then its health.
+	 */
+	private Object[] cells() {
+		Object[] cells = new Object[Board.GRID_HEIGHT * Board.GRID_WIDTH * 2];
+		for (int i = 0; i < Board.GRID_HEIGHT; i++) {
+			for (int j = 0; j < Board.GRID_WIDTH; j++) {
+				GridObject o = board.getObject(i, j);
+				int k = (i * Board.GRID_WIDTH + j) * 2;
+				cells[k] = o;
+				cells[k + 1] = BoardStates.health(o);
+			}
+		}
+		return cells;
+	}
 }
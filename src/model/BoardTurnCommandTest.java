@@ -1,5 +1,8 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 public class BoardTurnCommandTest extends TestCase{
@@ -11,6 +14,7 @@ public class BoardTurnCommandTest extends TestCase{
 	
 	protected void setUp() {
 		board = new Board();
+		board.setBackend(backend());
 		board.setupGrid();
 		g1 = new GenericZombie();
 		s1 = new SunFlower();
@@ -19,6 +23,13 @@ public class BoardTurnCommandTest extends TestCase{
 		level = new Level(1);
 		board.setLevel(level);
 	}
+
+	/**
+	 * This method gets the backend the tests' boards keep their cells in.
+	 */
+	protected Board.Backend backend() {
+		return Board.Backend.OBJECTS;
+	}
 	
 	/**
 	 * This method tests execute when a loss of health occurs
@@ -147,4 +158,86 @@ public class BoardTurnCommandTest extends TestCase{
 		btc.redo();
 		assertEquals(true,(board.getObject(0, 4) instanceof NullSpace));
 	}
+	
+	/**
+	 * This method tests that undoing a whole game and redoing it again passes
+	 * through exactly the same boards, down to object identity and list order.
+	 */
+	public void testUndoRedoRoundTrip() {
+		undoRedoRoundTrip(Board.TurnMode.SERIAL);
+	}
+	
+	/**
+	 * This method tests undo and redo of turns whose lanes were resolved in parallel
+	 */
+	public void testUndoRedoRoundTripParallel() {
+		undoRedoRoundTrip(Board.TurnMode.PARALLEL);
+	}
+	
+	private void undoRedoRoundTrip(Board.TurnMode turnMode) {
+		String[] plants = {"SunFlower", "VenusFlyTrap", "Walnut", "Potatoe", "PeaShooter"};
+		Random random = new Random(3);
+		board = new Board(new CommandManager());
+		board.setBackend(backend());
+		board.setupGrid();
+		level = new Level(3);
+		level.coins = 10000;
+		board.setLevel(level);
+		board.setRandom(new Random(5));
+		board.setTurnMode(turnMode);
+		
+		ArrayList<String> snapshots = new ArrayList<String>();
+		snapshots.add(snapshot());
+		for (int step = 0; step < 60; step++) {
+			int i = random.nextInt(Board.GRID_HEIGHT);
+			int j = random.nextInt(Board.GRID_WIDTH - 1);
+			if (random.nextBoolean() && board.isEmpty(i, j)) {
+				Plant plant = (Plant) GridObjectFactory.createNewGridObject(plants[random.nextInt(plants.length)]);
+				board.commandManager.executeCommand(new PlacePlantCommand(board, level, plant, i, j));
+			}
+			else
+				board.startBoardTurn();
+			snapshots.add(snapshot());
+		}
+		for (int step = snapshots.size() - 2; step >= 0; step--) {
+			board.commandManager.undo();
+			assertEquals(snapshots.get(step), snapshot());
+		}
+		for (int step = 1; step < snapshots.size(); step++) {
+			board.commandManager.redo();
+			assertEquals(snapshots.get(step), snapshot());
+		}
+	}
+	
+	/**
+	 * This method tests that a turn where nothing fights records nothing but coins.
+	 */
+	public void testQuietTurnRecordsNothing() {
+		board.placePlant(s1, 0, 0);
+		level.setAllZombies(new ArrayList<Zombie>());
+		assertEquals(0, new BoardTurnCommand(board, level).getChangeCount());
+	}
+	
+	/**
+	 * This method describes everything undo and redo must restore.
+	 */
+	private String snapshot() {
+		StringBuilder sb = new StringBuilder(BoardStates.state(board));
+		for (GridObject o : board.getGridObjects())
+			sb.append(identify(o)).append(' ');
+		sb.append('\n');
+		for (Plant plant : board.getPlantsOnBoard())
+			sb.append(identify(plant)).append(' ');
+		sb.append('\n');
+		for (Zombie zombie : board.getZombiesOnBoard())
+			sb.append(identify(zombie)).append(' ');
+		return sb.toString();
+	}
+	
+	/**
+	 * This method describes an object so undo must restore the same instance.
+	 */
+	private static String identify(GridObject o) {
+		return BoardStates.describe(o) + "@" + System.identityHashCode(o);
+	}
 }
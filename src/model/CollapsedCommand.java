@@ -0,0 +1,54 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Several consecutive commands collapsed into a single undo step.
+ */
+class CollapsedCommand implements JournaledCommand, Serializable {
+	private Board board;
+	private Level level;
+	private MutationJournal journal;
+
+	/**
+	 * This constructor merges the journals of consecutive commands on one board.
+	 * @param commands (JournaledCommand[]), oldest first.
+	 */
+	CollapsedCommand(JournaledCommand[] commands) {
+		board = commands[0].getBoard();
+		level = commands[0].getLevel();
+		journal = commands[0].getJournal();
+		for (int k = 1; k < commands.length; k++)
+			journal = journal.merge(commands[k].getJournal());
+	}
+
+	/**
+	 * The commands were executed before they were collapsed.
+	 */
+	public void execute() {
+	}
+
+	public void undo() {
+		journal.undo(board, level);
+	}
+
+	public void redo() {
+		journal.redo(board, level);
+	}
+
+	public long estimatedBytes() {
+		return 32 + journal.estimatedBytes();
+	}
+
+	public Board getBoard() {
+		return board;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public MutationJournal getJournal() {
+		return journal;
+	}
+}
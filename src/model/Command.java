@@ -4,4 +4,5 @@ public interface Command {
 	public void execute();
 	public void undo();
 	public void redo();
+	public long estimatedBytes();
 }
@@ -1,12 +1,17 @@
 package model;
 
 import java.io.Serializable;
-import java.util.Stack;
+import java.util.ArrayList;
 
 public class CommandManager implements Serializable{
 	 
-    private Stack<Command> undoStack = new Stack<Command>();
-    private Stack<Command> redoStack = new Stack<Command>();
+	//Oldest first, the next command to undo is at the end
+    private ArrayList<Command> undoStack = new ArrayList<Command>();
+    private ArrayList<Command> redoStack = new ArrayList<Command>();
+    private HistoryPolicy historyPolicy = HistoryPolicy.UNBOUNDED;
+    private long historyBytes;
+    //Number of commands at the start of the undo stack that are collapsed checkpoints
+    private int checkpoints;
  
     /**
      * This method executes a command.
@@ -14,8 +19,12 @@ public class CommandManager implements Serializable{
      */
     public void executeCommand(Command command) {
         command.execute();
-        undoStack.push(command);
+        undoStack.add(command);
+        historyBytes += command.estimatedBytes();
+        for (Command undone : redoStack)
+        	historyBytes -= undone.estimatedBytes();
         redoStack.clear();
+        enforcePolicy();
     }
  
     /**
@@ -23,7 +32,7 @@ public class CommandManager implements Serializable{
      * @return boolean
      */
     public boolean isUndoAvailable() {
-        return !undoStack.empty();
+        return !undoStack.isEmpty();
     }
  
     /**
@@ -31,11 +40,13 @@ public class CommandManager implements Serializable{
      */
     public void undo() {
     	//Cannot execute an undo if the stack is empty
-        if (undoStack.empty())
+        if (undoStack.isEmpty())
         	return;
-        Command command = undoStack.pop();
+        Command command = undoStack.remove(undoStack.size() - 1);
+        if (checkpoints > undoStack.size())
+        	checkpoints = undoStack.size();
         command.undo();
-        redoStack.push(command);
+        redoStack.add(command);
     }
  
     /**
@@ -43,7 +54,7 @@ public class CommandManager implements Serializable{
      * @return boolean
      */
     public boolean isRedoAvailable() {
-        return !redoStack.empty();
+        return !redoStack.isEmpty();
     }
  
     /**
@@ -52,10 +63,110 @@ public class CommandManager implements Serializable{
      */
     public void redo() {
     	//Cannot execute a redo if the stack is empty
-        if (redoStack.empty())
+        if (redoStack.isEmpty())
         	return;
-        Command command = redoStack.pop();
+        Command command = redoStack.remove(redoStack.size() - 1);
         command.redo();
-        undoStack.push(command);
+        if (command instanceof CollapsedCommand && checkpoints == undoStack.size())
+        	checkpoints++;
+        undoStack.add(command);
+    }
+    
+    /**
+     * This method forgets the whole history, for when a new game starts.
+     */
+    public void clear() {
+    	undoStack.clear();
+    	redoStack.clear();
+    	historyBytes = 0;
+    	checkpoints = 0;
+    }
+    
+    /**
+     * This method collapses and drops the oldest commands until the history fits
+     * the policy.
+     */
+    private void enforcePolicy() {
+    	int interval = historyPolicy.getCheckpointInterval();
+    	if (interval > 1) {
+    		while (undoStack.size() - checkpoints >= historyPolicy.getRecentEntries() + interval)
+    			collapseOldest(interval);
+    	}
+    	int maxEntries = historyPolicy.getMaxEntries();
+    	while (maxEntries > 0 && undoStack.size() > maxEntries)
+    		dropOldest();
+    	long maxBytes = historyPolicy.getMaxBytes();
+    	//The redo history furthest from the current game goes first
+    	while (maxBytes > 0 && historyBytes > maxBytes && !redoStack.isEmpty())
+    		historyBytes -= redoStack.remove(0).estimatedBytes();
+    	while (maxBytes > 0 && historyBytes > maxBytes && !undoStack.isEmpty())
+    		dropOldest();
+    }
+    
+    /**
+     * This method replaces the oldest commands that are not checkpoints yet with
+     * a single checkpoint.
+     * @param count (int), the number of commands to collapse.
+     */
+    private void collapseOldest(int count) {
+    	JournaledCommand[] group = new JournaledCommand[count];
+    	for (int k = 0; k < count; k++) {
+    		Command command = undoStack.get(checkpoints + k);
+    		if (!(command instanceof JournaledCommand)) {
+    			//Leave groups with commands that cannot be merged as they are
+    			checkpoints += count;
+    			return;
+    		}
+    		group[k] = (JournaledCommand) command;
+    	}
+    	CollapsedCommand checkpoint = new CollapsedCommand(group);
+    	for (int k = 0; k < count; k++)
+    		historyBytes -= undoStack.get(checkpoints + k).estimatedBytes();
+    	undoStack.subList(checkpoints, checkpoints + count).clear();
+    	undoStack.add(checkpoints, checkpoint);
+    	historyBytes += checkpoint.estimatedBytes();
+    	checkpoints++;
+    }
+    
+    /**
+     * This method forgets the oldest command on the undo stack.
+     */
+    private void dropOldest() {
+    	historyBytes -= undoStack.remove(0).estimatedBytes();
+    	if (checkpoints > 0)
+    		checkpoints--;
+    }
+    
+    /**
+     * This method gets the history policy.
+     * @return historyPolicy
+     */
+    public HistoryPolicy getHistoryPolicy() {
+    	return historyPolicy;
+    }
+    
+    /**
+     * This method sets the history policy and applies it to the current history.
+     * @param historyPolicy
+     */
+    public void setHistoryPolicy(HistoryPolicy historyPolicy) {
+    	this.historyPolicy = historyPolicy;
+    	enforcePolicy();
+    }
+    
+    /**
+     * This method gets the number of commands that can be undone or redone.
+     * @return int
+     */
+    public int getHistorySize() {
+    	return undoStack.size() + redoStack.size();
+    }
+    
+    /**
+     * This method gets the estimated memory held by the undo and redo history.
+     * @return An estimate in bytes.
+     */
+    public long getHistoryBytes() {
+    	return historyBytes;
     }
 }
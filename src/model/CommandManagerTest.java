@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class CommandManagerTest extends TestCase {
+	private Board board;
+	private Level level;
+	private CommandManager commandManager;
+	
+	protected void setUp() {
+		commandManager = new CommandManager();
+		board = new Board(commandManager);
+		board.setupGrid();
+		level = new Level(3);
+		board.setLevel(level);
+		board.setRandom(new Random(11));
+		board.placePlant(new PeaShooter(), 0, 0);
+		board.placePlant(new PeaShooter(), 1, 0);
+	}
+	
+	/**
+	 * This method tests that the oldest commands are dropped past the entry limit.
+	 */
+	public void testMaxEntries() {
+		commandManager.setHistoryPolicy(HistoryPolicy.maxEntries(5));
+		for (int i = 0; i < 20; i++)
+			board.startBoardTurn();
+		assertEquals(5, commandManager.getHistorySize());
+		for (int i = 0; i < 5; i++)
+			commandManager.undo();
+		assertEquals(false, commandManager.isUndoAvailable());
+	}
+	
+	/**
+	 * This method tests that the history is trimmed to the byte budget.
+	 */
+	public void testMaxBytes() {
+		for (int i = 0; i < 20; i++)
+			board.startBoardTurn();
+		long unbounded = commandManager.getHistoryBytes();
+		assertEquals(true, unbounded > 0);
+		commandManager.setHistoryPolicy(HistoryPolicy.maxBytes(unbounded / 2));
+		assertEquals(true, commandManager.getHistoryBytes() <= unbounded / 2);
+		assertEquals(true, commandManager.getHistorySize() < 20);
+	}
+	
+	/**
+	 * This method tests that a byte budget set with a long redo history trims the
+	 * redo history before the undo history.
+	 */
+	public void testMaxBytesWithRedo() {
+		for (int i = 0; i < 20; i++)
+			board.startBoardTurn();
+		long unbounded = commandManager.getHistoryBytes();
+		for (int i = 0; i < 16; i++)
+			commandManager.undo();
+		commandManager.setHistoryPolicy(HistoryPolicy.maxBytes(unbounded / 2));
+		assertEquals(true, commandManager.getHistoryBytes() <= unbounded / 2);
+		assertEquals(true, commandManager.isRedoAvailable());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(true, commandManager.isUndoAvailable());
+			commandManager.undo();
+		}
+		assertEquals(false, commandManager.isUndoAvailable());
+		assertEquals(true, commandManager.getHistorySize() < 20);
+	}
+	
+	/**
+	 * This method tests that redo history counts towards the footprint until a new
+	 * command clears it.
+	 */
+	public void testFootprintAfterUndo() {
+		for (int i = 0; i < 4; i++)
+			board.startBoardTurn();
+		long bytes = commandManager.getHistoryBytes();
+		commandManager.undo();
+		commandManager.undo();
+		assertEquals(bytes, commandManager.getHistoryBytes());
+		board.startBoardTurn();
+		assertEquals(true, commandManager.getHistoryBytes() < bytes);
+		assertEquals(3, commandManager.getHistorySize());
+	}
+	
+	/**
+	 * This method tests that collapsed checkpoints undo several turns at once and
+	 * land exactly where the game was at that checkpoint.
+	 */
+	public void testCheckpoints() {
+		commandManager.setHistoryPolicy(HistoryPolicy.checkpoints(4, 2));
+		int[] coins = new int[13];
+		String[] boards = new String[13];
+		coins[0] = level.coins;
+		boards[0] = BoardStates.state(board);
+		for (int i = 1; i <= 12; i++) {
+			board.startBoardTurn();
+			coins[i] = level.coins;
+			boards[i] = BoardStates.state(board);
+		}
+		//Turns 1-4 and 5-8 are checkpoints, 9 and 10 are waiting for a full group, 11 and 12 are recent
+		assertEquals(6, commandManager.getHistorySize());
+		int[] expected = {11, 10, 9, 8, 4, 0};
+		for (int step : expected) {
+			commandManager.undo();
+			assertEquals(coins[step], level.coins);
+			assertEquals(boards[step], BoardStates.state(board));
+		}
+		for (int k = expected.length - 2; k >= 0; k--) {
+			commandManager.redo();
+			assertEquals(boards[expected[k]], BoardStates.state(board));
+		}
+		commandManager.redo();
+		assertEquals(boards[12], BoardStates.state(board));
+	}
+}
@@ -0,0 +1,204 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Runs the board and entity tests again on the compact backend, along with
+ * the tests of the backend itself.
+ */
+public class CompactBoardTest extends TestCase {
+	private static final EntityType[] ZOMBIES = {EntityType.GENERIC_ZOMBIE, EntityType.FRANK_THE_TANK,
+			EntityType.BURROWING_BAILEY};
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite("Compact backend");
+		suite.addTestSuite(CompactBoardTest.class);
+		suite.addTestSuite(Boards.class);
+		suite.addTestSuite(Turns.class);
+		suite.addTestSuite(PeaShooters.class);
+		suite.addTestSuite(VenusFlyTraps.class);
+		suite.addTestSuite(GenericZombies.class);
+		suite.addTestSuite(BurrowingBaileys.class);
+		return suite;
+	}
+
+	public static class Boards extends BoardTest {
+		@Override
+		protected Board.Backend backend() {
+			return Board.Backend.COMPACT;
+		}
+	}
+
+	public static class Turns extends BoardTurnCommandTest {
+		@Override
+		protected Board.Backend backend() {
+			return Board.Backend.COMPACT;
+		}
+	}
+
+	public static class PeaShooters extends PeaShooterTest {
+		@Override
+		protected Board.Backend backend() {
+			return Board.Backend.COMPACT;
+		}
+	}
+
+	public static class VenusFlyTraps extends VenusFlyTrapTest {
+		@Override
+		protected Board.Backend backend() {
+			return Board.Backend.COMPACT;
+		}
+	}
+
+	public static class GenericZombies extends GenericZombieTest {
+		@Override
+		protected Board.Backend backend() {
+			return Board.Backend.COMPACT;
+		}
+	}
+
+	public static class BurrowingBaileys extends BurrowingBaileyTest {
+		@Override
+		protected Board.Backend backend() {
+			return Board.Backend.COMPACT;
+		}
+	}
+
+	/**
+	 * This method builds a seeded board with a custom level of every zombie type.
+	 */
+	private static Board seededBoard(Board.Backend backend, int height, int width, int zombies, long seed) {
+		ArrayList<Zombie> queue = new ArrayList<Zombie>();
+		for (int i = 0; i < zombies; i++)
+			queue.add((Zombie) ZOMBIES[i % ZOMBIES.length].create());
+		Level level = new Level(queue);
+		level.coins = 400;
+		Board board = new Board(new CommandManager(), height, width);
+		board.setBackend(backend);
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		board.setSeed(seed);
+		return board;
+	}
+
+	/**
+	 * This method plays the same placements and turns on a board, switching its
+	 * backend every few turns, and checks the arrays hold what the objects do.
+	 * @return The board's state after every command.
+	 */
+	private static ArrayList<String> play(Board board, int turns, long placements, boolean switching) {
+		ArrayList<String> states = new ArrayList<String>();
+		Random random = new Random(placements);
+		Level level = board.getLevel();
+		for (int turn = 0; turn < turns; turn++) {
+			if (switching && turn % 7 == 0)
+				board.setBackend(board.getBackend() == Board.Backend.OBJECTS ? Board.Backend.COMPACT : Board.Backend.OBJECTS);
+			for (int k = 0; k < 2; k++) {
+				int type = random.nextInt(EntityType.plantTypeCount());
+				int row = random.nextInt(board.getHeight());
+				int col = random.nextInt(board.getWidth() - 1);
+				Plant plant = GridObjectFactory.createPlant(type);
+				plant.setCooldowns(level.getCooldowns());
+				if (plant.isAvailable() && plant.getPrice() <= level.coins && board.isEmpty(row, col)) {
+					board.getCommandManager().executeCommand(new PlacePlantCommand(board, level, plant, row, col));
+					states.add(BoardStates.state(board));
+				}
+			}
+			board.startBoardTurn();
+			assertArraysMatch(board);
+			states.add(BoardStates.state(board));
+		}
+		return states;
+	}
+
+	/**
+	 * This method asserts a compact board's arrays hold the type and health of the
+	 * object in each cell.
+	 */
+	private static void assertArraysMatch(Board board) {
+		if (board.getBackend() != Board.Backend.COMPACT)
+			return;
+		CompactStorage storage = (CompactStorage) board.getStorage();
+		for (int i = 0; i < board.getHeight(); i++) {
+			for (int j = 0; j < board.getWidth(); j++) {
+				GridObject o = board.getObject(i, j);
+				int cell = i * board.getWidth() + j;
+				assertEquals(o.getEntityType().getId(), storage.getType(cell));
+				if (!o.getEntityType().isEmpty())
+					assertEquals(BoardStates.health(o), storage.getHealth(cell));
+			}
+		}
+	}
+
+	/**
+	 * This method tests that the same game plays the same on both backends and on
+	 * a board changing backend between turns
+	 */
+	public void testBackendsMatch() {
+		for (long seed = 1; seed <= 3; seed++) {
+			ArrayList<String> objects = play(seededBoard(Board.Backend.OBJECTS, 12, 30, 200, seed), 150, seed, false);
+			ArrayList<String> compact = play(seededBoard(Board.Backend.COMPACT, 12, 30, 200, seed), 150, seed, false);
+			ArrayList<String> switching = play(seededBoard(Board.Backend.OBJECTS, 12, 30, 200, seed), 150, seed, true);
+			assertEquals(objects, compact);
+			assertEquals(objects, switching);
+		}
+	}
+
+	/**
+	 * This method tests that undoing and redoing commands on a compact board puts the
+	 * arrays back with the objects
+	 */
+	public void testUndoRedo() {
+		Board board = seededBoard(Board.Backend.COMPACT, Board.GRID_HEIGHT, Board.GRID_WIDTH, 40, 9L);
+		ArrayList<String> states = play(board, 40, 9L, false);
+		for (int k = states.size() - 2; k >= 0; k--) {
+			board.getCommandManager().undo();
+			assertArraysMatch(board);
+			assertEquals(states.get(k), BoardStates.state(board));
+		}
+		for (int k = 1; k < states.size(); k++) {
+			board.getCommandManager().redo();
+			assertArraysMatch(board);
+			assertEquals(states.get(k), BoardStates.state(board));
+		}
+	}
+
+	/**
+	 * This method tests that a plant or zombie taken off a compact board keeps the
+	 * health it had in its cell
+	 */
+	public void testRemovedKeepsHealth() {
+		Board board = seededBoard(Board.Backend.COMPACT, Board.GRID_HEIGHT, Board.GRID_WIDTH, 0, 1L);
+		GenericZombie zombie = new GenericZombie();
+		board.placeZombie(zombie, 2, 6);
+		zombie.loseHealth(30);
+		assertEquals(GenericZombie.FULL_HEALTH - 30, ((CompactStorage) board.getStorage()).getHealth(2 * Board.GRID_WIDTH + 6));
+		assertTrue(board.remove(zombie));
+		assertEquals(GenericZombie.FULL_HEALTH - 30, zombie.getHealth());
+		zombie.setHealth(10);
+		assertEquals(0, ((CompactStorage) board.getStorage()).getHealth(2 * Board.GRID_WIDTH + 6));
+		assertEquals(10, zombie.getHealth());
+	}
+
+	/**
+	 * This method tests that a compact board keeps no object per empty cell, and
+	 * that emptied cells read as empty from the arrays
+	 */
+	public void testEmptyCellsHaveNoObjects() {
+		Board board = seededBoard(Board.Backend.COMPACT, Board.GRID_HEIGHT, Board.GRID_WIDTH, 0, 1L);
+		assertSame(board.getObject(3, 0), board.getObject(3, 5));
+		GenericZombie zombie = new GenericZombie();
+		board.placeZombie(zombie, 3, 6);
+		assertEquals(EntityType.GENERIC_ZOMBIE.getId(), ((CompactStorage) board.getStorage()).getType(3 * Board.GRID_WIDTH + 6));
+		assertTrue(board.remove(zombie));
+		assertTrue(board.isEmpty(3, 6));
+		assertSame(board.getObject(3, 0), board.getObject(3, 6));
+		assertEquals(EntityType.EMPTY.getId(), ((CompactStorage) board.getStorage()).getType(3 * Board.GRID_WIDTH + 6));
+	}
+}
@@ -0,0 +1,113 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * A board storage keeping the state of each cell in parallel arrays: the type
+ * id in a byte[] and the health in an int[]. The arrays are the cells: an empty
+ * cell is only its type id, and whether a cell is empty is read from them. The
+ * plants and zombies on the board are adapters onto the arrays: while one is in
+ * a cell its getHealth() and setHealth() read and write the cell's entry, and
+ * the array is the only copy of its health. Taking it out of the cell copies the
+ * health back into the object.
+ */
+class CompactStorage implements BoardStorage, Serializable {
+	private static final byte EMPTY = (byte) EntityType.EMPTY.getId();
+
+	private final int width;
+	private final byte[] types;
+	private final int[] health;
+	//The plant or zombie in each cell, for the turn rules to act through, null for empty cells
+	private final GridObject[] entities;
+	//Per row, the object standing for whichever empty cell of the row was last asked for.
+	//Lanes only look at their own row, so lanes resolved in parallel never share one.
+	private final NullSpace[] emptyCells;
+
+	/**
+	 * This constructor creates a storage of empty cells.
+	 * @param height (int), the number of rows.
+	 * @param width (int), the number of columns.
+	 */
+	CompactStorage(int height, int width) {
+		this.width = width;
+		types = new byte[height * width];
+		health = new int[height * width];
+		entities = new GridObject[height * width];
+		emptyCells = new NullSpace[height];
+		for (int i = 0; i < height; i++)
+			emptyCells[i] = new NullSpace();
+	}
+
+	@Override
+	public GridObject get(int cell) {
+		if (types[cell] == EMPTY)
+			return emptyCell(cell);
+		return entities[cell];
+	}
+
+	@Override
+	public void set(int cell, GridObject gridObject) {
+		GridObject old = entities[cell];
+		if (old != null)
+			old.keepHealthIn(null, cell);
+		types[cell] = (byte) gridObject.getEntityType().getId();
+		health[cell] = 0;
+		if (types[cell] == EMPTY) {
+			entities[cell] = null;
+			return;
+		}
+		entities[cell] = gridObject;
+		gridObject.keepHealthIn(health, cell);
+	}
+
+	@Override
+	public void swap(int a, int b) {
+		GridObject gridObject = entities[a];
+		entities[a] = entities[b];
+		entities[b] = gridObject;
+		byte type = types[a];
+		types[a] = types[b];
+		types[b] = type;
+		int hp = health[a];
+		health[a] = health[b];
+		health[b] = hp;
+	}
+
+	@Override
+	public boolean isEmpty(int cell) {
+		return types[cell] == EMPTY;
+	}
+
+	@Override
+	public NullSpace emptyCell(int cell) {
+		NullSpace emptyCell = emptyCells[cell / width];
+		emptyCell.cell = cell;
+		return emptyCell;
+	}
+
+	@Override
+	public void release() {
+		for (int cell = 0; cell < entities.length; cell++) {
+			if (entities[cell] != null)
+				entities[cell].keepHealthIn(null, cell);
+		}
+	}
+
+	/**
+	 * This method gets the type id in a cell.
+	 * @param cell (int), the packed cell.
+	 * @return The id, that of EntityType.EMPTY if the cell is empty.
+	 */
+	int getType(int cell) {
+		return types[cell];
+	}
+
+	/**
+	 * This method gets the health in a cell.
+	 * @param cell (int), the packed cell.
+	 * @return The health of the plant or zombie, 0 if the cell is empty.
+	 */
+	int getHealth(int cell) {
+		return health[cell];
+	}
+}
@@ -0,0 +1,51 @@
+package model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class CooldownTable implements Serializable {
+	private int[] currentTimes = new int[EntityType.plantTypeCount()];
+
+	/**
+	 * This method gets the turns left before a plant type can be played again.
+	 * @param type (int), the plant type.
+	 * @return currentTime
+	 */
+	public int get(int type) {
+		return currentTimes[type];
+	}
+
+	/**
+	 * This method sets the turns left before a plant type can be played again.
+	 * @param type (int), the plant type.
+	 * @param currentTime
+	 */
+	public void set(int type, int currentTime) {
+		currentTimes[type] = currentTime;
+	}
+
+	/**
+	 * This method decrements the timer of a plant type if it is running.
+	 * @param type (int), the plant type.
+	 */
+	public void decrement(int type) {
+		if (currentTimes[type] != 0)
+			currentTimes[type] = currentTimes[type] - 1;
+	}
+
+	/**
+	 * This method copies every timer.
+	 * @return A copy of the timers indexed by plant type.
+	 */
+	public int[] snapshot() {
+		return Arrays.copyOf(currentTimes, currentTimes.length);
+	}
+
+	/**
+	 * This method sets every timer from a copy taken by snapshot().
+	 * @param snapshot (int[]), the timers indexed by plant type.
+	 */
+	public void restore(int[] snapshot) {
+		System.arraycopy(snapshot, 0, currentTimes, 0, currentTimes.length);
+	}
+}
@@ -0,0 +1,105 @@
+package model;
+
+import java.util.ArrayList;
+
+/**
+ * Plants and zombies that have left play, kept to be handed out again as new
+ * ones. Long headless runs create and discard the same few kinds of entity
+ * millions of times; with a pool they reuse them instead. An entity handed out
+ * is reset to how a new one of its type starts. A pool is not thread safe, so
+ * each game, or each thread playing games one after another, has its own.
+ */
+public class EntityPool {
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	//Per type id, the entities ready to be handed out
+	private final ArrayList<ArrayList<GridObject>> free;
+	private final int capacity;
+	private long requests;
+	private long hits;
+	private long releases;
+
+	/**
+	 * This constructor creates an empty pool keeping up to DEFAULT_CAPACITY
+	 * entities of each type.
+	 */
+	public EntityPool() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * This constructor creates an empty pool.
+	 * @param capacity (int), the most entities of each type the pool keeps.
+	 */
+	public EntityPool(int capacity) {
+		this.capacity = capacity;
+		free = new ArrayList<ArrayList<GridObject>>(EntityType.count());
+		for (int id = 0; id < EntityType.count(); id++)
+			free.add(new ArrayList<GridObject>());
+	}
+
+	/**
+	 * This method gets an entity of a type, reusing one from the pool if it can.
+	 * @param type (EntityType), a plant or zombie type.
+	 * @return GridObject, as a new one of the type would be.
+	 */
+	public GridObject create(EntityType type) {
+		requests++;
+		ArrayList<GridObject> entities = free.get(type.getId());
+		if (entities.isEmpty())
+			return type.create();
+		hits++;
+		return entities.remove(entities.size() - 1);
+	}
+
+	/**
+	 * This method returns an entity that will not be used again to the pool. Empty
+	 * cells are not kept.
+	 * @param gridObject (GridObject), an entity nothing refers to any more.
+	 */
+	public void release(GridObject gridObject) {
+		EntityType type = gridObject.getEntityType();
+		if (type.isEmpty())
+			return;
+		ArrayList<GridObject> entities = free.get(type.getId());
+		if (entities.size() >= capacity)
+			return;
+		gridObject.reset();
+		entities.add(gridObject);
+		releases++;
+	}
+
+	/**
+	 * This method gets the number of entities of a type in the pool.
+	 * @param type (EntityType), the type.
+	 * @return The number of entities.
+	 */
+	public int size(EntityType type) {
+		return free.get(type.getId()).size();
+	}
+
+	public long getRequests() {
+		return requests;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getReleases() {
+		return releases;
+	}
+
+	/**
+	 * This method gets the share of requests served from the pool.
+	 * @return The hit rate from 0 to 1, 0 if nothing was requested.
+	 */
+	public double getHitRate() {
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d requests, %.1f%% from the pool, %d released", requests, 100 * getHitRate(), releases);
+	}
+}
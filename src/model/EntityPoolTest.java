@@ -0,0 +1,80 @@
+package model;
+
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+public class EntityPoolTest extends TestCase {
+	private EntityPool pool;
+
+	protected void setUp() {
+		pool = new EntityPool(2);
+	}
+
+	/**
+	 * This method tests that a released entity comes back as a new one of its type
+	 */
+	public void testReleasedEntityIsReset() {
+		PeaShooter peaShooter = (PeaShooter) pool.create(EntityType.PEA_SHOOTER);
+		CooldownTable cooldowns = new Level(1).getCooldowns();
+		peaShooter.setCooldowns(cooldowns);
+		peaShooter.loseHealth(120);
+		peaShooter.setStrength(1);
+		FrankTheTank frank = (FrankTheTank) pool.create(EntityType.FRANK_THE_TANK);
+		frank.setHealth(-5);
+		frank.setStrength(3);
+		pool.release(peaShooter);
+		pool.release(frank);
+
+		assertSame(peaShooter, pool.create(EntityType.PEA_SHOOTER));
+		assertEquals(PeaShooter.FULL_HEALTH, peaShooter.getHealth());
+		assertEquals(PeaShooter.STRENGTH, peaShooter.getStrength());
+		assertEquals(PeaShooter.PRICE, peaShooter.getPrice());
+		assertNotSame(cooldowns, peaShooter.getCooldowns());
+		assertSame(frank, pool.create(EntityType.FRANK_THE_TANK));
+		assertEquals(EntityType.FRANK_THE_TANK.getFullHealth(), frank.getHealth());
+		assertEquals(EntityType.FRANK_THE_TANK.getStrength(), frank.getStrength());
+	}
+
+	/**
+	 * This method tests the hit rate and that the pool keeps no more than its capacity
+	 */
+	public void testMetricsAndCapacity() {
+		assertEquals(0.0, pool.getHitRate());
+		for (int i = 0; i < 3; i++)
+			pool.release(EntityType.GENERIC_ZOMBIE.create());
+		pool.release(new NullSpace());
+		assertEquals(2, pool.size(EntityType.GENERIC_ZOMBIE));
+		assertEquals(0, pool.size(EntityType.EMPTY));
+		assertEquals(2, pool.getReleases());
+
+		for (int i = 0; i < 4; i++)
+			pool.create(EntityType.GENERIC_ZOMBIE);
+		assertEquals(4, pool.getRequests());
+		assertEquals(2, pool.getHits());
+		assertEquals(0.5, pool.getHitRate());
+	}
+
+	/**
+	 * This method tests that the board returns the dead to its pool, but not while
+	 * a command could undo their deaths
+	 */
+	public void testBoardReleasesTheDead() {
+		Board board = new Board(new CommandManager());
+		board.setLevel(new Level(new ArrayList<Zombie>()));
+		board.setupGrid();
+		board.clear();
+		board.setPool(pool);
+		board.placePlant(new Potatoe(), 0, 3);
+		board.placeZombie(new GenericZombie(), 0, 4);
+		board.boardTurn();
+		assertEquals(1, pool.size(EntityType.POTATOE));
+		assertEquals(1, pool.size(EntityType.GENERIC_ZOMBIE));
+
+		board.placePlant(new Potatoe(), 1, 3);
+		board.placeZombie(new GenericZombie(), 1, 4);
+		board.startBoardTurn();
+		assertEquals(1, pool.size(EntityType.POTATOE));
+		assertEquals(1, pool.size(EntityType.GENERIC_ZOMBIE));
+	}
+}
@@ -0,0 +1,230 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * The kinds of object a cell can hold. Each type has a small id, stored by save
+ * files, replays and the compact storage, a constructor, what sets it apart in
+ * play, and the stats every object of the type starts with, read once from a
+ * prototype. Adding a plant or zombie is adding an entry here; ids are written
+ * to save files, so entries are only ever added at the end.
+ */
+public enum EntityType {
+	EMPTY("NullSpace", NullSpace::new),
+	SUN_FLOWER("SunFlower", SunFlower::new, SunFlower.COIN_BONUS, false, false),
+	VENUS_FLY_TRAP("VenusFlyTrap", VenusFlyTrap::new),
+	POTATOE("Potatoe", Potatoe::new),
+	WALNUT("Walnut", Walnut::new),
+	PEA_SHOOTER("PeaShooter", PeaShooter::new, 0, true, false),
+	GENERIC_ZOMBIE("GenericZombie", GenericZombie::new),
+	FRANK_THE_TANK("FrankTheTank", FrankTheTank::new),
+	BURROWING_BAILEY("BurrowingBailey", BurrowingBailey::new, 0, false, true);
+
+	private static final EntityType[] BY_ID = values();
+	//Indexed by plant type, as long as the largest plant type
+	private static final EntityType[] BY_PLANT_TYPE;
+	private static final HashMap<String, EntityType> BY_TITLE = new HashMap<String, EntityType>();
+
+	private final String title;
+	private final String iconName;
+	private final Supplier<GridObject> constructor;
+	private final int coinBonus;
+	private final boolean ranged, burrowing;
+
+	//Read from the prototype
+	private boolean plant, zombie;
+	private int plantType = -1;
+	private int strength, fullHealth, price, fullTime;
+
+	static {
+		EntityType[] byPlantType = new EntityType[BY_ID.length];
+		int plantTypes = 0;
+		for (EntityType type : BY_ID) {
+			BY_TITLE.put(type.title, type);
+			GridObject prototype = type.constructor.get();
+			if (prototype.getEntityType() != type)
+				throw new IllegalStateException(type.title + " reports the type " + prototype.getEntityType());
+			if (prototype instanceof Plant) {
+				Plant p = (Plant) prototype;
+				type.plant = true;
+				type.plantType = p.getType();
+				type.strength = p.getStrength();
+				type.fullHealth = p.getFullHealth();
+				type.price = p.getPrice();
+				type.fullTime = p.getFullTime();
+				if (type.plantType < 0 || type.plantType >= byPlantType.length || byPlantType[type.plantType] != null)
+					throw new IllegalStateException(type.title + " has the plant type " + type.plantType);
+				byPlantType[type.plantType] = type;
+				plantTypes = Math.max(plantTypes, type.plantType + 1);
+			}
+			else if (prototype instanceof Zombie) {
+				Zombie z = (Zombie) prototype;
+				type.zombie = true;
+				type.strength = z.getStrength();
+				type.fullHealth = z.getFullHealth();
+			}
+		}
+		BY_PLANT_TYPE = Arrays.copyOf(byPlantType, plantTypes);
+		for (int plantType = 0; plantType < plantTypes; plantType++) {
+			if (BY_PLANT_TYPE[plantType] == null)
+				throw new IllegalStateException("No plant has the plant type " + plantType);
+		}
+	}
+
+	EntityType(String title, Supplier<GridObject> constructor) {
+		this(title, constructor, 0, false, false);
+	}
+
+	/**
+	 * This constructor creates a type with its own rules.
+	 * @param title (String), the title of its objects.
+	 * @param constructor (Supplier), creates an object of the type.
+	 * @param coinBonus (int), the coins one object earns each turn.
+	 * @param ranged (boolean), whether it hits every zombie to its right.
+	 * @param burrowing (boolean), whether it jumps a plant with an empty cell behind it.
+	 */
+	EntityType(String title, Supplier<GridObject> constructor, int coinBonus, boolean ranged, boolean burrowing) {
+		this.title = title;
+		this.iconName = title + ".png";
+		this.constructor = constructor;
+		this.coinBonus = coinBonus;
+		this.ranged = ranged;
+		this.burrowing = burrowing;
+	}
+
+	/**
+	 * This method gets a type from its id.
+	 * @param id (int), the id.
+	 * @return EntityType
+	 * @throws IllegalArgumentException if there is no type with the id.
+	 */
+	public static EntityType byId(int id) {
+		if (id < 0 || id >= BY_ID.length)
+			throw new IllegalArgumentException("No entity type " + id);
+		return BY_ID[id];
+	}
+
+	/**
+	 * This method gets a type from its object title.
+	 * @param title (String), e.g. "PeaShooter".
+	 * @return EntityType, or null if there is no such type.
+	 */
+	public static EntityType forTitle(String title) {
+		return BY_TITLE.get(title);
+	}
+
+	/**
+	 * This method gets the type of a plant from its plant type.
+	 * @param plantType (int), a plant type as returned by Plant.getType().
+	 * @return EntityType, or null if there is no such plant.
+	 */
+	public static EntityType forPlantType(int plantType) {
+		if (plantType < 0 || plantType >= BY_PLANT_TYPE.length)
+			return null;
+		return BY_PLANT_TYPE[plantType];
+	}
+
+	/**
+	 * This method gets the number of plant types, one more than the largest.
+	 * Tables indexed by plant type, such as cooldowns, are this long.
+	 * @return The number of plant types.
+	 */
+	public static int plantTypeCount() {
+		return BY_PLANT_TYPE.length;
+	}
+
+	/**
+	 * This method gets the number of types, one more than the largest id.
+	 * @return The number of types.
+	 */
+	public static int count() {
+		return BY_ID.length;
+	}
+
+	/**
+	 * This method creates a new object of the type.
+	 * @return GridObject
+	 */
+	public GridObject create() {
+		return constructor.get();
+	}
+
+	public int getId() {
+		return ordinal();
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * This method gets the name of the image file showing the type.
+	 * @return The file name, e.g. "PeaShooter.png".
+	 */
+	public String getIconName() {
+		return iconName;
+	}
+
+	public boolean isEmpty() {
+		return this == EMPTY;
+	}
+
+	public boolean isPlant() {
+		return plant;
+	}
+
+	public boolean isZombie() {
+		return zombie;
+	}
+
+	/**
+	 * This method gets the plant type of a plant.
+	 * @return The type as returned by Plant.getType(), or -1 if not a plant.
+	 */
+	public int getPlantType() {
+		return plantType;
+	}
+
+	public int getStrength() {
+		return strength;
+	}
+
+	public int getFullHealth() {
+		return fullHealth;
+	}
+
+	public int getPrice() {
+		return price;
+	}
+
+	public int getFullTime() {
+		return fullTime;
+	}
+
+	/**
+	 * This method gets the coins one object of the type earns each turn.
+	 * @return The coins.
+	 */
+	public int getCoinBonus() {
+		return coinBonus;
+	}
+
+	/**
+	 * This method checks if the type hits every zombie to its right in its lane
+	 * rather than only the one in front of it.
+	 * @return A boolean, true for pea shooters.
+	 */
+	public boolean isRanged() {
+		return ranged;
+	}
+
+	/**
+	 * This method checks if the type jumps a plant that has an empty cell behind it.
+	 * @return A boolean, true for Burrowing Bailey.
+	 */
+	public boolean isBurrowing() {
+		return burrowing;
+	}
+}
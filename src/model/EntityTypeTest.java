@@ -0,0 +1,72 @@
+package model;
+
+import junit.framework.TestCase;
+
+public class EntityTypeTest extends TestCase {
+
+	/**
+	 * This method tests that the ids saves are written with do not change
+	 */
+	public void testIdsAreStable() {
+		String[] titles = {"NullSpace", "SunFlower", "VenusFlyTrap", "Potatoe", "Walnut", "PeaShooter",
+				"GenericZombie", "FrankTheTank", "BurrowingBailey"};
+		assertEquals(titles.length, EntityType.count());
+		for (int id = 0; id < titles.length; id++) {
+			assertEquals(titles[id], EntityType.byId(id).getTitle());
+			assertSame(EntityType.byId(id), EntityType.forTitle(titles[id]));
+		}
+	}
+
+	/**
+	 * This method tests that the plant types count the plant entries and map back to them
+	 */
+	public void testPlantTypes() {
+		int plants = 0;
+		for (int id = 0; id < EntityType.count(); id++) {
+			if (EntityType.byId(id).isPlant())
+				plants++;
+		}
+		assertEquals(plants, EntityType.plantTypeCount());
+		for (int type = 0; type < EntityType.plantTypeCount(); type++)
+			assertEquals(type, EntityType.forPlantType(type).getPlantType());
+	}
+
+	/**
+	 * This method tests that every type creates objects of itself with its stats
+	 */
+	public void testCreate() {
+		for (int id = 0; id < EntityType.count(); id++) {
+			EntityType type = EntityType.byId(id);
+			GridObject gridObject = type.create();
+			assertSame(type, gridObject.getEntityType());
+			assertEquals(type.isPlant(), gridObject instanceof Plant);
+			assertEquals(type.isZombie(), gridObject instanceof Zombie);
+			assertEquals(type.isEmpty(), gridObject instanceof NullSpace);
+			if (type.isPlant()) {
+				assertEquals(((Plant) gridObject).getFullHealth(), type.getFullHealth());
+				assertEquals(((Plant) gridObject).getPrice(), type.getPrice());
+				assertSame(type, EntityType.forPlantType(((Plant) gridObject).getType()));
+			}
+			else if (type.isZombie())
+				assertEquals(((Zombie) gridObject).getStrength(), type.getStrength());
+		}
+		assertEquals(SunFlower.COIN_BONUS, EntityType.SUN_FLOWER.getCoinBonus());
+		assertTrue(EntityType.PEA_SHOOTER.isRanged());
+		assertTrue(EntityType.BURROWING_BAILEY.isBurrowing());
+		assertFalse(EntityType.GENERIC_ZOMBIE.isBurrowing());
+	}
+
+	/**
+	 * This method tests lookups of types that do not exist
+	 */
+	public void testUnknownTypes() {
+		assertNull(EntityType.forTitle("Cactus"));
+		assertNull(EntityType.forPlantType(EntityType.plantTypeCount()));
+		assertNull(GridObjectFactory.createNewGridObject("Cactus"));
+		try {
+			EntityType.byId(EntityType.count());
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -11,4 +11,9 @@ public class FrankTheTank extends Zombie{
 	public FrankTheTank() {
 		super(STRENGTH, FULL_HEALTH, "FrankTheTank");
 	}
-}
\ No newline at end of file
+
+	@Override
+	public EntityType getEntityType() {
+		return EntityType.FRANK_THE_TANK;
+	}
+}
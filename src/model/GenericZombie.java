@@ -10,4 +10,9 @@ public class GenericZombie extends Zombie{
 	public GenericZombie() {
 		super(STRENGTH, FULL_HEALTH, "GenericZombie");
 	}
-}
\ No newline at end of file
+
+	@Override
+	public EntityType getEntityType() {
+		return EntityType.GENERIC_ZOMBIE;
+	}
+}
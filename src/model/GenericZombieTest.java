@@ -15,6 +15,7 @@ public class GenericZombieTest extends TestCase {
 	 */
 	protected void setUp() {
 		board = new Board();
+		board.setBackend(backend());
 		board.setupGrid();
 		g1 = new GenericZombie();
 		s1 = new SunFlower();
@@ -23,6 +24,13 @@ public class GenericZombieTest extends TestCase {
 		level = new Level(1);
 		board.setLevel(level);
 	}
+
+	/**
+	 * This method gets the backend the tests' boards keep their cells in.
+	 */
+	protected Board.Backend backend() {
+		return Board.Backend.OBJECTS;
+	}
 	
 	/**
 	 * This method test loseHealth() method.
@@ -4,6 +4,16 @@ import java.io.Serializable;
 
 public abstract class GridObject implements Serializable{
 	String objectTitle;
+	//Packed cell on the board holding this object, row * width + col, kept by the board
+	transient int cell = -1;
+	//Indices in the board's gridObjects list, in its plant or zombie list and in its lane, kept by the board
+	transient int listIndex = -1;
+	transient int typedIndex = -1;
+	transient int laneIndex = -1;
+	//Board holding this object, so it can queue the object's death
+	transient Board board;
+	//Health array of the compact storage holding this object, null while it keeps its own health
+	transient int[] cellHealth;
 
 	/**
 	 * This method gets objectTitle.
@@ -11,4 +21,44 @@ public abstract class GridObject implements Serializable{
 	public String getObjectTitle() {
 		return objectTitle;
 	}
+
+	/**
+	 * This method gets the object's type.
+	 * @return EntityType
+	 */
+	public abstract EntityType getEntityType();
+
+	/**
+	 * This method puts the object back as a new one of its type would be, off any
+	 * board, so a pool can hand it out again.
+	 */
+	void reset() {
+		cell = -1;
+		listIndex = -1;
+		typedIndex = -1;
+		laneIndex = -1;
+		board = null;
+		cellHealth = null;
+	}
+
+	/**
+	 * This method moves the object's health into a compact storage's array while
+	 * it is in one of its cells, or back into the object when the array is null.
+	 * Empty cells have no health to keep.
+	 * @param cells (int[]), the storage's health array, or null.
+	 * @param cell (int), the cell the object is in.
+	 */
+	void keepHealthIn(int[] cells, int cell) {
+	}
+
+	/**
+	 * This method tells the object's board of a change to its health, so the board
+	 * can queue its removal when the health drops to zero.
+	 * @param before (int), the health before the change.
+	 * @param after (int), the health after the change.
+	 */
+	void healthChanged(int before, int after) {
+		if (board != null)
+			board.healthChanged(this, before, after);
+	}
 }
\ No newline at end of file
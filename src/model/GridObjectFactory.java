@@ -3,31 +3,50 @@ package model;
 public class GridObjectFactory {
 
 	/**
-	 * This method returns a new grid object whose type corresponds to 
+	 * This method returns a new grid object whose type corresponds to
 	 * the paramater passed
 	 * @param s
-	 * @return GridObject
+	 * @return GridObject, or null if there is no such type.
 	 */
 	public static GridObject createNewGridObject(String s) {
-		switch(s) {
-		case ("SunFlower"): 	
-			return new SunFlower();
-		case ("VenusFlyTrap"):	
-			return new VenusFlyTrap();
-		case ("Walnut"):
-			return new Walnut();
-		case("Potatoe"):
-			return new Potatoe();
-		case("PeaShooter"):
-			return new PeaShooter();
-		case ("GenericZombie"):	
-			return new GenericZombie();
-		case ("FrankTheTank"):
-			return new FrankTheTank();
-		case("BurrowingBailey"):
-			return new BurrowingBailey();
-		default:				
+		EntityType type = EntityType.forTitle(s);
+		return type == null ? null : type.create();
+	}
+
+	/**
+	 * This method returns a grid object of the type named, reusing one from a pool
+	 * if it can.
+	 * @param s (String), the object title.
+	 * @param pool (EntityPool), the pool to draw from, or null to always create one.
+	 * @return GridObject, or null if there is no such type.
+	 */
+	public static GridObject createNewGridObject(String s, EntityPool pool) {
+		EntityType type = EntityType.forTitle(s);
+		if (type == null)
+			return null;
+		return pool == null ? type.create() : pool.create(type);
+	}
+
+	/**
+	 * This method returns a new plant of the given type.
+	 * @param type (int), a plant type as returned by Plant.getType().
+	 * @return Plant, or null if there is no such type.
+	 */
+	public static Plant createPlant(int type) {
+		EntityType entityType = EntityType.forPlantType(type);
+		return entityType == null ? null : (Plant) entityType.create();
+	}
+
+	/**
+	 * This method returns a plant of the given type, reusing one from a pool if it can.
+	 * @param type (int), a plant type as returned by Plant.getType().
+	 * @param pool (EntityPool), the pool to draw from, or null to always create one.
+	 * @return Plant, or null if there is no such type.
+	 */
+	public static Plant createPlant(int type, EntityPool pool) {
+		EntityType entityType = EntityType.forPlantType(type);
+		if (entityType == null)
 			return null;
-		}
+		return (Plant) (pool == null ? entityType.create() : pool.create(entityType));
 	}
 }
@@ -0,0 +1,79 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Limits on how much undo history a CommandManager keeps. A limit of 0 means
+ * unlimited. When a limit is exceeded the oldest commands are dropped first.
+ */
+public class HistoryPolicy implements Serializable {
+	public static final HistoryPolicy UNBOUNDED = new HistoryPolicy(0, 0, 0, 0);
+	//What the game and simulations with history use: the last 100 steps, every
+	//10th step before them, and no more than 16 MB in all
+	public static final HistoryPolicy DEFAULT = new HistoryPolicy(0, 16L << 20, 10, 100);
+
+	private final int maxEntries;
+	private final long maxBytes;
+	private final int checkpointInterval;
+	private final int recentEntries;
+
+	/**
+	 * This constructor creates a policy.
+	 * @param maxEntries (int), the most undo steps kept, 0 for unlimited.
+	 * @param maxBytes (long), the most estimated bytes of history kept, 0 for unlimited.
+	 * @param checkpointInterval (int), when above 1, commands older than the recent
+	 * ones are collapsed in groups of this size so only every Nth step can be undone to.
+	 * @param recentEntries (int), the newest commands that are never collapsed.
+	 */
+	public HistoryPolicy(int maxEntries, long maxBytes, int checkpointInterval, int recentEntries) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.checkpointInterval = checkpointInterval;
+		this.recentEntries = recentEntries;
+	}
+
+	/**
+	 * This method creates a policy that keeps at most a number of undo steps.
+	 * @param maxEntries (int)
+	 * @return HistoryPolicy
+	 */
+	public static HistoryPolicy maxEntries(int maxEntries) {
+		return new HistoryPolicy(maxEntries, 0, 0, 0);
+	}
+
+	/**
+	 * This method creates a policy that keeps at most an estimated number of bytes.
+	 * @param maxBytes (long)
+	 * @return HistoryPolicy
+	 */
+	public static HistoryPolicy maxBytes(long maxBytes) {
+		return new HistoryPolicy(0, maxBytes, 0, 0);
+	}
+
+	/**
+	 * This method creates a policy that keeps the newest commands as they are and
+	 * collapses older ones so only every Nth step remains as a checkpoint.
+	 * @param checkpointInterval (int), N.
+	 * @param recentEntries (int), the newest commands to keep as they are.
+	 * @return HistoryPolicy
+	 */
+	public static HistoryPolicy checkpoints(int checkpointInterval, int recentEntries) {
+		return new HistoryPolicy(0, 0, checkpointInterval, recentEntries);
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	public int getRecentEntries() {
+		return recentEntries;
+	}
+}
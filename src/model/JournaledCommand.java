@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * A command whose changes are held in a mutation journal, so consecutive ones
+ * can be collapsed into one.
+ */
+interface JournaledCommand extends Command {
+	public Board getBoard();
+	public Level getLevel();
+	MutationJournal getJournal();
+}
@@ -4,12 +4,20 @@ import java.io.Serializable;
 import java.util.ArrayList;
 
 public class Level implements Serializable {
+	//The level number of endless mode, which follows the three built-in levels
+	public static final int ENDLESS = 4;
+
 	public ArrayList<Plant> allPlants; // Not actually all plants, its all plant TYPES (1 instance of each)
-	private ArrayList<Zombie> allZombies;
+	private ZombieWave wave = new ZombieWave();
 	public int coins = 50;
 	private int numOfZombies;
 	private int levelNo;
 	private boolean isCustomLevel;
+	private CooldownTable cooldowns = new CooldownTable();
+	//The waves of endless mode started so far
+	private int waveNo;
+	//The board turns played so far
+	private int turns;
 
 	public Level(int lvl) {
 		levelNo = lvl;
@@ -20,6 +28,8 @@ public class Level implements Serializable {
 			level2();
 		else if(levelNo == 3)
 			level3();
+		else if (levelNo == ENDLESS)
+			endless();
 	}
 	
 	/**
@@ -27,6 +37,14 @@ public class Level implements Serializable {
 	 * @param zombies
 	 */
 	public Level(ArrayList<Zombie> zombies) {
+		this(new ZombieWave(zombies));
+	}
+
+	/**
+	 * Custom Level Builder, for a wave given as counts of each zombie type.
+	 * @param wave (ZombieWave), the zombies to come, played and changed by the level.
+	 */
+	public Level(ZombieWave wave) {
 		setCustomLevel(true);
 		this.coins = 50;
 		allPlants = new ArrayList<Plant>();
@@ -35,12 +53,40 @@ public class Level implements Serializable {
 		allPlants.add(new Potatoe());
 		allPlants.add(new Walnut());
 		allPlants.add(new PeaShooter());
-		this.allZombies = zombies;
+		this.wave = wave;
 		for (Plant plant : allPlants) {
+			plant.setCooldowns(cooldowns);
 			plant.setCurrentTime(0);
 		}
 	}
 
+	/**
+	 * This method rebuilds a level part way through a game.
+	 * @param levelNo (int), the level number, ignored for a custom level.
+	 * @param custom (boolean), true for a level from the level editor.
+	 * @param numOfZombies (int), the number of zombies per type the level started with.
+	 * @param coins (int), the player's coins.
+	 * @param cooldowns (int[]), the plant timers indexed by plant type.
+	 * @param wave (ZombieWave), the zombies still to spawn.
+	 * @param waveNo (int), the waves of endless mode started so far.
+	 * @return Level
+	 */
+	static Level restore(int levelNo, boolean custom, int numOfZombies, int coins, int[] cooldowns, ZombieWave wave,
+			int waveNo) {
+		Level level;
+		if (custom)
+			level = new Level(wave);
+		else {
+			level = new Level(levelNo);
+			level.setWave(wave);
+		}
+		level.setNumOfZombies(numOfZombies);
+		level.waveNo = waveNo;
+		level.coins = coins;
+		level.getCooldowns().restore(cooldowns);
+		return level;
+	}
+
 	/**s
 	 * sets the num of zombies
 	 */
@@ -85,11 +131,10 @@ public class Level implements Serializable {
 		coins = previousCoins;
 
 		// zombies type/amount needs to be generated/level
-		for (int i = 0; i < numOfZombies; i++) {
-			allZombies.add(new GenericZombie());
-		}
+		wave.add(EntityType.GENERIC_ZOMBIE, numOfZombies);
 
 		for (Plant plant : allPlants) {
+			plant.setCooldowns(cooldowns);
 			plant.setCurrentTime(0);
 		}
 	}
@@ -110,12 +155,11 @@ public class Level implements Serializable {
 		coins = previousCoins;
 
 		// zombies type/amount needs to be generated/level
-		for (int i = 0; i < numOfZombies; i++) {
-			allZombies.add(new GenericZombie());
-			allZombies.add(new FrankTheTank());
-		}
+		wave.add(EntityType.GENERIC_ZOMBIE, numOfZombies);
+		wave.add(EntityType.FRANK_THE_TANK, numOfZombies);
 
 		for (Plant plant : allPlants) {
+			plant.setCooldowns(cooldowns);
 			plant.setCurrentTime(0);
 		}
 	}
@@ -136,23 +180,126 @@ public class Level implements Serializable {
 		coins = previousCoins;
 
 		// zombies type/amount needs to be generated/level
-		for (int i = 0; i < numOfZombies; i++) {
-			allZombies.add(new GenericZombie());
-			allZombies.add(new FrankTheTank());
-			allZombies.add(new BurrowingBailey());
+		wave.add(EntityType.GENERIC_ZOMBIE, numOfZombies);
+		wave.add(EntityType.FRANK_THE_TANK, numOfZombies);
+		wave.add(EntityType.BURROWING_BAILEY, numOfZombies);
+
+		for (Plant plant : allPlants) {
+			plant.setCooldowns(cooldowns);
+			plant.setCurrentTime(0);
 		}
+	}
+
+	/**
+	 * This method is endless mode: the zombies come in waves that grow without end,
+	 * and more of them spawn each turn as the waves go on.
+	 */
+	public void endless() {
+		startLevel();
+		int previousCoins = coins; // The constructors below will take away coins must account for this
+		allPlants.add(new SunFlower());
+		allPlants.add(new VenusFlyTrap());
+		allPlants.add(new Potatoe());
+		allPlants.add(new Walnut());
+		allPlants.add(new PeaShooter());
+		coins = previousCoins;
+
+		// waves are added as the previous one runs out
+		waveNo = 0;
 
 		for (Plant plant : allPlants) {
+			plant.setCooldowns(cooldowns);
 			plant.setCurrentTime(0);
 		}
 	}
 
+	/**
+	 * This method gets the number of board turns played, the turns survived in
+	 * endless mode.
+	 * @return turns
+	 */
+	public int getTurns() {
+		return turns;
+	}
+
+	void setTurns(int turns) {
+		this.turns = turns;
+	}
+
+	/**
+	 * This method checks if the level is endless mode.
+	 * @return A boolean, true for endless mode.
+	 */
+	public boolean isEndless() {
+		return levelNo == ENDLESS && !isCustomLevel;
+	}
+
+	/**
+	 * This method gets the number of waves of endless mode started so far.
+	 * @return waveNo
+	 */
+	public int getWaveNo() {
+		return waveNo;
+	}
+
+	/**
+	 * This method gets the number of zombies the board tries to spawn each turn.
+	 * @return 1, or for endless mode a number that grows with the waves.
+	 */
+	public int getSpawnsPerTurn() {
+		return isEndless() ? spawnsPerTurn(waveNo) : 1;
+	}
+
+	/**
+	 * This method starts the next wave of endless mode, adding its zombies.
+	 * @return A boolean, true if a wave was added, false if the level is not endless.
+	 */
+	boolean nextWave() {
+		if (!isEndless())
+			return false;
+		waveNo++;
+		addWave(wave, waveNo);
+		return true;
+	}
+
+	/**
+	 * This method takes back the last wave of endless mode, for an undo. The wave
+	 * must hold all of that wave's zombies again.
+	 */
+	void previousWave() {
+		ZombieWave added = new ZombieWave();
+		addWave(added, waveNo);
+		wave.removeAll(added);
+		waveNo--;
+	}
+
+	/**
+	 * This method adds the zombies of a wave of endless mode to a wave.
+	 * @param wave (ZombieWave), the wave to add to.
+	 * @param waveNo (int), the wave number, from 1.
+	 */
+	static void addWave(ZombieWave wave, int waveNo) {
+		wave.add(EntityType.GENERIC_ZOMBIE, 4 + 2 * waveNo);
+		wave.add(EntityType.FRANK_THE_TANK, waveNo);
+		wave.add(EntityType.BURROWING_BAILEY, waveNo / 2);
+	}
+
+	/**
+	 * This method gets the number of zombies spawned each turn during a wave of
+	 * endless mode.
+	 * @param waveNo (int), the wave number.
+	 * @return The number of spawns per turn.
+	 */
+	static int spawnsPerTurn(int waveNo) {
+		return 1 + waveNo / 3;
+	}
+
 	/**
 	 * This method initialize the plant and zombie array.
 	 */
 	public void startLevel() {
 		// something to clean the board here;
-		allZombies = new ArrayList<Zombie>();
+		wave = new ZombieWave();
 		allPlants = new ArrayList<Plant>();
 	}
 
@@ -161,37 +308,47 @@ public class Level implements Serializable {
 	 * @return True if the player can afford a plant otherwise false.
 	 */
 	public boolean plantAffordable() {
-		for (Plant plant : allPlants) {
-			if (plant.getPrice() < coins)
+		for (int k = 0; k < allPlants.size(); k++) {
+			if (allPlants.get(k).getPrice() < coins)
 				return true;
 		}
 		return false;
 	}
 
 	/**
-	 * This method returns all the zombies that are to be played for the current
+	 * This method returns the zombies that are still to be played for the current
 	 * level.
-	 * @return allZombies
+	 * @return wave
 	 */
-	public ArrayList<Zombie> getAllZombies() {
-		return allZombies;
+	public ZombieWave getWave() {
+		return wave;
+	}
+
+	/**
+	 * This method sets the zombies that are to be played for the current level.
+	 * @param wave
+	 */
+	public void setWave(ZombieWave wave) {
+		this.wave = wave;
 	}
 
 	/**
 	 * This method sets all the zombies that are to be played for the current level.
+	 * Only their types are kept, fresh zombies are spawned in their place.
 	 * @param zombies.
 	 */
 	public void setAllZombies(ArrayList<Zombie> zombies) {
-		allZombies = zombies;
+		wave = new ZombieWave(zombies);
 	}
 
 	/**
 	 * This method checks if there are no more zombies left to play for the current
 	 * level. 
-	 * @return True if the array of zombies is empty otherwise false.
+	 * @return True if the wave of zombies is empty otherwise false, always false
+	 *         for endless mode.
 	 */
 	public boolean zombiesEmpty() {
-		return (allZombies.isEmpty());
+		return (wave.isEmpty() && !isEndless());
 	}
 
 	/**
@@ -202,6 +359,14 @@ public class Level implements Serializable {
 		return allPlants;
 	}
 
+	/**
+	 * This method gets the cooldown table shared by every plant in this game.
+	 * @return cooldowns
+	 */
+	public CooldownTable getCooldowns() {
+		return cooldowns;
+	}
+
 	public boolean isCustomLevel() {
 		return isCustomLevel;
 	}
@@ -1,6 +1,7 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import junit.framework.TestCase;
 
@@ -41,4 +42,92 @@ public class LevelTest extends TestCase {
 		level.coins = -1;
 		assertEquals(level.plantAffordable(),false);
 	}
+	
+	/**
+	 * This method steps two games on separate threads and tests that placing a
+	 * plant in one game never starts its cooldown in the other.
+	 */
+	public void testCooldownsIsolatedBetweenGames() throws InterruptedException {
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread placing = new Thread(() -> {
+			try {
+				Board board = new Board(new CommandManager());
+				board.setupGrid();
+				Level game = new Level(1);
+				game.setAllZombies(new ArrayList<Zombie>());
+				board.setLevel(game);
+				for (int turn = 0; turn < 20000; turn++) {
+					PeaShooter peaShooter = new PeaShooter();
+					board.placePlant(peaShooter, turn % Board.GRID_HEIGHT, 0);
+					assertEquals(PeaShooter.FULL_TIME, game.getAllPlants().get(4).getCurrentTime());
+					board.remove(peaShooter);
+					board.boardTurn();
+					board.boardTurn();
+				}
+			} catch (Throwable t) {
+				failure.compareAndSet(null, t);
+			}
+		});
+		Thread waiting = new Thread(() -> {
+			try {
+				Board board = new Board(new CommandManager());
+				board.setupGrid();
+				Level game = new Level(1);
+				game.setAllZombies(new ArrayList<Zombie>());
+				board.setLevel(game);
+				for (int turn = 0; turn < 20000; turn++) {
+					for (Plant plant : game.getAllPlants())
+						assertEquals(true, plant.isAvailable());
+					board.boardTurn();
+				}
+			} catch (Throwable t) {
+				failure.compareAndSet(null, t);
+			}
+		});
+		placing.start();
+		waiting.start();
+		placing.join();
+		waiting.join();
+		if (failure.get() != null)
+			throw new AssertionError(failure.get());
+	}
+
+	/**
+	 * This method tests that endless mode keeps adding larger waves and spawning
+	 * more zombies each turn, and that undoing a turn takes its wave back.
+	 */
+	public void testEndlessWaves() {
+		Level endless = new Level(Level.ENDLESS);
+		assertTrue(endless.isEndless());
+		assertFalse(endless.nextLevelExists());
+		assertFalse(endless.zombiesEmpty());
+		Board board = new Board(new CommandManager());
+		board.setLevel(endless);
+		board.setupGrid();
+		board.setSeed(11);
+		int spawned = 0;
+		for (int turn = 0; turn < 200; turn++) {
+			board.boardTurn();
+			spawned = Math.max(spawned, board.getZombiesOnBoard().size());
+			assertFalse(endless.zombiesEmpty());
+		}
+		assertEquals(200, endless.getTurns());
+		assertTrue(endless.getWaveNo() > 3);
+		assertTrue(endless.getSpawnsPerTurn() > 1);
+		assertTrue(spawned > Board.GRID_HEIGHT);
+
+		//Play on until a turn starts a wave, then undo and redo it
+		int waveNo = endless.getWaveNo();
+		while (endless.getWaveNo() == waveNo) {
+			ZombieWave before = endless.getWave().copy();
+			board.startBoardTurn();
+			if (endless.getWaveNo() != waveNo) {
+				board.undo();
+				assertEquals(waveNo, endless.getWaveNo());
+				assertEquals(before, endless.getWave());
+				board.redo();
+				assertEquals(waveNo + 1, endless.getWaveNo());
+			}
+		}
+	}
 }
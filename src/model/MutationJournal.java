@@ -0,0 +1,295 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A record of the changes a command made to the board, kept so the command can
+ * be undone and redone without snapshotting the whole board. Entries are
+ * fixed-size and replayed backwards for undo and forwards for redo, so memory
+ * grows with what changed rather than with the size of the board.
+ */
+class MutationJournal implements Serializable {
+	private static final int HEALTH = 0;	//entity, before, after
+	private static final int MOVE = 1;		//entity, cell it left, cell it moved to
+	private static final int PLACE = 2;		//entity, the plant or zombie it replaced or null, cell
+	private static final int REMOVE = 3;	//entity, cell, list indices
+	private static final int DRAW = 4;		//type id of the zombie taken from the level's wave
+	private static final int WAVE = 5;		//endless mode started its next wave
+
+	private static final int INTS = 4;
+	private static final int OBJECTS = 2;
+
+	private int size;
+	private int[] data = new int[8 * INTS];
+	private GridObject[] objects = new GridObject[8 * OBJECTS];
+
+	private int coinsBefore, coinsAfter;
+	private int turnsBefore, turnsAfter;
+	private int[] cooldownsBefore, cooldownsAfter;
+
+	//Health of the entities that might be hit, only kept until the command finishes
+	private transient ArrayList<GridObject> watched = new ArrayList<GridObject>();
+	private transient int[] watchedHealth = new int[8];
+
+	/**
+	 * This constructor starts a journal, remembering the coins, turns and cooldowns.
+	 * @param level (Level), the level being played.
+	 */
+	MutationJournal(Level level) {
+		coinsBefore = level.coins;
+		turnsBefore = level.getTurns();
+		cooldownsBefore = level.getCooldowns().snapshot();
+	}
+
+	/**
+	 * This constructor creates an empty journal, for merge() and for the entries
+	 * of one lane that are appended to the turn's journal.
+	 */
+	MutationJournal() {
+	}
+
+	/**
+	 * This method appends the entries of another journal after this one's.
+	 * @param other (MutationJournal), a journal without coins or health entries.
+	 */
+	void append(MutationJournal other) {
+		for (int e = 0; e < other.size; e++) {
+			int d = e * INTS;
+			add(other.data[d], other.objects[e * OBJECTS], other.objects[e * OBJECTS + 1],
+					other.data[d + 1], other.data[d + 2], other.data[d + 3]);
+		}
+	}
+
+	/**
+	 * This method merges this journal with the one recorded right after it into a
+	 * single journal. Health changes to the same entity collapse into one entry,
+	 * since health commutes with every other entry.
+	 * @param later (MutationJournal), the journal that followed this one.
+	 * @return A finished journal that undoes and redoes both.
+	 */
+	MutationJournal merge(MutationJournal later) {
+		MutationJournal merged = new MutationJournal();
+		merged.data = new int[(size + later.size) * INTS];
+		merged.objects = new GridObject[(size + later.size) * OBJECTS];
+		IdentityHashMap<GridObject, int[]> health = new IdentityHashMap<GridObject, int[]>();
+		for (MutationJournal journal : new MutationJournal[] {this, later}) {
+			for (int e = 0; e < journal.size; e++) {
+				int d = e * INTS;
+				GridObject entity = journal.objects[e * OBJECTS];
+				if (journal.data[d] == HEALTH) {
+					int[] change = health.get(entity);
+					if (change == null)
+						health.put(entity, new int[] {journal.data[d + 1], journal.data[d + 2]});
+					else
+						change[1] = journal.data[d + 2];
+				}
+				else
+					merged.add(journal.data[d], entity, journal.objects[e * OBJECTS + 1],
+							journal.data[d + 1], journal.data[d + 2], journal.data[d + 3]);
+			}
+		}
+		for (Map.Entry<GridObject, int[]> change : health.entrySet()) {
+			if (change.getValue()[0] != change.getValue()[1])
+				merged.add(HEALTH, change.getKey(), null, change.getValue()[0], change.getValue()[1], 0);
+		}
+		merged.data = Arrays.copyOf(merged.data, merged.size * INTS);
+		merged.objects = Arrays.copyOf(merged.objects, merged.size * OBJECTS);
+		merged.coinsBefore = coinsBefore;
+		merged.coinsAfter = later.coinsAfter;
+		merged.turnsBefore = turnsBefore;
+		merged.turnsAfter = later.turnsAfter;
+		merged.cooldownsBefore = cooldownsBefore;
+		merged.cooldownsAfter = later.cooldownsAfter;
+		return merged;
+	}
+
+	/**
+	 * This method estimates the memory the journal holds on to, not counting the
+	 * entities it refers to, which live on the board or in the level anyway.
+	 * @return An estimate in bytes.
+	 */
+	long estimatedBytes() {
+		long bytes = 48 + 16 + 4L * data.length + 16 + 4L * objects.length;
+		bytes += 16 + 4L * cooldownsBefore.length;
+		if (cooldownsAfter != cooldownsBefore)
+			bytes += 16 + 4L * cooldownsAfter.length;
+		return bytes;
+	}
+
+	/**
+	 * This method adds an entry.
+	 */
+	private void add(int op, GridObject first, GridObject second, int a, int b, int c) {
+		if (size * INTS == data.length) {
+			data = Arrays.copyOf(data, Math.max(8 * INTS, data.length * 2));
+			objects = Arrays.copyOf(objects, data.length / INTS * OBJECTS);
+		}
+		int d = size * INTS;
+		data[d] = op;
+		data[d + 1] = a;
+		data[d + 2] = b;
+		data[d + 3] = c;
+		objects[size * OBJECTS] = first;
+		objects[size * OBJECTS + 1] = second;
+		size++;
+	}
+
+	void recordMove(GridObject entity, int from, int to) {
+		add(MOVE, entity, null, from, to, 0);
+	}
+
+	/**
+	 * This method records a placement. An empty cell that was covered is not kept:
+	 * undo empties the cell again however the board represents empty cells.
+	 */
+	void recordPlace(GridObject entity, GridObject replaced, int cell) {
+		add(PLACE, entity, replaced.getEntityType().isEmpty() ? null : replaced, cell, 0, 0);
+	}
+
+	void recordRemove(GridObject entity, int cell, int gridObjectsIndex, int typedIndex) {
+		add(REMOVE, entity, null, cell, gridObjectsIndex, typedIndex);
+	}
+
+	void recordDraw(EntityType type) {
+		add(DRAW, null, null, type.getId(), 0, 0);
+	}
+
+	void recordWave() {
+		add(WAVE, null, null, 0, 0, 0);
+	}
+
+	/**
+	 * This method remembers the health of an entity that might be hit so a change
+	 * can be recorded when the journal is finished.
+	 * @param entity (GridObject), a plant or zombie.
+	 */
+	void watch(GridObject entity) {
+		int k = watched.size();
+		if (k == watchedHealth.length)
+			watchedHealth = Arrays.copyOf(watchedHealth, k * 2);
+		watched.add(entity);
+		watchedHealth[k] = getHealth(entity);
+	}
+
+	/**
+	 * This method closes the journal: records the health of watched entities that
+	 * changed, and the coins, turns and cooldowns after the command.
+	 * @param level (Level), the level being played.
+	 */
+	void finish(Level level) {
+		for (int k = 0; k < watched.size(); k++) {
+			GridObject entity = watched.get(k);
+			int health = getHealth(entity);
+			if (health != watchedHealth[k])
+				add(HEALTH, entity, null, watchedHealth[k], health, 0);
+		}
+		watched = null;
+		watchedHealth = null;
+		coinsAfter = level.coins;
+		turnsAfter = level.getTurns();
+		cooldownsAfter = level.getCooldowns().snapshot();
+		if (Arrays.equals(cooldownsBefore, cooldownsAfter))
+			cooldownsAfter = cooldownsBefore;
+		data = Arrays.copyOf(data, size * INTS);
+		objects = Arrays.copyOf(objects, size * OBJECTS);
+	}
+
+	/**
+	 * This method reverts the board and level to how they were before the command.
+	 * @param board (Board), the board.
+	 * @param level (Level), the level.
+	 */
+	void undo(Board board, Level level) {
+		for (int e = size - 1; e >= 0; e--) {
+			int d = e * INTS;
+			GridObject entity = objects[e * OBJECTS];
+			GridObject other = objects[e * OBJECTS + 1];
+			switch (data[d]) {
+			case HEALTH:
+				setHealth(entity, data[d + 1]);
+				break;
+			case MOVE:
+				board.moveTo(entity, data[d + 1]);
+				break;
+			case PLACE:
+				board.takeBack(entity, other);
+				break;
+			case REMOVE:
+				board.restore(entity, data[d + 1], data[d + 2], data[d + 3]);
+				break;
+			case DRAW:
+				level.getWave().add(EntityType.byId(data[d + 1]));
+				break;
+			case WAVE:
+				level.previousWave();
+				break;
+			}
+		}
+		level.coins = coinsBefore;
+		level.setTurns(turnsBefore);
+		level.getCooldowns().restore(cooldownsBefore);
+		board.reportCoins();
+	}
+
+	/**
+	 * This method applies the command's changes again after an undo.
+	 * @param board (Board), the board.
+	 * @param level (Level), the level.
+	 */
+	void redo(Board board, Level level) {
+		for (int e = 0; e < size; e++) {
+			int d = e * INTS;
+			GridObject entity = objects[e * OBJECTS];
+			GridObject other = objects[e * OBJECTS + 1];
+			switch (data[d]) {
+			case HEALTH:
+				setHealth(entity, data[d + 2]);
+				break;
+			case MOVE:
+				board.moveTo(entity, data[d + 2]);
+				break;
+			case PLACE:
+				board.put(entity, data[d + 1]);
+				break;
+			case REMOVE:
+				board.remove(entity);
+				break;
+			case DRAW:
+				level.getWave().remove(EntityType.byId(data[d + 1]));
+				break;
+			case WAVE:
+				level.nextWave();
+				break;
+			}
+		}
+		level.coins = coinsAfter;
+		level.setTurns(turnsAfter);
+		level.getCooldowns().restore(cooldownsAfter);
+		board.reportCoins();
+	}
+
+	/**
+	 * This method gets the number of entries.
+	 * @return size
+	 */
+	int size() {
+		return size;
+	}
+
+	private static int getHealth(GridObject entity) {
+		if (entity.getEntityType().isPlant())
+			return ((Plant) entity).getHealth();
+		return ((Zombie) entity).getHealth();
+	}
+
+	private static void setHealth(GridObject entity, int health) {
+		if (entity.getEntityType().isPlant())
+			((Plant) entity).setHealth(health);
+		else
+			((Zombie) entity).setHealth(health);
+	}
+}
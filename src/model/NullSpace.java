@@ -2,4 +2,9 @@ package model;
 
 public class NullSpace extends GridObject {
 	String objectTitle = "NullSpace";
+
+	@Override
+	public EntityType getEntityType() {
+		return EntityType.EMPTY;
+	}
 }
@@ -0,0 +1,58 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * A board storage keeping the object of each cell in an array, with a NullSpace
+ * in each empty cell. Plants and zombies keep their own health.
+ */
+class ObjectStorage implements BoardStorage, Serializable {
+	private final GridObject[] cells;
+	//Empty cells covered by plants and zombies, handed out again so emptying a cell allocates nothing
+	private final ArrayList<NullSpace> spares = new ArrayList<NullSpace>();
+
+	/**
+	 * This constructor creates a storage of empty cells.
+	 * @param size (int), the number of cells.
+	 */
+	ObjectStorage(int size) {
+		cells = new GridObject[size];
+	}
+
+	@Override
+	public GridObject get(int cell) {
+		return cells[cell];
+	}
+
+	@Override
+	public void set(int cell, GridObject gridObject) {
+		GridObject old = cells[cell];
+		if (old != null && old.getEntityType().isEmpty() && !gridObject.getEntityType().isEmpty())
+			spares.add((NullSpace) old);
+		cells[cell] = gridObject;
+	}
+
+	@Override
+	public void swap(int a, int b) {
+		GridObject gridObject = cells[a];
+		cells[a] = cells[b];
+		cells[b] = gridObject;
+	}
+
+	@Override
+	public boolean isEmpty(int cell) {
+		return cells[cell].getEntityType().isEmpty();
+	}
+
+	@Override
+	public NullSpace emptyCell(int cell) {
+		if (spares.isEmpty())
+			return new NullSpace();
+		return spares.remove(spares.size() - 1);
+	}
+
+	@Override
+	public void release() {
+	}
+}
@@ -12,6 +12,13 @@ public class PeaShooterTest extends TestCase {
 		peaShooter = new PeaShooter();
 		level = new Level(1);
 	}
+
+	/**
+	 * This method gets the backend the tests' boards keep their cells in.
+	 */
+	protected Board.Backend backend() {
+		return Board.Backend.OBJECTS;
+	}
 	
 	/**
 	 * This method test the newTurn method if the current time is not 0
@@ -46,5 +53,30 @@ public class PeaShooterTest extends TestCase {
 		peaShooter.setCurrentTime(3);
 		assertEquals(peaShooter.isAvailable(),false);
 	}
+	
+	/**
+	 * This method tests that go() hits every zombie to the right in the lane and
+	 * nothing behind or in other lanes.
+	 */
+	public void testGoHitsEveryZombieToTheRight() {
+		board = new Board();
+		board.setBackend(backend());
+		board.setupGrid();
+		board.setLevel(level);
+		GenericZombie behind = new GenericZombie();
+		GenericZombie near = new GenericZombie();
+		FrankTheTank far = new FrankTheTank();
+		GenericZombie otherLane = new GenericZombie();
+		board.placePlant(peaShooter, 2, 3);
+		board.placeZombie(behind, 2, 1);
+		board.placeZombie(near, 2, 5);
+		board.placeZombie(far, 2, 8);
+		board.placeZombie(otherLane, 3, 6);
+		peaShooter.go(board);
+		assertEquals(GenericZombie.FULL_HEALTH, behind.getHealth());
+		assertEquals(GenericZombie.FULL_HEALTH - PeaShooter.STRENGTH, near.getHealth());
+		assertEquals(FrankTheTank.FULL_HEALTH - PeaShooter.STRENGTH, far.getHealth());
+		assertEquals(GenericZombie.FULL_HEALTH, otherLane.getHealth());
+	}
 
 }
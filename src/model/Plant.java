@@ -1,6 +1,7 @@
 package model;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 
 public abstract class Plant extends GridObject implements Serializable{
 	public int fullHealth;
@@ -8,11 +9,14 @@ public abstract class Plant extends GridObject implements Serializable{
 	protected int health;
 	protected int strength;
 	protected int price;
+	protected int type;
+	private CooldownTable cooldowns;
 
 	/**
 	 * This constructs a plant.
 	 */
-	public Plant(int fullTime, int strength, int health, int price, String objectTitle) {
+	public Plant(int type, int fullTime, int strength, int health, int price, String objectTitle) {
+		this.type = type;
 		this.fullHealth = health;
 		this.fullTime = fullTime;
 		this.strength = strength;
@@ -21,22 +25,56 @@ public abstract class Plant extends GridObject implements Serializable{
 		this.price = price;
 	}
 	
+	@Override
+	void reset() {
+		super.reset();
+		EntityType entityType = getEntityType();
+		fullHealth = entityType.getFullHealth();
+		fullTime = entityType.getFullTime();
+		strength = entityType.getStrength();
+		price = entityType.getPrice();
+		health = fullHealth;
+		cooldowns = null;
+	}
+	
 	/**
-	 * This method allows the plants to move on the board.
+	 * This method allows the plants to move on the board. A ranged plant hits
+	 * every zombie to its right in its lane, any other plant the one in front of it.
 	 */
 	public void go(Board board) {
+		if (getEntityType().isRanged()) {
+			int col = board.getX(this);
+			ArrayList<Zombie> zombies = board.getZombiesInLane(board.getY(this));
+			for (int k = 0; k < zombies.size(); k++) {
+				if (board.getX(zombies.get(k)) > col)
+					attack(zombies.get(k));
+			}
+			return;
+		}
 		GridObject right = board.toTheRight(this);
-		if (right instanceof Zombie)
+		if (right != null && right.getEntityType().isZombie())
 			((Zombie)right).loseHealth(strength);;
 	}
 	
+	@Override
+	void keepHealthIn(int[] cells, int cell) {
+		int current = cellHealth == null ? health : cellHealth[cell];
+		cellHealth = cells;
+		if (cells == null)
+			health = current;
+		else
+			cells[cell] = current;
+	}
+	
 	/**
 	 * This method reduces the plant's health when a zombie has attack the plant.
 	 * If the plant's health is zero it is removed from the board.
 	 * @param zombieStrength (int), the zombie's strength for attacking a plant.
 	 */
 	public void loseHealth(int zombieStrength) {
-		health = health - zombieStrength;
+		int before = getHealth();
+		storeHealth(before - zombieStrength);
+		healthChanged(before, before - zombieStrength);
 	}
 	
 	/**
@@ -48,27 +86,62 @@ public abstract class Plant extends GridObject implements Serializable{
 	}
 	
 	/**
-	 * This method decrements the plants static timer.
+	 * This method decrements the timer shared by every plant of this type in the game.
 	 */
-	public abstract void newTurn();
+	public void newTurn() {
+		getCooldowns().decrement(type);
+	}
 	
 	/**
-	 * This method resets the time (Will be overridden by the child class).
+	 * This method resets the time.
 	 */
-	public abstract void resetTime();
+	public void resetTime() {
+		getCooldowns().set(type, fullTime);
+	}
 	
 	
 	/**
-	 * This method gets the current time (Will be overridden by the child class).
+	 * This method gets the current time.
 	 * @return A int, returns the current time.
 	 */
-	public abstract int getCurrentTime();
+	public int getCurrentTime() {
+		return getCooldowns().get(type);
+	}
 	
 	/**
-	 * This method checks if the plant is available for the round (Will be overridden by the child class).
+	 * This method checks if the plant is available for the round.
 	 * @return A boolean, true if it is available otherwise false.
 	 */
-	public abstract boolean isAvailable();
+	public boolean isAvailable() {
+		return (getCurrentTime() == 0);
+	}
+	
+	/**
+	 * This method gets the cooldown table of the game the plant belongs to. A plant
+	 * that has not joined a game keeps a table of its own.
+	 * @return cooldowns
+	 */
+	public CooldownTable getCooldowns() {
+		if (cooldowns == null)
+			cooldowns = new CooldownTable();
+		return cooldowns;
+	}
+	
+	/**
+	 * This method sets the cooldown table, joining the plant to a game.
+	 * @param cooldowns
+	 */
+	public void setCooldowns(CooldownTable cooldowns) {
+		this.cooldowns = cooldowns;
+	}
+	
+	/**
+	 * This method gets the plant type, an index into the cooldown table.
+	 * @return type
+	 */
+	public int getType() {
+		return type;
+	}
 	
 	/**
 	 * This method gets the full time.
@@ -91,7 +164,17 @@ public abstract class Plant extends GridObject implements Serializable{
 	 * @return health.
 	 */
 	public int getHealth() {
-		return health;
+		return cellHealth == null ? health : cellHealth[cell];
+	}
+	
+	/**
+	 * This method writes the health wherever it is kept.
+	 */
+	private void storeHealth(int health) {
+		if (cellHealth == null)
+			this.health = health;
+		else
+			cellHealth[cell] = health;
 	}
 
 	/**
@@ -99,7 +182,9 @@ public abstract class Plant extends GridObject implements Serializable{
 	 * @param health
 	 */
 	public void setHealth(int health) {
-		this.health = health;
+		int before = getHealth();
+		storeHealth(health);
+		healthChanged(before, health);
 	}
 
 	/**
@@ -138,7 +223,9 @@ public abstract class Plant extends GridObject implements Serializable{
 	 * This method sets current time.
 	 * @param currentTime
 	 */
-	public abstract void setCurrentTime(int currentTime);
+	public void setCurrentTime(int currentTime) {
+		getCooldowns().set(type, currentTime);
+	}
 	
 	/**
 	 * This method gets the fullHealth
@@ -158,7 +245,7 @@ public abstract class Plant extends GridObject implements Serializable{
 	public boolean equals(Plant plant) {
 		if (!(plant.getObjectTitle().equals(getObjectTitle())))
 			return false;
-		if (!(plant.health == health))
+		if (!(plant.getHealth() == getHealth()))
 			return false;
 		if (!(plant.getCurrentTime() == getCurrentTime()))
 			return false;
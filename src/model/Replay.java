@@ -0,0 +1,248 @@
+package model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A compact recording of one game: the level, the seed of the spawn source, the
+ * history policy and every action the player took. Playing it back on a fresh
+ * board reproduces the game exactly. The policy is part of the game, as an undo
+ * into a collapsed checkpoint rolls back a whole group of steps.
+ */
+public class Replay implements Serializable {
+	private static final int MAGIC = 0x50565A52; //"PVZR"
+	private static final int VERSION = 1;
+
+	private static final int END_TURN = -1;
+	private static final int UNDO = -2;
+	private static final int REDO = -3;
+
+	private long seed;
+	private int height;
+	private int width;
+	private int levelNo;
+	private HistoryPolicy historyPolicy;
+	//The zombies a custom level started with, null for the built-in levels
+	private ZombieWave customWave;
+	private int[] actions = new int[16];
+	private int size;
+
+	/**
+	 * This constructor starts a recording of a game that is about to begin.
+	 * @param level (Level), the level, before any zombie has spawned.
+	 * @param seed (long), the seed of the board's spawn source.
+	 * @param height (int), the number of rows of the board.
+	 * @param width (int), the number of columns of the board.
+	 * @param historyPolicy (HistoryPolicy), the policy of the game's command manager.
+	 */
+	public Replay(Level level, long seed, int height, int width, HistoryPolicy historyPolicy) {
+		this.seed = seed;
+		this.height = height;
+		this.width = width;
+		this.historyPolicy = historyPolicy;
+		levelNo = level.getLevelNo();
+		if (level.isCustomLevel())
+			customWave = level.getWave().copy();
+	}
+
+	private Replay() {
+	}
+
+	private void add(int action) {
+		if (size == actions.length)
+			actions = Arrays.copyOf(actions, size * 2);
+		actions[size++] = action;
+	}
+
+	/**
+	 * This method records a plant being placed.
+	 * @param type (int), the plant type.
+	 * @param row (int), the row.
+	 * @param col (int), the column.
+	 */
+	void recordPlace(int type, int row, int col) {
+		add(type << 24 | row * width + col);
+	}
+
+	void recordEndTurn() {
+		add(END_TURN);
+	}
+
+	void recordUndo() {
+		add(UNDO);
+	}
+
+	void recordRedo() {
+		add(REDO);
+	}
+
+	/**
+	 * This method gets the number of recorded actions.
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public HistoryPolicy getHistoryPolicy() {
+		return historyPolicy;
+	}
+
+	/**
+	 * This method creates the level the game started with.
+	 * @return A new Level.
+	 */
+	public Level createLevel() {
+		if (customWave == null)
+			return new Level(levelNo);
+		return new Level(customWave.copy());
+	}
+
+	/**
+	 * This method plays the game back on a new board, the same way the controller
+	 * would have.
+	 * @return The board as it was after the last recorded action.
+	 */
+	public Board play() {
+		Level level = createLevel();
+		Board board = new Board(new CommandManager(), height, width);
+		board.getCommandManager().setHistoryPolicy(historyPolicy);
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		board.setSeed(seed);
+		for (int k = 0; k < size; k++) {
+			int action = actions[k];
+			if (action == END_TURN) {
+				board.startBoardTurn();
+				board.giftCoinsIfStuck();
+			}
+			else if (action == UNDO)
+				board.getCommandManager().undo();
+			else if (action == REDO)
+				board.getCommandManager().redo();
+			else {
+				Plant plant = GridObjectFactory.createPlant(action >>> 24);
+				int cell = action & 0xFFFFFF;
+				board.getCommandManager().executeCommand(
+						new PlacePlantCommand(board, level, plant, cell / width, cell % width));
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * This method writes the replay in its compact binary form.
+	 * @param out (OutputStream), the stream to write to, it is not closed.
+	 * @throws IOException
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeLong(seed);
+		data.writeInt(height);
+		data.writeInt(width);
+		data.writeInt(historyPolicy.getMaxEntries());
+		data.writeLong(historyPolicy.getMaxBytes());
+		data.writeInt(historyPolicy.getCheckpointInterval());
+		data.writeInt(historyPolicy.getRecentEntries());
+		data.writeInt(levelNo);
+		data.writeInt(customWave == null ? -1 : EntityType.count());
+		if (customWave != null) {
+			for (int id = 0; id < EntityType.count(); id++)
+				data.writeInt(customWave.getCount(EntityType.byId(id)));
+		}
+		data.writeInt(size);
+		for (int k = 0; k < size; k++)
+			data.writeInt(actions[k]);
+		data.flush();
+	}
+
+	/**
+	 * This method reads a replay written by write().
+	 * @param in (InputStream), the stream to read from, it is not closed.
+	 * @return Replay
+	 * @throws IOException if the stream does not hold a replay.
+	 */
+	public static Replay read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not a replay");
+		int version = data.readShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported replay version " + version);
+		Replay replay = new Replay();
+		replay.seed = data.readLong();
+		replay.height = data.readInt();
+		replay.width = data.readInt();
+		int maxEntries = data.readInt();
+		long maxBytes = data.readLong();
+		int checkpointInterval = data.readInt();
+		int recentEntries = data.readInt();
+		if (maxEntries < 0 || maxBytes < 0 || checkpointInterval < 0 || recentEntries < 0)
+			throw new IOException("Bad history policy");
+		replay.historyPolicy = new HistoryPolicy(maxEntries, maxBytes, checkpointInterval, recentEntries);
+		replay.levelNo = data.readInt();
+		int custom = data.readInt();
+		if (custom >= 0) {
+			replay.customWave = new ZombieWave();
+			for (int i = 0; i < custom; i++) {
+				EntityType type = i < EntityType.count() ? EntityType.byId(i) : null;
+				int count = data.readInt();
+				if (count == 0)
+					continue;
+				if (type == null || !type.isZombie() || count < 0 || count > Integer.MAX_VALUE - replay.customWave.size())
+					throw new IOException("Bad custom level zombie");
+				replay.customWave.add(type, count);
+			}
+		}
+		replay.size = data.readInt();
+		replay.actions = new int[Math.max(replay.size, 1)];
+		for (int k = 0; k < replay.size; k++)
+			replay.actions[k] = data.readInt();
+		return replay;
+	}
+
+	/**
+	 * Replays a game saved by the game's export option, or a replay file, and
+	 * reports how long it took.
+	 * Usage: Replay &lt;save file | replay file&gt; [times]
+	 */
+	public static void main(String[] args) throws IOException {
+		Replay replay;
+		if (args[0].endsWith(SaveFile.EXTENSION) || args[0].endsWith(SaveFile.LEGACY_EXTENSION)) {
+			try (InputStream in = new FileInputStream(args[0])) {
+				replay = SaveFile.load(in).getReplay();
+			}
+			if (replay == null) {
+				System.out.println("This save has no replay recorded");
+				return;
+			}
+		}
+		else {
+			try (InputStream in = new FileInputStream(args[0])) {
+				replay = read(in);
+			}
+		}
+		int times = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		long start = System.nanoTime();
+		Board board = null;
+		for (int i = 0; i < times; i++)
+			board = replay.play();
+		long elapsed = System.nanoTime() - start;
+		System.out.println(replay.size() + " actions replayed " + times + " time(s) in " + elapsed / 1000000 + " ms");
+		System.out.println("Coins " + board.getLevel().coins + ", zombies on board " + board.getZombiesOnBoard().size()
+				+ ", zombies left " + board.getLevel().getWave().size());
+	}
+}
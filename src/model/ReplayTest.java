@@ -0,0 +1,92 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+public class ReplayTest extends TestCase {
+	private Board board;
+	private Level level;
+
+	protected void setUp() {
+		level = new Level(2);
+		board = new Board(new CommandManager());
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		board.startRecording(1234L);
+	}
+
+	/**
+	 * This method tests that playing a recording back reproduces the game
+	 */
+	public void testReplayReproducesGame() {
+		BoardStates.playGame(board);
+		Replay replay = board.getReplay();
+		assertTrue(replay.size() > 40);
+		Board replayed = replay.play();
+		assertEquals(BoardStates.state(board), BoardStates.state(replayed));
+		assertNull(replayed.getReplay());
+	}
+
+	/**
+	 * This method tests that a recording survives its binary form
+	 */
+	public void testWriteRead() throws IOException {
+		BoardStates.playGame(board);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		board.getReplay().write(bytes);
+		Replay read = Replay.read(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(1234L, read.getSeed());
+		assertEquals(board.getReplay().size(), read.size());
+		assertEquals(BoardStates.state(board), BoardStates.state(read.play()));
+	}
+
+	/**
+	 * This method tests that undoing into collapsed checkpoints replays the same,
+	 * as the recording carries the game's history policy
+	 */
+	public void testUndoPastCheckpoints() throws IOException {
+		board = new Board(new CommandManager());
+		board.getCommandManager().setHistoryPolicy(HistoryPolicy.checkpoints(4, 6));
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		board.startRecording(4321L);
+		BoardStates.playGame(board);
+		for (int k = 0; k < 25; k++)
+			board.undo();
+		board.redo();
+		board.redo();
+		assertEquals(4, board.getReplay().getHistoryPolicy().getCheckpointInterval());
+		assertEquals(BoardStates.state(board), BoardStates.state(board.getReplay().play()));
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		board.getReplay().write(bytes);
+		Replay read = Replay.read(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(BoardStates.state(board), BoardStates.state(read.play()));
+	}
+
+	/**
+	 * This method tests that a custom level is recorded with its starting zombies
+	 */
+	public void testCustomLevel() {
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 4; i++) {
+			zombies.add(new GenericZombie());
+			zombies.add(new BurrowingBailey());
+		}
+		zombies.add(new FrankTheTank());
+		level = new Level(zombies);
+		board = new Board(new CommandManager());
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		board.startRecording(99L);
+		BoardStates.playGame(board);
+		assertEquals(BoardStates.state(board), BoardStates.state(board.getReplay().play()));
+	}
+}
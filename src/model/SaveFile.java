@@ -0,0 +1,401 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The binary save format. A save holds a header, the level (number, coins,
+ * cooldowns and the zombies still to come), the spawn source, the grid as a
+ * type id and health per occupied cell and, optionally, the game's replay
+ * compressed as the history section. The board is always restored from the
+ * grid. Loading the history also replays the game to rebuild the undo history,
+ * which is kept only if the replay ends on exactly the saved board.
+ *
+ * Boards saved by the first release with Java serialization can still be loaded
+ * with readLegacy(). Their classes are read as the shapes they had then, kept in
+ * model.legacy, and converted; their undo history is not kept.
+ */
+public class SaveFile {
+	private static final int MAGIC = 0x50565A53; //"PVZS"
+	public static final int VERSION = 1;
+	public static final String EXTENSION = ".pvz";
+	public static final String LEGACY_EXTENSION = ".ser";
+
+	private static final int HAS_HISTORY = 1;
+	private static final int IS_CUSTOM = 2;
+	private static final int IS_SEEDED = 4;
+
+	private SaveFile() {
+	}
+
+	private static int typeId(GridObject obj) {
+		return obj.getEntityType().getId();
+	}
+
+	private static int health(GridObject obj) {
+		if (obj.getEntityType().isPlant())
+			return ((Plant) obj).getHealth();
+		if (obj.getEntityType().isZombie())
+			return ((Zombie) obj).getHealth();
+		return 0;
+	}
+
+	private static GridObject create(int id) throws IOException {
+		if (id <= 0 || id >= EntityType.count())
+			throw new IOException("Unknown type id " + id);
+		return EntityType.byId(id).create();
+	}
+
+	/**
+	 * This method writes a board in the binary save format.
+	 * @param board (Board), the board to save.
+	 * @param out (OutputStream), the stream to write to, it is not closed.
+	 * @param withHistory (boolean), true to add the game's replay, if it has one.
+	 * @throws IOException
+	 */
+	public static void write(Board board, OutputStream out, boolean withHistory) throws IOException {
+		Level level = board.getLevel();
+		Replay replay = withHistory ? board.getReplay() : null;
+		DataOutputStream data = new DataOutputStream(out);
+
+		//Header
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		int flags = (replay != null ? HAS_HISTORY : 0) | (level.isCustomLevel() ? IS_CUSTOM : 0)
+				| (board.isSeeded() ? IS_SEEDED : 0);
+		data.writeByte(flags);
+		data.writeByte(board.getGridState() == null ? -1 : board.getGridState().ordinal());
+
+		//Level
+		data.writeInt(level.getLevelNo());
+		data.writeInt(level.getNumOfZombies());
+		data.writeInt(level.coins);
+		data.writeByte(EntityType.plantTypeCount());
+		for (int type = 0; type < EntityType.plantTypeCount(); type++)
+			data.writeInt(level.getCooldowns().get(type));
+		ZombieWave wave = level.getWave();
+		data.writeByte(EntityType.count());
+		for (int id = 0; id < EntityType.count(); id++)
+			data.writeInt(wave.getCount(EntityType.byId(id)));
+		data.writeInt(level.getWaveNo());
+		data.writeInt(level.getTurns());
+
+		//Spawn source
+		data.writeLong(board.getSeed());
+		data.writeLong(board.getDraws());
+
+		//Grid, in the order of the board's list of objects
+		data.writeInt(board.getHeight());
+		data.writeInt(board.getWidth());
+		ArrayList<GridObject> objects = board.getGridObjects();
+		data.writeInt(objects.size());
+		for (GridObject obj : objects) {
+			data.writeInt(board.cellOf(obj));
+			data.writeByte(typeId(obj));
+			data.writeInt(health(obj));
+		}
+
+		//History
+		if (replay != null) {
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try {
+				DeflaterOutputStream compressed = new DeflaterOutputStream(data, deflater);
+				replay.write(compressed);
+				compressed.finish();
+			} finally {
+				deflater.end();
+			}
+		}
+		data.flush();
+	}
+
+	/**
+	 * This method reads a board written by write().
+	 * @param in (InputStream), the stream to read from, it is not closed.
+	 * @param restoreHistory (boolean), true to rebuild the undo history from the
+	 *        history section if there is one. A history that does not replay to
+	 *        the saved board is dropped, along with the recording.
+	 * @return Board
+	 * @throws IOException if the stream does not hold a save this version can read.
+	 */
+	public static Board read(InputStream in, boolean restoreHistory) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not a save file");
+		int version = data.readShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported save version " + version);
+		int flags = data.readByte();
+		int gridState = data.readByte();
+
+		//Level
+		int levelNo = data.readInt();
+		int numOfZombies = data.readInt();
+		int coins = data.readInt();
+		//Plant types added since the save start with no cooldown
+		int[] cooldowns = new int[EntityType.plantTypeCount()];
+		int savedTypes = data.readByte();
+		if (savedTypes > cooldowns.length)
+			throw new IOException("Save has " + savedTypes + " plant types");
+		for (int type = 0; type < savedTypes; type++)
+			cooldowns[type] = data.readInt();
+		ZombieWave wave = readWave(data);
+		int waveNo = data.readInt();
+		int turns = data.readInt();
+
+		Level level = Level.restore(levelNo, (flags & IS_CUSTOM) != 0, numOfZombies, coins, cooldowns, wave, waveNo);
+		level.setTurns(turns);
+
+		//Spawn source
+		long seed = data.readLong();
+		long draws = data.readLong();
+
+		//Grid
+		int rows = data.readInt();
+		int cols = data.readInt();
+		Board board;
+		try {
+			board = new Board(new CommandManager(), rows, cols);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Bad grid size " + rows + "x" + cols, e);
+		}
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		int count = data.readInt();
+		for (int k = 0; k < count; k++) {
+			int cell = data.readInt();
+			GridObject obj = create(data.readByte());
+			int health = data.readInt();
+			if (cell < 0 || cell >= rows * cols || !board.isEmpty(cell / cols, cell % cols))
+				throw new IOException("Bad cell " + cell);
+			if (obj.getEntityType().isPlant()) {
+				((Plant) obj).setCooldowns(level.getCooldowns());
+				((Plant) obj).setHealth(health);
+			}
+			else
+				((Zombie) obj).setHealth(health);
+			board.put(obj, cell);
+		}
+		if ((flags & IS_SEEDED) != 0)
+			board.setSeed(seed, draws);
+		if (gridState >= 0)
+			board.setGridState(Board.State.values()[gridState]);
+
+		//History
+		if ((flags & HAS_HISTORY) != 0) {
+			Inflater inflater = new Inflater();
+			Replay replay;
+			try {
+				replay = Replay.read(new InflaterInputStream(data, inflater));
+			} finally {
+				inflater.end();
+			}
+			if (restoreHistory) {
+				Board replayed;
+				try {
+					replayed = replay.play();
+				} catch (RuntimeException e) {
+					return board;
+				}
+				if (!sameGame(board, replayed))
+					return board;
+				replayed.resumeRecording(replay);
+				replayed.setGridState(board.getGridState());
+				return replayed;
+			}
+			board.resumeRecording(replay);
+		}
+		return board;
+	}
+
+	/**
+	 * This method checks that two boards hold the same game: the same level, spawn
+	 * source, and plant or zombie with the same health in every cell.
+	 */
+	private static boolean sameGame(Board saved, Board replayed) {
+		Level a = saved.getLevel();
+		Level b = replayed.getLevel();
+		if (saved.getHeight() != replayed.getHeight() || saved.getWidth() != replayed.getWidth()
+				|| a.getLevelNo() != b.getLevelNo() || a.isCustomLevel() != b.isCustomLevel()
+				|| a.getNumOfZombies() != b.getNumOfZombies() || a.coins != b.coins || a.getWaveNo() != b.getWaveNo()
+				|| a.getTurns() != b.getTurns() || !a.getWave().equals(b.getWave())
+				|| saved.isSeeded() != replayed.isSeeded() || saved.getSeed() != replayed.getSeed()
+				|| saved.getDraws() != replayed.getDraws())
+			return false;
+		for (int type = 0; type < EntityType.plantTypeCount(); type++) {
+			if (a.getCooldowns().get(type) != b.getCooldowns().get(type))
+				return false;
+		}
+		for (int i = 0; i < saved.getHeight(); i++) {
+			for (int j = 0; j < saved.getWidth(); j++) {
+				GridObject x = saved.getObject(i, j);
+				GridObject y = replayed.getObject(i, j);
+				if (x.getEntityType() != y.getEntityType() || health(x) != health(y))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method reads the zombies to come as a count per type id.
+	 */
+	private static ZombieWave readWave(DataInputStream data) throws IOException {
+		ZombieWave wave = new ZombieWave();
+		int types = data.readByte();
+		if (types > EntityType.count())
+			throw new IOException("Save has " + types + " entity types");
+		for (int id = 0; id < types; id++) {
+			int count = data.readInt();
+			if (count == 0)
+				continue;
+			if (count < 0 || !EntityType.byId(id).isZombie())
+				throw new IOException("Bad count " + count + " of type id " + id);
+			try {
+				wave.add(EntityType.byId(id), count);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Too many zombies", e);
+			}
+		}
+		return wave;
+	}
+
+	/**
+	 * This method reads a board saved with Java serialization by the first release.
+	 * The level, grid and grid state are restored; the undo history is not.
+	 * @param in (InputStream), the stream to read from, it is not closed.
+	 * @return Board
+	 * @throws IOException if the stream does not hold a serialized board.
+	 */
+	public static Board readLegacy(InputStream in) throws IOException {
+		model.legacy.Board saved;
+		try {
+			ObjectInputStream objects = new LegacyInputStream(in);
+			saved = (model.legacy.Board) objects.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("Not a saved board", e);
+		}
+		model.legacy.GridObject[][] grid = saved.getGrid();
+		model.legacy.Level savedLevel = saved.getLevel();
+		if (grid == null || grid.length == 0 || savedLevel == null)
+			throw new IOException("Not a saved board");
+
+		//Cooldowns were not saved, every plant starts available
+		ZombieWave wave = new ZombieWave();
+		if (savedLevel.getAllZombies() != null) {
+			for (model.legacy.Zombie zombie : savedLevel.getAllZombies())
+				wave.add(legacyType(zombie));
+		}
+		Level level = Level.restore(savedLevel.getLevelNo(), savedLevel.isCustomLevel(), savedLevel.getNumOfZombies(),
+				savedLevel.getCoins(), new int[EntityType.plantTypeCount()], wave, 0);
+
+		int rows = grid.length;
+		int cols = grid[0].length;
+		Board board;
+		try {
+			board = new Board(new CommandManager(), rows, cols);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Bad grid size " + rows + "x" + cols, e);
+		}
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		//Placed in the order of the board's list of objects, as write() does
+		for (model.legacy.GridObject savedObj : saved.getGridObjects()) {
+			int cell = legacyCell(grid, savedObj);
+			GridObject obj = create(legacyType(savedObj).getId());
+			if (cell < 0 || !board.isEmpty(cell / cols, cell % cols))
+				throw new IOException("Bad cell for " + obj.getObjectTitle());
+			if (savedObj instanceof model.legacy.Plant) {
+				((Plant) obj).setCooldowns(level.getCooldowns());
+				((Plant) obj).setHealth(((model.legacy.Plant) savedObj).getHealth());
+			}
+			else
+				((Zombie) obj).setHealth(((model.legacy.Zombie) savedObj).getHealth());
+			board.put(obj, cell);
+		}
+		if (saved.getGridState() != null)
+			board.setGridState(Board.State.valueOf(saved.getGridState().name()));
+		return board;
+	}
+
+	/**
+	 * This method gets the type of an object from a first release save, which is
+	 * the name of its class.
+	 */
+	private static EntityType legacyType(model.legacy.GridObject obj) throws IOException {
+		EntityType type = EntityType.forTitle(obj.getClass().getSimpleName());
+		if (type == null || type.isEmpty())
+			throw new IOException("Unknown object " + obj.getClass().getSimpleName());
+		return type;
+	}
+
+	/**
+	 * This method finds the cell holding an object in a first release save's grid.
+	 * @return row * width + column, or -1 if the object is not on the grid.
+	 */
+	private static int legacyCell(model.legacy.GridObject[][] grid, model.legacy.GridObject obj) {
+		for (int i = 0; i < grid.length; i++) {
+			for (int j = 0; j < grid[i].length; j++) {
+				if (grid[i][j] == obj)
+					return i * grid[i].length + j;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads the first release's model classes as their counterparts in
+	 * model.legacy, which have the same fields and serialVersionUIDs. Only those,
+	 * the collections they used and primitive arrays are accepted.
+	 */
+	private static class LegacyInputStream extends ObjectInputStream {
+		private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+				"maxdepth=20;model.legacy.*;java.util.ArrayList;java.util.Stack;java.util.Vector;java.lang.Enum;"
+						+ "java.lang.Object;java.lang.String;!*");
+
+		LegacyInputStream(InputStream in) throws IOException {
+			super(in);
+			setObjectInputFilter(FILTER);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			String name = desc.getName();
+			//Arrays of model classes are named like "[[Lmodel.GridObject;"
+			String legacy = name.replaceFirst("^(\\[*L)?model\\.", "$1model.legacy.");
+			if (legacy.equals(name))
+				return super.resolveClass(desc);
+			return Class.forName(legacy, false, SaveFile.class.getClassLoader());
+		}
+	}
+
+	/**
+	 * This method reads a board in either format, telling them apart by the header.
+	 * @param in (InputStream), the stream to read from, it is not closed.
+	 * @return Board
+	 * @throws IOException
+	 */
+	public static Board load(InputStream in) throws IOException {
+		BufferedInputStream buffered = new BufferedInputStream(in);
+		buffered.mark(4);
+		int magic = new DataInputStream(buffered).readInt();
+		buffered.reset();
+		if (magic == MAGIC)
+			return read(buffered, true);
+		return readLegacy(buffered);
+	}
+}
@@ -0,0 +1,150 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+public class SaveFileTest extends TestCase {
+	private Board board;
+
+	protected void setUp() {
+		board = new Board(new CommandManager());
+		//Enough zombies that some are still queued after the game
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 20; i++) {
+			zombies.add(new GenericZombie());
+			zombies.add(new FrankTheTank());
+			zombies.add(new BurrowingBailey());
+		}
+		board.setLevel(new Level(zombies));
+		board.setupGrid();
+		board.clear();
+		board.startRecording(77L);
+		BoardStates.playGame(board);
+	}
+
+	private byte[] save(boolean withHistory) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SaveFile.write(board, bytes, withHistory);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * This method tests that a save restores the board and that both games go on
+	 * the same way afterwards
+	 */
+	public void testRoundTrip() throws IOException {
+		Board loaded = SaveFile.read(new ByteArrayInputStream(save(false)), false);
+		assertFalse(loaded.getLevel().zombiesEmpty());
+		assertEquals(board.getLevel().getWave(), loaded.getLevel().getWave());
+		assertEquals(BoardStates.state(board), BoardStates.state(loaded));
+		assertEquals(board.getGridObjects().size(), loaded.getGridObjects().size());
+		assertFalse(loaded.getCommandManager().isUndoAvailable());
+		for (int turn = 0; turn < 5; turn++) {
+			board.startBoardTurn();
+			loaded.startBoardTurn();
+		}
+		assertEquals(BoardStates.state(board), BoardStates.state(loaded));
+	}
+
+	/**
+	 * This method tests that loading the history section rebuilds the undo history
+	 */
+	public void testHistory() throws IOException {
+		Board loaded = SaveFile.read(new ByteArrayInputStream(save(true)), true);
+		assertEquals(BoardStates.state(board), BoardStates.state(loaded));
+		assertNotNull(loaded.getReplay());
+		board.undo();
+		loaded.undo();
+		assertEquals(BoardStates.state(board), BoardStates.state(loaded));
+		assertEquals(board.getReplay().size(), loaded.getReplay().size());
+	}
+
+	/**
+	 * This method tests that the saved grid wins over a history that does not
+	 * replay to it, and that such a history is dropped
+	 */
+	public void testHistoryDiffersFromGrid() throws IOException {
+		board.getLevel().coins += 1000;
+		((Plant) board.getPlantsOnBoard().get(0)).setHealth(7);
+		Board loaded = SaveFile.read(new ByteArrayInputStream(save(true)), true);
+		assertEquals(BoardStates.state(board), BoardStates.state(loaded));
+		assertNull(loaded.getReplay());
+		assertFalse(loaded.getCommandManager().isUndoAvailable());
+	}
+
+	/**
+	 * This method tests that a board saved by the first release still loads. The
+	 * save is level 2 after five placements and four turns.
+	 */
+	public void testLegacy() throws IOException {
+		InputStream in = getClass().getResourceAsStream("legacy-save.ser");
+		assertNotNull(in);
+		Board loaded;
+		try {
+			loaded = SaveFile.load(in);
+		} finally {
+			in.close();
+		}
+		Level level = loaded.getLevel();
+		assertEquals(2, level.getLevelNo());
+		assertFalse(level.isCustomLevel());
+		assertEquals(350, level.coins);
+		assertEquals(1, level.getWave().getCount(EntityType.GENERIC_ZOMBIE));
+		assertEquals(1, level.getWave().getCount(EntityType.FRANK_THE_TANK));
+		assertEquals(Board.State.STATS, loaded.getGridState());
+		assertFalse(loaded.getCommandManager().isUndoAvailable());
+
+		String[] objects = { "SunFlower 0 0 100", "SunFlower 1 0 100", "PeaShooter 2 1 500", "Walnut 3 2 1000",
+				"PeaShooter 4 1 500", "GenericZombie 1 5 250", "FrankTheTank 2 6 100", "GenericZombie 0 7 250",
+				"FrankTheTank 0 8 400" };
+		assertEquals(objects.length, loaded.getGridObjects().size());
+		for (String object : objects) {
+			String[] parts = object.split(" ");
+			GridObject obj = loaded.getObject(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+			assertEquals(parts[0], obj.getObjectTitle());
+			assertEquals(Integer.parseInt(parts[3]), BoardStates.health(obj));
+		}
+
+		//The game goes on from the save
+		loaded.boardTurn();
+		assertEquals(true, level.coins > 350);
+	}
+
+	/**
+	 * This method tests that other data is rejected
+	 */
+	public void testNotASave() {
+		try {
+			SaveFile.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6 }), true);
+			fail();
+		} catch (IOException e) {
+		}
+	}
+
+	/**
+	 * This method tests saving a board larger than the standard one
+	 */
+	public void testLargeBoard() throws IOException {
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 100; i++)
+			zombies.add(new FrankTheTank());
+		board = new Board(new CommandManager(), 12, 40);
+		board.setLevel(new Level(zombies));
+		board.setupGrid();
+		board.clear();
+		board.startRecording(5L);
+		board.getCommandManager().executeCommand(new PlacePlantCommand(board, board.getLevel(), new SunFlower(), 11, 39));
+		for (int turn = 0; turn < 30; turn++)
+			board.startBoardTurn();
+		Board loaded = SaveFile.read(new ByteArrayInputStream(save(true)), true);
+		assertEquals(12, loaded.getHeight());
+		assertEquals(40, loaded.getWidth());
+		assertEquals(BoardStates.state(board), BoardStates.state(loaded));
+		assertTrue(loaded.getObject(11, 39) instanceof SunFlower);
+	}
+}
@@ -11,6 +11,7 @@ public class VenusFlyTrapTest extends TestCase {
 	
 	protected void setUp() {
 		board = new Board();
+		board.setBackend(backend());
 		board.setupGrid();
 		g1 = new GenericZombie();
 		s1 = new SunFlower();
@@ -19,6 +20,13 @@ public class VenusFlyTrapTest extends TestCase {
 		level = new Level(1);
 		board.setLevel(level);
 	}
+
+	/**
+	 * This method gets the backend the tests' boards keep their cells in.
+	 */
+	protected Board.Backend backend() {
+		return Board.Backend.OBJECTS;
+	}
 	
 	/**
 	 * This method test the attack() method.
@@ -20,24 +20,54 @@ public abstract class Zombie extends GridObject implements Serializable {
 		this.objectTitle = objectTitle;
 	}
 	
+	@Override
+	void reset() {
+		super.reset();
+		fullHealth = getEntityType().getFullHealth();
+		strength = getEntityType().getStrength();
+		health = fullHealth;
+	}
+	
 	/**
-	 * This method allows the zombies to move on the board.
+	 * This method allows the zombies to move on the board. A burrowing zombie
+	 * goes under the plant in front of it if the cell past that plant is empty.
 	 */
 	public void go(Board board) {
 		GridObject left = board.toTheLeft(this);
-		if (left instanceof Plant )
+		if (left == null)
+			return;
+		if (getEntityType().isBurrowing() && left.getEntityType().isPlant()) {
+			GridObject ll = board.toTheLeft(left);
+			if (ll != null && ll.getEntityType().isEmpty()) {
+				board.move(this, (NullSpace) ll);
+				return;
+			}
+		}
+		if (left.getEntityType().isPlant())
 			((Plant)left).loseHealth(strength);
-		else if (left instanceof NullSpace)
+		else if (left.getEntityType().isEmpty())
 			board.move(this, (NullSpace)left);		
 	}
 	
+	@Override
+	void keepHealthIn(int[] cells, int cell) {
+		int current = cellHealth == null ? health : cellHealth[cell];
+		cellHealth = cells;
+		if (cells == null)
+			health = current;
+		else
+			cells[cell] = current;
+	}
+	
 	/**
 	 * This method is for when a zombie loses health when being attacked by a plant.
 	 * If the zombie's health is zero it is removed from the board.
 	 * @param plantStrength(int), the plant strength for attacking a zombie.
 	 */
 	public void loseHealth(int plantStrength) {
-		health = health - plantStrength;
+		int before = getHealth();
+		storeHealth(before - plantStrength);
+		healthChanged(before, before - plantStrength);
 	}
 
 	/**
@@ -69,7 +99,17 @@ public abstract class Zombie extends GridObject implements Serializable {
 	 * @return health
 	 */
 	public int getHealth() {
-		return health;
+		return cellHealth == null ? health : cellHealth[cell];
+	}
+	
+	/**
+	 * This method writes the health wherever it is kept.
+	 */
+	private void storeHealth(int health) {
+		if (cellHealth == null)
+			this.health = health;
+		else
+			cellHealth[cell] = health;
 	}
 	
 	/**
@@ -77,7 +117,9 @@ public abstract class Zombie extends GridObject implements Serializable {
 	 * @param health
 	 */
 	public void setHealth(int health) {
-		this.health = health;
+		int before = getHealth();
+		storeHealth(health);
+		healthChanged(before, health);
 	}
 	
 	/**
@@ -97,7 +139,7 @@ public abstract class Zombie extends GridObject implements Serializable {
 	public boolean equals(Zombie zombie) {
 		if (!(zombie.getObjectTitle().equals(getObjectTitle())))
 			return false;
-		if (!(zombie.health == health))
+		if (!(zombie.getHealth() == getHealth()))
 			return false;
 		return true;
 	}
@@ -0,0 +1,171 @@
+package model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The zombies a level has still to spawn, kept as a count per zombie type. A
+ * zombie object is only created when one is spawned, so a wave of a million
+ * zombies costs as little as a wave of one. The zombies are numbered from 0 to
+ * size() - 1 in type id order and take() removes one by its number, so a
+ * uniform draw of the number picks each type with a weight of its count, as
+ * drawing from a list of the zombies would.
+ */
+public class ZombieWave implements Serializable {
+	//Per type id, the number of zombies of the type still to come
+	private final int[] counts = new int[EntityType.count()];
+	private int size;
+
+	/**
+	 * This constructor creates an empty wave.
+	 */
+	public ZombieWave() {
+	}
+
+	/**
+	 * This constructor creates a wave of the types of the given zombies.
+	 * @param zombies (List), the zombies, only their types are kept.
+	 */
+	public ZombieWave(List<? extends Zombie> zombies) {
+		for (int i = 0; i < zombies.size(); i++)
+			add(zombies.get(i).getEntityType());
+	}
+
+	/**
+	 * This method adds a zombie of a type to the wave.
+	 * @param type (EntityType), a zombie type.
+	 */
+	public void add(EntityType type) {
+		add(type, 1);
+	}
+
+	/**
+	 * This method adds a number of zombies of a type to the wave.
+	 * @param type (EntityType), a zombie type.
+	 * @param count (int), the number to add.
+	 * @throws IllegalArgumentException if the type is not a zombie, the count is
+	 *         negative or the wave would hold more than Integer.MAX_VALUE zombies.
+	 */
+	public void add(EntityType type, int count) {
+		if (!type.isZombie())
+			throw new IllegalArgumentException(type.getTitle() + " is not a zombie");
+		if (count < 0 || size + count < 0)
+			throw new IllegalArgumentException("Cannot add " + count + " zombies to a wave of " + size);
+		counts[type.getId()] += count;
+		size += count;
+	}
+
+	/**
+	 * This method removes a zombie of a type from the wave.
+	 * @param type (EntityType), a zombie type the wave has.
+	 */
+	public void remove(EntityType type) {
+		if (counts[type.getId()] == 0)
+			throw new IllegalStateException("No " + type.getTitle() + " left in the wave");
+		counts[type.getId()]--;
+		size--;
+	}
+
+	/**
+	 * This method removes the zombies of another wave from this one.
+	 * @param other (ZombieWave), a wave with no more of any type than this one has.
+	 */
+	public void removeAll(ZombieWave other) {
+		for (int id = 0; id < counts.length; id++) {
+			if (other.counts[id] > counts[id])
+				throw new IllegalStateException("Only " + counts[id] + " " + EntityType.byId(id).getTitle() + " left in the wave");
+		}
+		for (int id = 0; id < counts.length; id++)
+			counts[id] -= other.counts[id];
+		size -= other.size;
+	}
+
+	/**
+	 * This method gets the type of the zombie with the given number. It looks at
+	 * each type once, so it takes the same time however large the wave.
+	 * @param index (int), from 0 to size() - 1.
+	 * @return EntityType
+	 */
+	public EntityType typeAt(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Zombie " + index + " of " + size);
+		int id = 0;
+		while (index >= counts[id]) {
+			index -= counts[id];
+			id++;
+		}
+		return EntityType.byId(id);
+	}
+
+	/**
+	 * This method removes the zombie with the given number from the wave.
+	 * @param index (int), from 0 to size() - 1.
+	 * @return The type of the zombie removed.
+	 */
+	public EntityType take(int index) {
+		EntityType type = typeAt(index);
+		remove(type);
+		return type;
+	}
+
+	/**
+	 * This method gets the number of zombies of a type in the wave.
+	 * @param type (EntityType), the type.
+	 * @return The count.
+	 */
+	public int getCount(EntityType type) {
+		return counts[type.getId()];
+	}
+
+	/**
+	 * This method gets the number of zombies in the wave.
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * This method empties the wave.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		size = 0;
+	}
+
+	/**
+	 * This method copies the wave.
+	 * @return A new wave with the same counts.
+	 */
+	public ZombieWave copy() {
+		ZombieWave copy = new ZombieWave();
+		System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+		copy.size = size;
+		return copy;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ZombieWave && Arrays.equals(counts, ((ZombieWave) obj).counts);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(counts);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int id = 0; id < counts.length; id++) {
+			if (counts[id] > 0)
+				sb.append(sb.length() == 0 ? "" : ", ").append(counts[id]).append(' ').append(EntityType.byId(id).getTitle());
+		}
+		return sb.length() == 0 ? "no zombies" : sb.toString();
+	}
+}
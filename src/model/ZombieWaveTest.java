@@ -0,0 +1,87 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ZombieWaveTest extends TestCase {
+	private ZombieWave wave;
+
+	protected void setUp() {
+		wave = new ZombieWave();
+		wave.add(EntityType.GENERIC_ZOMBIE, 2);
+		wave.add(EntityType.BURROWING_BAILEY, 3);
+	}
+
+	/**
+	 * This method tests that the zombies are numbered in type order and taken by number
+	 */
+	public void testTypeAt() {
+		assertEquals(5, wave.size());
+		assertSame(EntityType.GENERIC_ZOMBIE, wave.typeAt(1));
+		assertSame(EntityType.BURROWING_BAILEY, wave.typeAt(2));
+		assertSame(EntityType.BURROWING_BAILEY, wave.typeAt(4));
+		assertSame(EntityType.GENERIC_ZOMBIE, wave.take(0));
+		assertSame(EntityType.BURROWING_BAILEY, wave.typeAt(1));
+		assertEquals(1, wave.getCount(EntityType.GENERIC_ZOMBIE));
+		assertEquals(4, wave.size());
+		try {
+			wave.typeAt(4);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+		}
+		try {
+			wave.add(EntityType.PEA_SHOOTER);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * This method tests that drawing from a wave picks the types as often as
+	 * drawing from a list of the same zombies does
+	 */
+	public void testDistribution() {
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 300; i++)
+			zombies.add(i % 3 == 0 ? new FrankTheTank() : new GenericZombie());
+		ZombieWave large = new ZombieWave(zombies);
+		assertEquals(100, large.getCount(EntityType.FRANK_THE_TANK));
+		Random random = new Random(3);
+		int franks = 0;
+		int draws = 30000;
+		for (int k = 0; k < draws; k++) {
+			if (large.typeAt(random.nextInt(large.size())) == EntityType.FRANK_THE_TANK)
+				franks++;
+		}
+		assertEquals(draws / 3.0, franks, draws * 0.01);
+	}
+
+	/**
+	 * This method tests that a level of a million zombies only creates the ones
+	 * that spawn, and that undoing a turn puts its zombie back in the wave
+	 */
+	public void testLargeWave() {
+		ZombieWave million = new ZombieWave();
+		million.add(EntityType.GENERIC_ZOMBIE, 600000);
+		million.add(EntityType.FRANK_THE_TANK, 400000);
+		Level level = new Level(million);
+		Board board = new Board(new CommandManager());
+		board.setLevel(level);
+		board.setupGrid();
+		board.setSeed(9);
+		for (int turn = 0; turn < 10; turn++)
+			board.boardTurn();
+		assertEquals(1000000 - 10, level.getWave().size());
+		assertTrue(board.getZombiesOnBoard().size() <= 10);
+
+		ZombieWave before = level.getWave().copy();
+		board.startBoardTurn();
+		assertEquals(before.size() - 1, level.getWave().size());
+		board.undo();
+		assertEquals(before, level.getWave());
+		board.redo();
+		assertEquals(before.size() - 1, level.getWave().size());
+	}
+}
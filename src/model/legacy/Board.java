@@ -0,0 +1,46 @@
+package model.legacy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * A board as saved by the first release, with Java serialization. Only what a
+ * save is loaded from is kept; the other fields in a save, such as the undo
+ * history, are read and dropped.
+ */
+public class Board implements Serializable {
+	private static final long serialVersionUID = 7874376074204599504L;
+
+	public enum State {
+		POSITIONS, STATS, DISABLED;
+	}
+
+	private GridObject[][] grid;
+	private ArrayList<GridObject> gridObjects;
+	private State gridState;
+	private Level level;
+
+	/**
+	 * This method gets the grid, with a NullSpace in each empty cell.
+	 * @return grid, indexed by row then column.
+	 */
+	public GridObject[][] getGrid() {
+		return grid;
+	}
+
+	/**
+	 * This method gets the plants and zombies in the order they were placed.
+	 * @return gridObjects
+	 */
+	public ArrayList<GridObject> getGridObjects() {
+		return gridObjects;
+	}
+
+	public State getGridState() {
+		return gridState;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+}
@@ -0,0 +1,10 @@
+package model.legacy;
+
+import java.io.Serializable;
+
+/**
+ * A board turn in the first release's undo history, which is not loaded.
+ */
+public class BoardTurnCommand implements Serializable {
+	private static final long serialVersionUID = -4391451494302477918L;
+}
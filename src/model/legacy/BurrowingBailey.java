@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * Burrowing Bailey as saved by the first release.
+ */
+public class BurrowingBailey extends Zombie {
+	private static final long serialVersionUID = 8961304070248453250L;
+}
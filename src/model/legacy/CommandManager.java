@@ -0,0 +1,10 @@
+package model.legacy;
+
+import java.io.Serializable;
+
+/**
+ * The undo history as saved by the first release, which is not loaded.
+ */
+public class CommandManager implements Serializable {
+	private static final long serialVersionUID = -5483798606349653749L;
+}
@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * Frank the Tank as saved by the first release.
+ */
+public class FrankTheTank extends Zombie {
+	private static final long serialVersionUID = -1847628718484636621L;
+}
@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * A generic zombie as saved by the first release.
+ */
+public class GenericZombie extends Zombie {
+	private static final long serialVersionUID = -3481009900034506911L;
+}
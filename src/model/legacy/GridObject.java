@@ -0,0 +1,11 @@
+package model.legacy;
+
+import java.io.Serializable;
+
+/**
+ * An object on the grid as saved by the first release. The type of an object
+ * is the name of its class.
+ */
+public abstract class GridObject implements Serializable {
+	private static final long serialVersionUID = 1977181631334084046L;
+}
@@ -0,0 +1,41 @@
+package model.legacy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * A level as saved by the first release. The plant cooldowns were not saved.
+ */
+public class Level implements Serializable {
+	private static final long serialVersionUID = -4197979091434173085L;
+
+	private ArrayList<Zombie> allZombies;
+	private int coins;
+	private int numOfZombies;
+	private int levelNo;
+	private boolean isCustomLevel;
+
+	/**
+	 * This method gets the zombies still to spawn.
+	 * @return allZombies
+	 */
+	public ArrayList<Zombie> getAllZombies() {
+		return allZombies;
+	}
+
+	public int getCoins() {
+		return coins;
+	}
+
+	public int getNumOfZombies() {
+		return numOfZombies;
+	}
+
+	public int getLevelNo() {
+		return levelNo;
+	}
+
+	public boolean isCustomLevel() {
+		return isCustomLevel;
+	}
+}
@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * An empty cell as saved by the first release.
+ */
+public class NullSpace extends GridObject {
+	private static final long serialVersionUID = -9128905495327968789L;
+}
@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * A pea shooter as saved by the first release.
+ */
+public class PeaShooter extends Plant {
+	private static final long serialVersionUID = -1576193293117957799L;
+}
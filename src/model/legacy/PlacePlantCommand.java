@@ -0,0 +1,10 @@
+package model.legacy;
+
+import java.io.Serializable;
+
+/**
+ * A placement in the first release's undo history, which is not loaded.
+ */
+public class PlacePlantCommand implements Serializable {
+	private static final long serialVersionUID = -8252572779248644901L;
+}
@@ -0,0 +1,14 @@
+package model.legacy;
+
+/**
+ * A plant as saved by the first release.
+ */
+public abstract class Plant extends GridObject {
+	private static final long serialVersionUID = 7051743657030217102L;
+
+	private int health;
+
+	public int getHealth() {
+		return health;
+	}
+}
@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * A potato as saved by the first release.
+ */
+public class Potatoe extends Plant {
+	private static final long serialVersionUID = -1115801652510236160L;
+}
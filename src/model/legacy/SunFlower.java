@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * A sunflower as saved by the first release.
+ */
+public class SunFlower extends Plant {
+	private static final long serialVersionUID = -6551468248976411373L;
+}
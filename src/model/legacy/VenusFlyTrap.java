@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * A venus fly trap as saved by the first release.
+ */
+public class VenusFlyTrap extends Plant {
+	private static final long serialVersionUID = -2613082776858782901L;
+}
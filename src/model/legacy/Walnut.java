@@ -0,0 +1,8 @@
+package model.legacy;
+
+/**
+ * A walnut as saved by the first release.
+ */
+public class Walnut extends Plant {
+	private static final long serialVersionUID = 8021355675896010301L;
+}
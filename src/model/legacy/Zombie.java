@@ -0,0 +1,14 @@
+package model.legacy;
+
+/**
+ * A zombie as saved by the first release.
+ */
+public abstract class Zombie extends GridObject {
+	private static final long serialVersionUID = 290316653837023193L;
+
+	private int health;
+
+	public int getHealth() {
+		return health;
+	}
+}
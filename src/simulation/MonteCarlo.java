@@ -0,0 +1,177 @@
+package simulation;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import model.Level;
+
+/**
+ * Estimates the distribution of outcomes of a placement policy by playing many
+ * seeded games in parallel. Every game gets its own level, board and spawn
+ * source derived from the base seed and its index, so results only depend on
+ * the seed and not on how the games are split across threads. The policy is
+ * shared by all games and must keep no state of its own.
+ */
+public class MonteCarlo {
+	private final SimulationRunner runner;
+	private final ForkJoinPool pool;
+
+	/**
+	 * This constructor runs games on the common fork-join pool.
+	 * @param runner (SimulationRunner), the settings each game is played with.
+	 */
+	public MonteCarlo(SimulationRunner runner) {
+		this(runner, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * This constructor runs games on the given pool.
+	 * @param runner (SimulationRunner), the settings each game is played with.
+	 * @param pool (ForkJoinPool), the pool to play on.
+	 */
+	public MonteCarlo(SimulationRunner runner, ForkJoinPool pool) {
+		this.runner = runner;
+		this.pool = pool;
+	}
+
+	/**
+	 * This method plays a number of seeded games and summarizes their outcomes.
+	 * @param levels (Supplier), creates a fresh level for each game, it is called concurrently.
+	 * @param policy (PlacementPolicy), a stateless policy.
+	 * @param games (int), the number of games.
+	 * @param seed (long), the base seed.
+	 * @return The estimate.
+	 */
+	public MonteCarloResult estimate(Supplier<Level> levels, PlacementPolicy policy, int games, long seed) {
+		int threshold = Math.max(1, games / (pool.getParallelism() * 8));
+		Tally tally = pool.invoke(new Games(levels, policy, seed, 0, games, threshold));
+		return new MonteCarloResult(games, tally.wins, tally.losses, tally.lossTurns, tally.lossTurnsSquared,
+				tally.breaches);
+	}
+
+	/**
+	 * This method gets the seed of one game from the base seed and the game's
+	 * index using the SplitMix64 finalizer, so neighbouring games are unrelated.
+	 * @param seed (long), the base seed.
+	 * @param index (int), the game.
+	 * @return The game's seed.
+	 */
+	static long gameSeed(long seed, int index) {
+		long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Counts gathered from a range of games. Each task owns its tally until it is
+	 * merged into its parent's.
+	 */
+	private static class Tally {
+		private int wins;
+		private int losses;
+		private long lossTurns;
+		private long lossTurnsSquared;
+		private final int[] breaches;
+
+		private Tally(int rows) {
+			breaches = new int[rows];
+		}
+
+		private void add(SimulationResult result) {
+			if (result.getOutcome() == Simulation.Outcome.WIN)
+				wins++;
+			else if (result.getOutcome() == Simulation.Outcome.LOSS) {
+				losses++;
+				lossTurns += result.getTurns();
+				lossTurnsSquared += (long) result.getTurns() * result.getTurns();
+				boolean[] breached = result.getBreachedLanes();
+				for (int row = 0; row < breached.length; row++) {
+					if (breached[row])
+						breaches[row]++;
+				}
+			}
+		}
+
+		private Tally merge(Tally other) {
+			wins += other.wins;
+			losses += other.losses;
+			lossTurns += other.lossTurns;
+			lossTurnsSquared += other.lossTurnsSquared;
+			for (int row = 0; row < breaches.length; row++)
+				breaches[row] += other.breaches[row];
+			return this;
+		}
+	}
+
+	/**
+	 * Plays the games with indices [from, to), splitting the range in half until
+	 * it is no larger than the threshold.
+	 */
+	private class Games extends RecursiveTask<Tally> {
+		private final Supplier<Level> levels;
+		private final PlacementPolicy policy;
+		private final long seed;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		private Games(Supplier<Level> levels, PlacementPolicy policy, long seed, int from, int to, int threshold) {
+			this.levels = levels;
+			this.policy = policy;
+			this.seed = seed;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected Tally compute() {
+			if (to - from <= threshold) {
+				Tally tally = new Tally(runner.getHeight());
+				for (int i = from; i < to; i++)
+					tally.add(runner.run(levels.get(), policy, new Random(gameSeed(seed, i))));
+				return tally;
+			}
+			int middle = (from + to) >>> 1;
+			Games left = new Games(levels, policy, seed, from, middle, threshold);
+			left.fork();
+			Tally right = new Games(levels, policy, seed, middle, to, threshold).compute();
+			return left.join().merge(right);
+		}
+	}
+
+	/**
+	 * Estimates the built-in policy on a level and times the run on one thread
+	 * and on every core.
+	 * Usage: MonteCarlo [level] [games] [seed]
+	 */
+	public static void main(String[] args) {
+		final int levelNo = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+		SimulationRunner runner = new SimulationRunner();
+		Supplier<Level> levels = () -> new Level(levelNo);
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		long serialNanos = 0;
+		for (int threads : cores == 1 ? new int[] {1} : new int[] {1, cores}) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			MonteCarlo monteCarlo = new MonteCarlo(runner, pool);
+			//Warm up so the timing reflects compiled code
+			monteCarlo.estimate(levels, SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, Math.min(games, 5000), seed);
+			long start = System.nanoTime();
+			MonteCarloResult result = monteCarlo.estimate(levels, SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, games, seed);
+			long elapsed = System.nanoTime() - start;
+			pool.shutdown();
+			if (threads == 1)
+				serialNanos = elapsed;
+			System.out.println(threads + " thread(s): " + elapsed / 1000000 + " ms, speedup "
+					+ String.format("%.2f", (double) serialNanos / elapsed));
+			if (threads == cores)
+				System.out.println(result);
+		}
+	}
+}
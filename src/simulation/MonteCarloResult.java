@@ -0,0 +1,132 @@
+package simulation;
+
+/**
+ * Summary of a Monte Carlo run with 95% confidence intervals.
+ */
+public class MonteCarloResult {
+	private static final double Z = 1.96;
+
+	private final int games;
+	private final int wins;
+	private final int losses;
+	private final long lossTurns;
+	private final long lossTurnsSquared;
+	private final int[] breaches;
+
+	/**
+	 * This constructor records the counts of a run.
+	 * @param games (int), the number of games played.
+	 * @param wins (int), the games won.
+	 * @param losses (int), the games lost.
+	 * @param lossTurns (long), the sum of turns played in lost games.
+	 * @param lossTurnsSquared (long), the sum of squared turns played in lost games.
+	 * @param breaches (int[]), per row, the lost games in which a zombie got through there.
+	 */
+	public MonteCarloResult(int games, int wins, int losses, long lossTurns, long lossTurnsSquared, int[] breaches) {
+		this.games = games;
+		this.wins = wins;
+		this.losses = losses;
+		this.lossTurns = lossTurns;
+		this.lossTurnsSquared = lossTurnsSquared;
+		this.breaches = breaches;
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public int getWins() {
+		return wins;
+	}
+
+	public int getLosses() {
+		return losses;
+	}
+
+	/**
+	 * This method gets the fraction of games won.
+	 * @return A double between 0 and 1.
+	 */
+	public double getWinProbability() {
+		return games == 0 ? 0 : (double) wins / games;
+	}
+
+	/**
+	 * This method gets the Wilson score interval of the win probability.
+	 * @return {low, high}
+	 */
+	public double[] getWinProbabilityInterval() {
+		return wilson(wins, games);
+	}
+
+	/**
+	 * This method gets the mean number of turns played in lost games.
+	 * @return A double, 0 if no game was lost.
+	 */
+	public double getMeanTurnsToLoss() {
+		return losses == 0 ? 0 : (double) lossTurns / losses;
+	}
+
+	/**
+	 * This method gets the normal approximation interval of the mean turns to loss.
+	 * @return {low, high}
+	 */
+	public double[] getMeanTurnsToLossInterval() {
+		double mean = getMeanTurnsToLoss();
+		if (losses < 2)
+			return new double[] {mean, mean};
+		double variance = (lossTurnsSquared - losses * mean * mean) / (losses - 1);
+		double margin = Z * Math.sqrt(Math.max(variance, 0) / losses);
+		return new double[] {mean - margin, mean + margin};
+	}
+
+	/**
+	 * This method gets, per row, the number of lost games in which a zombie got
+	 * through in that row.
+	 * @return breaches
+	 */
+	public int[] getBreaches() {
+		return breaches;
+	}
+
+	/**
+	 * This method gets the Wilson score interval of the probability that a game
+	 * is lost through the given row.
+	 * @param row (int), the row.
+	 * @return {low, high}
+	 */
+	public double[] getBreachInterval(int row) {
+		return wilson(breaches[row], games);
+	}
+
+	/**
+	 * This method computes a Wilson score interval for a proportion.
+	 * @param successes (int), the count.
+	 * @param trials (int), the sample size.
+	 * @return {low, high}
+	 */
+	static double[] wilson(int successes, int trials) {
+		if (trials == 0)
+			return new double[] {0, 1};
+		double p = (double) successes / trials;
+		double denominator = 1 + Z * Z / trials;
+		double centre = (p + Z * Z / (2 * trials)) / denominator;
+		double margin = Z * Math.sqrt(p * (1 - p) / trials + Z * Z / (4.0 * trials * trials)) / denominator;
+		return new double[] {Math.max(0, centre - margin), Math.min(1, centre + margin)};
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		double[] win = getWinProbabilityInterval();
+		double[] turns = getMeanTurnsToLossInterval();
+		sb.append(String.format("%d games%n", games));
+		sb.append(String.format("  win probability: %.4f [%.4f, %.4f]%n", getWinProbability(), win[0], win[1]));
+		sb.append(String.format("  mean turns to loss: %.2f [%.2f, %.2f]%n", getMeanTurnsToLoss(), turns[0], turns[1]));
+		for (int row = 0; row < breaches.length; row++) {
+			double[] breach = getBreachInterval(row);
+			sb.append(String.format("  lane %d breaches: %d [%.4f, %.4f]%n", row, breaches[row], breach[0], breach[1]));
+		}
+		return sb.toString();
+	}
+}
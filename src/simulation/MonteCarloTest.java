@@ -0,0 +1,58 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import model.Level;
+
+public class MonteCarloTest extends TestCase {
+	
+	/**
+	 * This method tests that the estimate depends only on the seed, not on the
+	 * number of threads the games were spread over.
+	 */
+	public void testSameSeedSameEstimate() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool many = new ForkJoinPool(4);
+		MonteCarloResult a = new MonteCarlo(new SimulationRunner(), single)
+				.estimate(() -> new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, 400, 7);
+		MonteCarloResult b = new MonteCarlo(new SimulationRunner(), many)
+				.estimate(() -> new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, 400, 7);
+		single.shutdown();
+		many.shutdown();
+		assertEquals(a.getWins(), b.getWins());
+		assertEquals(a.getLosses(), b.getLosses());
+		assertEquals(a.getMeanTurnsToLoss(), b.getMeanTurnsToLoss());
+		assertEquals(true, Arrays.equals(a.getBreaches(), b.getBreaches()));
+	}
+	
+	/**
+	 * This method tests that breaches are counted per row of the board the games
+	 * are played on, larger or smaller than the default.
+	 */
+	public void testBreachesPerRowOfBoard() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		for (int[] size : new int[][] {{12, 30}, {3, 9}}) {
+			SimulationRunner runner = new SimulationRunner();
+			runner.setDimensions(size[0], size[1]);
+			MonteCarloResult result = new MonteCarlo(runner, pool)
+					.estimate(() -> new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, 40, 7);
+			assertEquals(size[0], result.getBreaches().length);
+			int breached = 0;
+			for (int count : result.getBreaches())
+				breached += count;
+			assertEquals(true, breached >= result.getLosses());
+		}
+		pool.shutdown();
+	}
+	
+	/**
+	 * This method tests the Wilson interval brackets the observed proportion.
+	 */
+	public void testWilsonInterval() {
+		double[] interval = MonteCarloResult.wilson(30, 100);
+		assertEquals(true, interval[0] < 0.3 && 0.3 < interval[1]);
+		assertEquals(0.0, MonteCarloResult.wilson(0, 100)[0]);
+	}
+}
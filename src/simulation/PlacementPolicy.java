@@ -0,0 +1,13 @@
+package simulation;
+
+/**
+ * Decides what the player plants each turn of a headless game.
+ */
+public interface PlacementPolicy {
+	/**
+	 * This method is called once at the start of every player turn. Plants are
+	 * placed through the game; the runner ends the turn afterwards.
+	 * @param game (Simulation), the game being played.
+	 */
+	public void playTurn(Simulation game);
+}
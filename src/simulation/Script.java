@@ -0,0 +1,57 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A placement policy read from text. Each line is either
+ * "place &lt;PlantTitle&gt; &lt;row&gt; &lt;col&gt;" or "end", which ends the player's turn.
+ * Blank lines and lines starting with '#' are ignored. Once the script runs out
+ * the player only ends turns. A script keeps no state so one instance can be
+ * shared by any number of games.
+ */
+public class Script implements PlacementPolicy {
+	private final List<List<String[]>> turns = new ArrayList<List<String[]>>();
+
+	/**
+	 * This constructor parses a script.
+	 * @param lines (List), the lines of the script.
+	 */
+	public Script(List<String> lines) {
+		List<String[]> turn = new ArrayList<String[]>();
+		int lineNo = 0;
+		for (String line : lines) {
+			lineNo++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+			String[] words = line.split("\\s+");
+			if (words[0].equals("end")) {
+				turns.add(turn);
+				turn = new ArrayList<String[]>();
+			}
+			else if (words[0].equals("place") && words.length == 4) {
+				try {
+					Integer.parseInt(words[2]);
+					Integer.parseInt(words[3]);
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Line " + lineNo + ": row and column must be numbers");
+				}
+				turn.add(words);
+			}
+			else
+				throw new IllegalArgumentException("Line " + lineNo + ": expected \"place <PlantTitle> <row> <col>\" or \"end\"");
+		}
+		if (!turn.isEmpty())
+			turns.add(turn);
+	}
+
+	@Override
+	public void playTurn(Simulation game) {
+		int turn = game.getPlayerTurn();
+		if (turn >= turns.size())
+			return;
+		for (String[] words : turns.get(turn))
+			game.place(words[1], Integer.parseInt(words[2]), Integer.parseInt(words[3]));
+	}
+}
@@ -0,0 +1,236 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import model.Board;
+import model.CommandManager;
+import model.EntityPool;
+import model.GridObjectFactory;
+import model.HistoryPolicy;
+import model.Level;
+import model.PlacePlantCommand;
+import model.Plant;
+import model.Zombie;
+
+/**
+ * One headless game. Mirrors the rules the controller applies after every
+ * turn without touching the view or sounds.
+ */
+public class Simulation {
+	public enum Outcome {
+		RUNNING, WIN, LOSS, TIMEOUT;
+	}
+
+	private Board board;
+	private Level level;
+	private boolean keepHistory;
+	private int turns;
+	private int firstPlayerTurn;
+	private Outcome outcome = Outcome.RUNNING;
+	private ArrayList<Integer> coinCurve = new ArrayList<Integer>();
+	private boolean[] breachedLanes;
+	private EntityPool pool;
+
+	/**
+	 * This constructor sets up a new game on an empty board.
+	 * @param level (Level), a fresh level, it is played and changed by the game.
+	 * @param keepHistory (boolean), true to run every action through the command
+	 * manager so it can be undone, within HistoryPolicy.DEFAULT, false to skip
+	 * the undo snapshots.
+	 */
+	public Simulation(Level level, boolean keepHistory) {
+		this(level, keepHistory, null);
+	}
+
+	/**
+	 * This constructor sets up a new game whose zombie spawns are drawn from the
+	 * given source, so the same seed plays the same game.
+	 * @param level (Level), a fresh level, it is played and changed by the game.
+	 * @param keepHistory (boolean), true to record undo history.
+	 * @param random (Random), the spawn source, or null for the thread's shared generator.
+	 */
+	public Simulation(Level level, boolean keepHistory, Random random) {
+		this(level, keepHistory, random, Board.GRID_HEIGHT, Board.GRID_WIDTH);
+	}
+
+	/**
+	 * This constructor sets up a new game on a board of any size.
+	 * @param level (Level), a fresh level, it is played and changed by the game.
+	 * @param keepHistory (boolean), true to record undo history.
+	 * @param random (Random), the spawn source, or null for the thread's shared generator.
+	 * @param height (int), the number of rows.
+	 * @param width (int), the number of columns.
+	 */
+	public Simulation(Level level, boolean keepHistory, Random random, int height, int width) {
+		this(level, keepHistory, random, height, width, Board.Backend.OBJECTS);
+	}
+
+	/**
+	 * This constructor sets up a new game on a board of any size and backend.
+	 * @param level (Level), a fresh level, it is played and changed by the game.
+	 * @param keepHistory (boolean), true to record undo history.
+	 * @param random (Random), the spawn source, or null for the thread's shared generator.
+	 * @param height (int), the number of rows.
+	 * @param width (int), the number of columns.
+	 * @param backend (Board.Backend), where the board keeps its cells.
+	 */
+	public Simulation(Level level, boolean keepHistory, Random random, int height, int width, Board.Backend backend) {
+		this.level = level;
+		this.keepHistory = keepHistory;
+		board = new Board(new CommandManager(), height, width);
+		board.setBackend(backend);
+		if (keepHistory)
+			board.getCommandManager().setHistoryPolicy(HistoryPolicy.DEFAULT);
+		breachedLanes = new boolean[height];
+		board.setRandom(random);
+		board.setLevel(level);
+		board.setupGrid();
+		board.clear();
+		coinCurve.add(level.coins);
+		//The controller ends the first turn of a custom level as soon as it is confirmed
+		if (level.isCustomLevel())
+			endTurn();
+		firstPlayerTurn = turns;
+	}
+
+	/**
+	 * This method places a plant if the player would be allowed to: the plant is
+	 * off cooldown, affordable, and the cell is empty and not in the spawn column.
+	 * @param plantTitle (String), the plant's object title, e.g. "PeaShooter".
+	 * @param row (int), the row.
+	 * @param col (int), the column.
+	 * @return A boolean, true if the plant was placed.
+	 */
+	public boolean place(String plantTitle, int row, int col) {
+		if (outcome != Outcome.RUNNING)
+			return false;
+		if (row < 0 || row >= board.getHeight() || col < 0 || col >= board.getWidth() - 1)
+			return false;
+		if (!board.isEmpty(row, col))
+			return false;
+		Plant type = null;
+		ArrayList<Plant> plants = level.getAllPlants();
+		for (int k = 0; k < plants.size(); k++) {
+			if (plants.get(k).getObjectTitle().equals(plantTitle))
+				type = plants.get(k);
+		}
+		if (type == null || !type.isAvailable() || type.getPrice() > level.coins)
+			return false;
+
+		//Without history nothing can undo the placement, so it is not journaled
+		Plant plant = GridObjectFactory.createPlant(type.getType(), pool);
+		if (keepHistory)
+			board.getCommandManager().executeCommand(new PlacePlantCommand(board, level, plant, row, col));
+		else
+			board.placePlant(plant, row, col);
+		return true;
+	}
+
+	/**
+	 * This method ends the player's turn, plays the board's turn and then checks
+	 * for a win or a loss the same way the controller does.
+	 */
+	public void endTurn() {
+		if (outcome != Outcome.RUNNING)
+			return;
+		if (keepHistory)
+			board.startBoardTurn();
+		else
+			board.boardTurn();
+		turns++;
+
+		if (level.zombiesEmpty() && board.getZombiesOnBoard().isEmpty())
+			outcome = Outcome.WIN;
+		else if (board.zombiesInFirstColumn()) {
+			outcome = Outcome.LOSS;
+			for (int row = 0; row < board.getHeight(); row++) {
+				ArrayList<Zombie> zombies = board.getZombiesInLane(row);
+				breachedLanes[row] = !zombies.isEmpty() && board.getX(zombies.get(0)) == 0;
+			}
+		}
+
+		//If no plant is affordable the player is gifted coins
+		board.giftCoinsIfStuck();
+		coinCurve.add(level.coins);
+	}
+
+	/**
+	 * This method stops a game that has not finished.
+	 */
+	void timeout() {
+		if (outcome == Outcome.RUNNING)
+			outcome = Outcome.TIMEOUT;
+	}
+
+	/**
+	 * This method checks if the game has finished.
+	 * @return A boolean, true if the game was won, lost or timed out.
+	 */
+	public boolean isOver() {
+		return outcome != Outcome.RUNNING;
+	}
+
+	/**
+	 * This method gets the result of the game so far.
+	 * @return A SimulationResult.
+	 */
+	public SimulationResult getResult() {
+		int[] coins = new int[coinCurve.size()];
+		for (int i = 0; i < coins.length; i++)
+			coins[i] = coinCurve.get(i);
+		return new SimulationResult(outcome, turns, coins, breachedLanes.clone());
+	}
+
+	/**
+	 * This method sets the pool the game draws new plants from and returns dead
+	 * plants and zombies to.
+	 * @param pool (EntityPool), the pool, or null to create every entity.
+	 */
+	public void setPool(EntityPool pool) {
+		this.pool = pool;
+		board.setPool(pool);
+	}
+
+	public EntityPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * This method returns every plant and zombie still on the board to the pool.
+	 * The game must not be used afterwards.
+	 */
+	public void recycle() {
+		if (pool == null)
+			return;
+		for (int row = 0; row < board.getHeight(); row++) {
+			for (int col = 0; col < board.getWidth(); col++)
+				pool.release(board.getObject(row, col));
+		}
+	}
+
+	public Board getBoard() {
+		return board;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public int getTurns() {
+		return turns;
+	}
+
+	/**
+	 * This method gets the number of turns the player has ended, which differs
+	 * from getTurns() on custom levels where the first turn is played for them.
+	 * @return the index of the player's current turn, starting at 0.
+	 */
+	public int getPlayerTurn() {
+		return turns - firstPlayerTurn;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+}
@@ -0,0 +1,59 @@
+package simulation;
+
+import java.util.Arrays;
+
+import simulation.Simulation.Outcome;
+
+/**
+ * The outcome of one headless game.
+ */
+public class SimulationResult {
+	private final Outcome outcome;
+	private final int turns;
+	private final int[] coinCurve;
+	private final boolean[] breachedLanes;
+
+	/**
+	 * This constructor records a finished game.
+	 * @param outcome (Outcome), how the game ended.
+	 * @param turns (int), the number of board turns played.
+	 * @param coinCurve (int[]), the coins at the start and after every turn.
+	 * @param breachedLanes (boolean[]), per row, whether a zombie reached the house there.
+	 */
+	public SimulationResult(Outcome outcome, int turns, int[] coinCurve, boolean[] breachedLanes) {
+		this.outcome = outcome;
+		this.turns = turns;
+		this.coinCurve = coinCurve;
+		this.breachedLanes = breachedLanes;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	public int getTurns() {
+		return turns;
+	}
+
+	/**
+	 * This method gets the coins at the start of the game and after every turn.
+	 * @return coinCurve
+	 */
+	public int[] getCoinCurve() {
+		return coinCurve;
+	}
+
+	/**
+	 * This method gets, per row, whether a zombie reached the first column there.
+	 * Only a lost game has breached lanes.
+	 * @return breachedLanes
+	 */
+	public boolean[] getBreachedLanes() {
+		return breachedLanes;
+	}
+
+	@Override
+	public String toString() {
+		return outcome + " after " + turns + " turns, coins " + Arrays.toString(coinCurve);
+	}
+}
@@ -0,0 +1,224 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import model.Board;
+import model.EntityPool;
+import model.Level;
+
+/**
+ * Plays headless games with a placement policy. No view, controller or sound
+ * is involved so games run as fast as the model allows.
+ */
+public class SimulationRunner {
+	public static final int DEFAULT_MAX_TURNS = 500;
+
+	private int maxTurns = DEFAULT_MAX_TURNS;
+	private boolean keepHistory;
+	private Board.TurnMode turnMode = Board.TurnMode.SERIAL;
+	private Board.Backend backend = Board.Backend.OBJECTS;
+	private int height = Board.GRID_HEIGHT;
+	private int width = Board.GRID_WIDTH;
+	private boolean pooled;
+	//Games on one thread run one after another, so each thread can keep a pool
+	private final ThreadLocal<EntityPool> pools = ThreadLocal.withInitial(EntityPool::new);
+
+	/**
+	 * This method plays one game to the end.
+	 * @param level (Level), a fresh level for this game only.
+	 * @param policy (PlacementPolicy), what the player plants each turn.
+	 * @return The result of the game.
+	 */
+	public SimulationResult run(Level level, PlacementPolicy policy) {
+		return run(level, policy, null);
+	}
+
+	/**
+	 * This method plays one game to the end with its own spawn source.
+	 * @param level (Level), a fresh level for this game only.
+	 * @param policy (PlacementPolicy), what the player plants each turn.
+	 * @param random (Random), the spawn source, or null for the thread's shared generator.
+	 * @return The result of the game.
+	 */
+	public SimulationResult run(Level level, PlacementPolicy policy, Random random) {
+		Simulation game = new Simulation(level, keepHistory, random, height, width, backend);
+		game.getBoard().setTurnMode(turnMode);
+		game.setPool(getPool());
+		while (!game.isOver()) {
+			if (game.getTurns() >= maxTurns) {
+				game.timeout();
+				break;
+			}
+			policy.playTurn(game);
+			game.endTurn();
+		}
+		SimulationResult result = game.getResult();
+		game.recycle();
+		return result;
+	}
+
+	/**
+	 * This method plays a number of games one after the other.
+	 * @param levels (Supplier), creates a fresh level for each game.
+	 * @param policy (PlacementPolicy), what the player plants each turn.
+	 * @param games (int), the number of games.
+	 * @return The results in the order the games were played.
+	 */
+	public List<SimulationResult> runBatch(Supplier<Level> levels, PlacementPolicy policy, int games) {
+		List<SimulationResult> results = new ArrayList<SimulationResult>(games);
+		for (int i = 0; i < games; i++)
+			results.add(run(levels.get(), policy));
+		return results;
+	}
+
+	public int getMaxTurns() {
+		return maxTurns;
+	}
+
+	/**
+	 * This method sets the number of turns after which a game is stopped as a timeout.
+	 * @param maxTurns
+	 */
+	public void setMaxTurns(int maxTurns) {
+		this.maxTurns = maxTurns;
+	}
+
+	public boolean isKeepHistory() {
+		return keepHistory;
+	}
+
+	/**
+	 * This method sets whether games record undo history like the real game does.
+	 * Off by default since the snapshots dominate the cost of a turn.
+	 * @param keepHistory
+	 */
+	public void setKeepHistory(boolean keepHistory) {
+		this.keepHistory = keepHistory;
+	}
+
+	public Board.TurnMode getTurnMode() {
+		return turnMode;
+	}
+
+	/**
+	 * This method sets how the lanes of each turn are resolved. VERIFY checks
+	 * every parallel turn against a serial one, for regression runs.
+	 * @param turnMode
+	 */
+	public void setTurnMode(Board.TurnMode turnMode) {
+		this.turnMode = turnMode;
+	}
+
+	public Board.Backend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * This method sets where the boards of games keep their cells. COMPACT keeps
+	 * them in flat arrays, for large boards.
+	 * @param backend
+	 */
+	public void setBackend(Board.Backend backend) {
+		this.backend = backend;
+	}
+
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	/**
+	 * This method sets whether games reuse plants and zombies from earlier games
+	 * on the same thread instead of creating them. Dead entities are only reused
+	 * when no undo history is kept.
+	 * @param pooled
+	 */
+	public void setPooled(boolean pooled) {
+		this.pooled = pooled;
+	}
+
+	/**
+	 * This method gets the pool games on the calling thread use.
+	 * @return The thread's pool, or null if games are not pooled.
+	 */
+	public EntityPool getPool() {
+		return pooled ? pools.get() : null;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * This method sets the size of the boards games are played on.
+	 * @param height (int), the number of rows.
+	 * @param width (int), the number of columns.
+	 */
+	public void setDimensions(int height, int width) {
+		this.height = height;
+		this.width = width;
+	}
+
+	/**
+	 * This policy plants sunflowers down the first column and then fills the
+	 * second column with pea shooters, whenever it can afford to.
+	 */
+	public static final PlacementPolicy SUNFLOWERS_THEN_PEASHOOTERS = game -> {
+		int height = game.getBoard().getHeight();
+		for (int row = 0; row < height; row++) {
+			if (game.place("SunFlower", row, 0))
+				return;
+		}
+		for (int row = 0; row < height; row++) {
+			if (game.place("PeaShooter", row, 1))
+				return;
+		}
+	};
+
+	/**
+	 * Runs a batch and prints the outcomes and throughput.
+	 * Usage: SimulationRunner [level, 4 for endless] [games] [script file] [SERIAL | PARALLEL | VERIFY] [OBJECTS | COMPACT]
+	 */
+	public static void main(String[] args) throws IOException {
+		final int levelNo = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		PlacementPolicy policy = SUNFLOWERS_THEN_PEASHOOTERS;
+		if (args.length > 2 && !args[2].equals("-"))
+			policy = new Script(Files.readAllLines(Paths.get(args[2])));
+
+		SimulationRunner runner = new SimulationRunner();
+		if (args.length > 3)
+			runner.setTurnMode(Board.TurnMode.valueOf(args[3]));
+		if (args.length > 4)
+			runner.setBackend(Board.Backend.valueOf(args[4]));
+		//Warm up so the timing reflects compiled code
+		runner.runBatch(() -> new Level(levelNo), policy, Math.min(games, 1000));
+
+		long start = System.nanoTime();
+		List<SimulationResult> results = runner.runBatch(() -> new Level(levelNo), policy, games);
+		long elapsed = System.nanoTime() - start;
+
+		int[] outcomes = new int[Simulation.Outcome.values().length];
+		long turns = 0;
+		for (SimulationResult result : results) {
+			outcomes[result.getOutcome().ordinal()]++;
+			turns += result.getTurns();
+		}
+		System.out.println("Level " + levelNo + ", " + games + " games in " + elapsed / 1000000 + " ms ("
+				+ (long) (games / (elapsed / 1e9)) + " games/s)");
+		for (Simulation.Outcome outcome : Simulation.Outcome.values()) {
+			if (outcomes[outcome.ordinal()] > 0)
+				System.out.println("  " + outcome + ": " + outcomes[outcome.ordinal()]);
+		}
+		System.out.println("  mean turns: " + (double) turns / games);
+	}
+}
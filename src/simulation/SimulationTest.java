@@ -0,0 +1,223 @@
+package simulation;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.sun.management.ThreadMXBean;
+
+import junit.framework.TestCase;
+import model.Board;
+import model.EntityPool;
+import model.GenericZombie;
+import model.GridObject;
+import model.HistoryPolicy;
+import model.Level;
+import model.PeaShooter;
+import model.Zombie;
+
+public class SimulationTest extends TestCase {
+	private SimulationRunner runner;
+	
+	protected void setUp() {
+		runner = new SimulationRunner();
+	}
+	
+	/**
+	 * This method tests that a level with no zombies is won after one turn.
+	 */
+	public void testWinWithoutZombies() {
+		Level level = new Level(1);
+		level.setAllZombies(new ArrayList<Zombie>());
+		SimulationResult result = runner.run(level, game -> {});
+		assertEquals(Simulation.Outcome.WIN, result.getOutcome());
+		assertEquals(1, result.getTurns());
+	}
+	
+	/**
+	 * This method tests that an undefended lawn is lost.
+	 */
+	public void testLossWithoutPlants() {
+		SimulationResult result = runner.run(new Level(1), game -> {});
+		assertEquals(Simulation.Outcome.LOSS, result.getOutcome());
+		assertEquals(result.getTurns() + 1, result.getCoinCurve().length);
+	}
+	
+	/**
+	 * This method tests that a game is stopped after the maximum number of turns.
+	 */
+	public void testTimeout() {
+		runner.setMaxTurns(0);
+		SimulationResult result = runner.run(new Level(1), game -> {});
+		assertEquals(Simulation.Outcome.TIMEOUT, result.getOutcome());
+	}
+	
+	/**
+	 * This method tests that a script places plants on the right turns and that
+	 * the placements are charged.
+	 */
+	public void testScript() {
+		Script script = new Script(Arrays.asList("# opening", "place SunFlower 0 0", "end", "place SunFlower 1 0", "end"));
+		Simulation game = new Simulation(new Level(1), false);
+		script.playTurn(game);
+		assertEquals("SunFlower", game.getBoard().getObject(0, 0).getObjectTitle());
+		assertEquals(0, game.getLevel().coins);
+		game.endTurn();
+		script.playTurn(game);
+		assertEquals(true, game.getBoard().isEmpty(1, 0));
+		game.endTurn();
+		script.playTurn(game);
+		assertEquals(true, game.getBoard().isEmpty(1, 0));
+	}
+	
+	/**
+	 * This method tests that placements the player could not make are refused.
+	 */
+	public void testPlaceRejected() {
+		Simulation game = new Simulation(new Level(1), false);
+		assertEquals(false, game.place("PeaShooter", 0, 0));
+		assertEquals(false, game.place("SunFlower", 0, 8));
+		assertEquals(true, game.place("SunFlower", 0, 0));
+		assertEquals(false, game.place("Potatoe", 0, 0));
+	}
+	
+	/**
+	 * This method tests that a custom level plays its first turn up front like
+	 * the level editor does.
+	 */
+	public void testCustomLevelStartsWithATurn() {
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		zombies.add(new GenericZombie());
+		Simulation game = new Simulation(new Level(zombies), false);
+		assertEquals(1, game.getTurns());
+		assertEquals(0, game.getPlayerTurn());
+	}
+	
+	/**
+	 * This method tests that keeping history makes placements undoable.
+	 */
+	public void testKeepHistory() {
+		Simulation game = new Simulation(new Level(1), true);
+		game.getLevel().coins = new PeaShooter().getPrice();
+		game.place("PeaShooter", 2, 2);
+		game.getBoard().getCommandManager().undo();
+		assertEquals(true, game.getBoard().isEmpty(2, 2));
+		assertSame(HistoryPolicy.DEFAULT, game.getBoard().getCommandManager().getHistoryPolicy());
+	}
+	
+	/**
+	 * This method tests that a batch plays every game.
+	 */
+	public void testBatch() {
+		List<SimulationResult> results = runner.runBatch(() -> new Level(2), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, 50);
+		assertEquals(50, results.size());
+		for (SimulationResult result : results)
+			assertEquals(true, result.getOutcome() != Simulation.Outcome.RUNNING);
+	}
+
+	/**
+	 * This method tests that games reusing pooled entities play the same as games
+	 * creating them, and that later games are served from the pool.
+	 */
+	public void testPooledGamesMatch() {
+		SimulationRunner pooled = new SimulationRunner();
+		pooled.setPooled(true);
+		for (long seed = 1; seed <= 20; seed++) {
+			SimulationResult expected = runner.run(new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, new Random(seed));
+			SimulationResult actual = pooled.run(new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, new Random(seed));
+			assertEquals(expected.getOutcome(), actual.getOutcome());
+			assertEquals(expected.getTurns(), actual.getTurns());
+			assertTrue(Arrays.equals(expected.getCoinCurve(), actual.getCoinCurve()));
+			assertTrue(Arrays.equals(expected.getBreachedLanes(), actual.getBreachedLanes()));
+		}
+		assertNull(runner.getPool());
+		assertTrue(pooled.getPool().getHitRate() > 0.9);
+	}
+
+	/**
+	 * This method tests that games on the compact backend play the same as games
+	 * on the object backend.
+	 */
+	public void testCompactGamesMatch() {
+		SimulationRunner compact = new SimulationRunner();
+		compact.setBackend(Board.Backend.COMPACT);
+		compact.setPooled(true);
+		for (long seed = 1; seed <= 20; seed++) {
+			SimulationResult expected = runner.run(new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, new Random(seed));
+			SimulationResult actual = compact.run(new Level(3), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, new Random(seed));
+			assertEquals(expected.getOutcome(), actual.getOutcome());
+			assertEquals(expected.getTurns(), actual.getTurns());
+			assertTrue(Arrays.equals(expected.getCoinCurve(), actual.getCoinCurve()));
+			assertTrue(Arrays.equals(expected.getBreachedLanes(), actual.getBreachedLanes()));
+		}
+	}
+
+	/**
+	 * This method tests that placing plants between turns of a game without history
+	 * allocates nothing once the game is in a steady state, and that emptied cells
+	 * reuse the board's empty cells rather than new ones.
+	 */
+	public void testPlacingWithoutHistoryAllocatesNothing() {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported())
+			return;
+		threads.setThreadAllocatedMemoryEnabled(true);
+		ArrayList<Zombie> zombies = new ArrayList<Zombie>();
+		for (int i = 0; i < 4000; i++)
+			zombies.add(new GenericZombie());
+		Simulation game = new Simulation(new Level(zombies), false, new Random(5));
+		game.setPool(new EntityPool());
+		Board board = game.getBoard();
+		Set<GridObject> emptyCells = Collections.newSetFromMap(new IdentityHashMap<GridObject, Boolean>());
+		for (int row = 0; row < board.getHeight(); row++) {
+			for (int col = 0; col < board.getWidth(); col++)
+				emptyCells.add(board.getObject(row, col));
+		}
+		for (int turn = 0; turn < 1000; turn++)
+			playTurn(game);
+
+		int turns = 1000;
+		int placed = 0;
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int turn = 0; turn < turns; turn++)
+			placed += playTurn(game);
+		long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		assertTrue(placed > 0);
+		assertTrue(allocated + " bytes allocated in " + turns + " turns", allocated < turns);
+		for (int row = 0; row < board.getHeight(); row++) {
+			for (int col = 0; col < board.getWidth(); col++) {
+				if (board.isEmpty(row, col))
+					assertTrue(emptyCells.contains(board.getObject(row, col)));
+			}
+		}
+	}
+
+	/**
+	 * This method replaces the potatoes that blew up and plays the board's turn.
+	 * @return The number of potatoes placed.
+	 */
+	private static int playTurn(Simulation game) {
+		int placed = 0;
+		game.getLevel().coins = 1000;
+		for (int row = 0; row < game.getBoard().getHeight(); row++) {
+			if (game.place("Potatoe", row, 3))
+				placed++;
+		}
+		game.getBoard().boardTurn();
+		return placed;
+	}
+
+	/**
+	 * This method tests that an endless game is never won.
+	 */
+	public void testEndlessNeverWon() {
+		runner.setMaxTurns(300);
+		SimulationResult result = runner.run(new Level(Level.ENDLESS), SimulationRunner.SUNFLOWERS_THEN_PEASHOOTERS, new Random(4));
+		assertTrue(result.getOutcome() == Simulation.Outcome.LOSS || result.getOutcome() == Simulation.Outcome.TIMEOUT);
+	}
+}
@@ -0,0 +1,197 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the game's images and sounds in the background on a small, fixed pool of
+ * worker threads, so the window can be shown before everything is decoded.
+ * What the start screen shows is loaded first, then the plants for the cards,
+ * the zombies and the sounds. Each entity frame is decoded once and drawn into
+ * the atlas of every size the game uses; getting a frame that is not drawn yet
+ * draws it ahead of the queue, so callers need not wait for the preload.
+ */
+public class AssetPreloader {
+
+    // Entities the start screen animates, loaded before anything else
+    private static final String[] START_SCREEN_ENTITIES = {"SunFlower", "GenericZombie"};
+
+    private final int workers;
+    private final int imageCount;
+    private final int soundCount;
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger imagesLoaded = new AtomicInteger();
+    private final AtomicInteger soundsLoaded = new AtomicInteger();
+    // Time the workers spent on each kind of asset, in nanoseconds
+    private final AtomicLong imageNanos = new AtomicLong();
+    private final AtomicLong soundNanos = new AtomicLong();
+
+    private final CompletableFuture<Void> startScreenReady;
+    private final CompletableFuture<AssetPreloader> completion;
+
+    // Milliseconds since the JVM started, -1 until reached
+    private final long startTime;
+    private volatile long startScreenTime = -1;
+    private volatile long firstFrameTime = -1;
+    private volatile long completionTime = -1;
+
+    private AssetPreloader(int workers) {
+        this.workers = workers;
+        this.startTime = uptime();
+
+        // Frames are drawn only into the atlases not already built
+        SpriteAtlas[] targets = ResourceLoader.addAtlases(ResourceLoader.PRELOAD_SIZES);
+        List<String> names = Arrays.asList(ResourceLoader.ENTITY_NAMES);
+        List<Integer> entities = new ArrayList<>();
+        for (String name : START_SCREEN_ENTITIES) {
+            entities.add(names.indexOf(name));
+        }
+        for (int i = 0; i < names.size(); i++) {
+            if (!entities.contains(i)) {
+                entities.add(i);
+            }
+        }
+        imageCount = targets.length == 0 ? 0 : entities.size() * ResourceLoader.ANIMATION_FRAMES;
+        soundCount = SoundManager.SOUNDS.length;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "asset-preloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The pool takes tasks in order, so this is the order of priority
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int k = 0; k < imageCount; k++) {
+            int entity = entities.get(k / ResourceLoader.ANIMATION_FRAMES);
+            int frame = k % ResourceLoader.ANIMATION_FRAMES;
+            tasks.add(CompletableFuture.runAsync(() -> loadImage(targets, entity, frame), pool));
+        }
+        for (String sound : SoundManager.SOUNDS) {
+            tasks.add(CompletableFuture.runAsync(() -> loadSound(sound), pool));
+        }
+        pool.shutdown();
+
+        int startScreenTasks = Math.min(imageCount, START_SCREEN_ENTITIES.length * ResourceLoader.ANIMATION_FRAMES);
+        startScreenReady = CompletableFuture.allOf(tasks.subList(0, startScreenTasks).toArray(new CompletableFuture<?>[0]))
+            .thenRun(() -> startScreenTime = uptime());
+        completion = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> {
+                completionTime = uptime();
+                return this;
+            });
+    }
+
+    /**
+     * Start preloading every image and sound, with a worker per processor, at least
+     * two and at most four.
+     *
+     * @return The preloader, to follow its progress
+     */
+    public static AssetPreloader start() {
+        return start(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Start preloading every image and sound.
+     *
+     * @param workers Number of worker threads
+     * @return The preloader, to follow its progress
+     */
+    public static AssetPreloader start(int workers) {
+        return new AssetPreloader(workers);
+    }
+
+    private void loadImage(SpriteAtlas[] targets, int entity, int frame) {
+        long start = System.nanoTime();
+        try {
+            if (ResourceLoader.drawEntityFrame(targets, entity, frame)) {
+                imagesLoaded.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to preload image: " + ResourceLoader.ENTITY_NAMES[entity] + " - " + e.getMessage());
+        } finally {
+            imageNanos.addAndGet(System.nanoTime() - start);
+            done.incrementAndGet();
+        }
+    }
+
+    private void loadSound(String sound) {
+        long start = System.nanoTime();
+        try {
+            if (SoundManager.preloadSound(sound)) {
+                soundsLoaded.incrementAndGet();
+            }
+        } finally {
+            soundNanos.addAndGet(System.nanoTime() - start);
+            done.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the future completed once the start screen's frames are loaded.
+     */
+    public CompletableFuture<Void> getStartScreenReady() {
+        return startScreenReady;
+    }
+
+    /**
+     * Get the future completed once every asset is loaded or has failed to.
+     */
+    public CompletableFuture<AssetPreloader> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Get how much of the preload is done.
+     *
+     * @return From 0.0 (nothing) to 1.0 (everything)
+     */
+    public double getProgress() {
+        int total = imageCount + soundCount;
+        return total == 0 ? 1.0 : (double) done.get() / total;
+    }
+
+    /**
+     * Record that the first frame has been painted, for the report. Only the
+     * first call counts.
+     */
+    public void markFirstFrame() {
+        if (firstFrameTime < 0) {
+            firstFrameTime = uptime();
+        }
+    }
+
+    /**
+     * Get the startup timing report: when the preload started, when the start
+     * screen's assets were ready, when the first frame was painted and when every
+     * asset was loaded, in milliseconds since the JVM started.
+     */
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Startup timing (ms since JVM start, ").append(workers).append(" workers)\n");
+        sb.append(line("preload started", startTime));
+        sb.append(line("start screen assets", startScreenTime));
+        sb.append(line("first frame", firstFrameTime));
+        sb.append(line("all assets", completionTime));
+        sb.append(String.format("  %-20s %d/%d images, %d/%d sounds%n", "loaded",
+            imagesLoaded.get(), imageCount, soundsLoaded.get(), soundCount));
+        sb.append(String.format("  %-20s images %d ms, sounds %d ms%n", "worker time",
+            imageNanos.get() / 1_000_000, soundNanos.get() / 1_000_000));
+        return sb.toString();
+    }
+
+    private static String line(String label, long time) {
+        return String.format("  %-20s %s%n", label, time < 0 ? "-" : Long.toString(time));
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
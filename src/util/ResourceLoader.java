@@ -1,19 +1,82 @@
 package util;
 
+import model.EntityType;
+
+import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
-import java.awt.Image;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * JAR-compatible resource loader with caching.
  * Uses ClassLoader to load resources that work both in IDE and packaged JAR.
+ * Entity frames are served from sprite atlases, one per frame size, built by
+ * decoding each frame image once and scaling it into every atlas. The caches are
+ * safe to use from several threads, so AssetPreloader can fill them in the
+ * background.
  */
 public class ResourceLoader {
 
+    // Entities with sprites, every plant and zombie of the registry, each has a
+    // static frame and ANIMATION_FRAMES - 1 animated ones
+    public static final String[] ENTITY_NAMES = entityNames();
+    public static final int ANIMATION_FRAMES = 4;
+
+    // Row of each entity in the atlases, by name
+    private static final Map<String, Integer> ENTITY_INDEX = new HashMap<>();
+    // Every frame file, by name, to its entity's row * ANIMATION_FRAMES + its frame
+    private static final Map<String, Integer> FRAME_FILES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < ENTITY_NAMES.length; i++) {
+            ENTITY_INDEX.put(ENTITY_NAMES[i], i);
+            for (int frame = 0; frame < ANIMATION_FRAMES; frame++) {
+                FRAME_FILES.put(frameFile(ENTITY_NAMES[i], frame), i * ANIMATION_FRAMES + frame);
+            }
+        }
+    }
+
+    // Frame sizes the game uses: the grid, the plant cards and the start screen
+    static final int[][] PRELOAD_SIZES = {{80, 60}, {50, 50}, {80, 80}};
+
     // Cache for loaded and scaled images
-    private static final Map<String, ImageIcon> imageCache = new HashMap<>();
+    private static final Map<String, ImageIcon> imageCache = new ConcurrentHashMap<>();
+
+    // Atlases by frame size, "width x height", added before their frames are drawn
+    private static final Map<String, SpriteAtlas> atlases = new ConcurrentHashMap<>();
+
+    // Draws the frames asked for on the event dispatch thread, in the order asked
+    private static final ExecutorService frameDrawer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "frame-drawer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Get the titles of every entity type drawn on the board, in id order.
+     */
+    private static String[] entityNames() {
+        List<String> names = new ArrayList<>();
+        for (int id = 0; id < EntityType.count(); id++) {
+            EntityType type = EntityType.byId(id);
+            if (!type.isEmpty()) {
+                names.add(type.getTitle());
+            }
+        }
+        return names.toArray(new String[0]);
+    }
 
     /**
      * Load an image icon from resources folder.
@@ -24,27 +87,17 @@ public class ResourceLoader {
      */
     public static ImageIcon loadIcon(String filename) {
         String key = filename;
-        if (imageCache.containsKey(key)) {
-            return imageCache.get(key);
+        ImageIcon cached = imageCache.get(key);
+        if (cached != null) {
+            return cached;
         }
 
         try {
-            URL url = ResourceLoader.class.getResource("/resources/" + filename);
-            if (url == null) {
-                // Fallback: try without leading slash
-                url = ResourceLoader.class.getClassLoader().getResource("resources/" + filename);
-            }
-            if (url == null) {
-                // Fallback: try relative path (for IDE)
-                java.io.File file = new java.io.File("resources/" + filename);
-                if (file.exists()) {
-                    url = file.toURI().toURL();
-                }
-            }
+            URL url = getResourceURL(filename);
             if (url != null) {
                 ImageIcon icon = new ImageIcon(url);
-                imageCache.put(key, icon);
-                return icon;
+                cached = imageCache.putIfAbsent(key, icon);
+                return cached != null ? cached : icon;
             }
         } catch (Exception e) {
             System.err.println("Failed to load image: " + filename + " - " + e.getMessage());
@@ -53,7 +106,26 @@ public class ResourceLoader {
     }
 
     /**
-     * Load and scale an image icon.
+     * Decode an image from resources folder.
+     *
+     * @param filename Name of the file
+     * @return The decoded image, or null if not found or unreadable
+     */
+    public static BufferedImage readImage(String filename) {
+        URL url = getResourceURL(filename);
+        if (url == null) {
+            return null;
+        }
+        try {
+            return ImageIO.read(url);
+        } catch (IOException e) {
+            System.err.println("Failed to load image: " + filename + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Load and scale an image icon. Entity frames come from the atlas of the size.
      *
      * @param filename Name of the file
      * @param width    Desired width
@@ -61,21 +133,37 @@ public class ResourceLoader {
      * @return Scaled ImageIcon or null if not found
      */
     public static ImageIcon loadScaledIcon(String filename, int width, int height) {
+        Integer frame = FRAME_FILES.get(filename);
+        if (frame != null) {
+            return getAtlas(width, height).getFrame(frame / ANIMATION_FRAMES, frame % ANIMATION_FRAMES);
+        }
+
         String key = filename + "_" + width + "x" + height;
-        if (imageCache.containsKey(key)) {
-            return imageCache.get(key);
+        ImageIcon cached = imageCache.get(key);
+        if (cached != null) {
+            return cached;
         }
 
-        ImageIcon original = loadIcon(filename);
+        BufferedImage original = readImage(filename);
         if (original != null) {
-            Image scaled = original.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
+            BufferedImage scaled = createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            Graphics2D g = scaled.createGraphics();
+            drawScaled(g, original, 0, 0, width, height);
+            g.dispose();
             ImageIcon scaledIcon = new ImageIcon(scaled);
-            imageCache.put(key, scaledIcon);
-            return scaledIcon;
+            cached = imageCache.putIfAbsent(key, scaledIcon);
+            return cached != null ? cached : scaledIcon;
         }
         return null;
     }
 
+    /**
+     * Get the file holding a frame of an entity.
+     */
+    static String frameFile(String entityName, int frameIndex) {
+        return frameIndex == 0 ? entityName + ".png" : entityName + "Animated" + frameIndex + ".png";
+    }
+
     /**
      * Load entity image (plant or zombie) at grid size.
      *
@@ -106,42 +194,209 @@ public class ResourceLoader {
      * @return Scaled ImageIcon for animation frame
      */
     public static ImageIcon loadAnimationFrame(String entityName, int frameIndex, int width, int height) {
-        String filename;
-        if (frameIndex == 0) {
-            filename = entityName + ".png";
-        } else {
-            filename = entityName + "Animated" + frameIndex + ".png";
+        Integer entity = ENTITY_INDEX.get(entityName);
+        if (entity == null) {
+            return loadScaledIcon(frameFile(entityName, frameIndex), width, height);
+        }
+        return getAtlas(width, height).getFrame(entity, frameIndex);
+    }
+
+    /**
+     * Get the atlas of every entity frame at a size, adding an empty one if
+     * needed. Its frames are drawn as they are first asked for; until one is
+     * drawn, getting it returns a blank placeholder.
+     *
+     * @param width  Width of a frame
+     * @param height Height of a frame
+     * @return The atlas
+     */
+    public static SpriteAtlas getAtlas(int width, int height) {
+        SpriteAtlas atlas = atlases.get(width + "x" + height);
+        if (atlas == null) {
+            addAtlases(new int[][] {{width, height}});
+            atlas = atlases.get(width + "x" + height);
+        }
+        return atlas;
+    }
+
+    /**
+     * Build the atlases of several sizes in one pass: each frame image is decoded
+     * once, scaled into every atlas and dropped, so only one full size image is
+     * held at a time.
+     *
+     * @param sizes Frame sizes, {width, height} each
+     */
+    private static void buildAtlases(int[][] sizes) {
+        SpriteAtlas[] built = new SpriteAtlas[sizes.length];
+        for (int k = 0; k < sizes.length; k++) {
+            built[k] = getAtlas(sizes[k][0], sizes[k][1]);
+        }
+        for (int i = 0; i < ENTITY_NAMES.length; i++) {
+            for (int frame = 0; frame < ANIMATION_FRAMES; frame++) {
+                drawEntityFrame(built, i, frame);
+            }
+        }
+    }
+
+    /**
+     * Add empty atlases for the sizes that have none yet.
+     *
+     * @param sizes Frame sizes, {width, height} each
+     * @return The added atlases, whose frames the caller draws unless they are
+     *         asked for first
+     */
+    static synchronized SpriteAtlas[] addAtlases(int[][] sizes) {
+        List<SpriteAtlas> added = new ArrayList<>();
+        for (int[] size : sizes) {
+            String key = size[0] + "x" + size[1];
+            if (!atlases.containsKey(key)) {
+                SpriteAtlas atlas = new SpriteAtlas(ENTITY_NAMES, ANIMATION_FRAMES, size[0], size[1]);
+                atlases.put(key, atlas);
+                added.add(atlas);
+            }
+        }
+        return added.toArray(new SpriteAtlas[0]);
+    }
+
+    /**
+     * Decode a frame of an entity and scale it into the atlases where no other
+     * thread has claimed it. A frame that fails to load is left empty, so nothing
+     * waits for it forever.
+     *
+     * @param targets    Atlases to draw into
+     * @param entity     Index of the entity in ENTITY_NAMES
+     * @param frameIndex Frame index
+     * @return Whether the frame image was loaded, true if other threads claimed
+     *         it in every atlas
+     */
+    static boolean drawEntityFrame(SpriteAtlas[] targets, int entity, int frameIndex) {
+        List<SpriteAtlas> claimed = new ArrayList<>();
+        for (SpriteAtlas atlas : targets) {
+            if (atlas.claim(entity, frameIndex)) {
+                claimed.add(atlas);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return true;
+        }
+        BufferedImage source = null;
+        try {
+            source = readImage(frameFile(ENTITY_NAMES[entity], frameIndex));
+            if (source != null) {
+                for (SpriteAtlas atlas : claimed) {
+                    atlas.drawFrame(entity, frameIndex, source);
+                }
+            }
+        } finally {
+            // Completes only the frames not drawn above
+            for (SpriteAtlas atlas : claimed) {
+                atlas.skipFrame(entity, frameIndex);
+            }
         }
-        return loadScaledIcon(filename, width, height);
+        return source != null;
     }
 
     /**
-     * Preload all images for an entity (static + 3 animation frames).
+     * Draw a frame of an entity into an atlas on a background thread, ahead of
+     * the frames the preloader has not reached yet. Nothing is drawn if another
+     * thread claims the frame first.
+     *
+     * @param atlas      Atlas to draw into
+     * @param entity     Index of the entity in ENTITY_NAMES
+     * @param frameIndex Frame index
+     */
+    static void drawEntityFrameLater(SpriteAtlas atlas, int entity, int frameIndex) {
+        frameDrawer.execute(() -> {
+            try {
+                drawEntityFrame(new SpriteAtlas[] {atlas}, entity, frameIndex);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to load image: " + ENTITY_NAMES[entity] + " - " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Draw an image scaled to a size. Large reductions are done by halving the
+     * image with bilinear filtering until it is within twice the size, which
+     * keeps the smoothness of an area-averaging scale at a fraction of its cost.
+     *
+     * @param g      Graphics to draw on
+     * @param source Image to draw
+     * @param x      Left of the destination
+     * @param y      Top of the destination
+     * @param width  Width of the destination
+     * @param height Height of the destination
+     */
+    public static void drawScaled(Graphics2D g, BufferedImage source, int x, int y, int width, int height) {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(reduce(source, width, height), x, y, width, height, null);
+    }
+
+    /**
+     * Halve an image with bilinear filtering until it is within twice a size.
+     *
+     * @return The reduced image, or the image itself if it is small enough
+     */
+    static BufferedImage reduce(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        while (w > 2 * width || h > 2 * height) {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage half = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D hg = half.createGraphics();
+            hg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            hg.drawImage(current, 0, 0, w, h, null);
+            hg.dispose();
+            current = half;
+        }
+        return current;
+    }
+
+    /**
+     * Preload all images for an entity (static + 3 animation frames) into the
+     * atlas of a size. The other entities' frames are left to be drawn later.
      *
      * @param entityName Name of entity
      * @param width      Desired width
      * @param height     Desired height
      */
     public static void preloadEntity(String entityName, int width, int height) {
-        for (int i = 0; i <= 3; i++) {
-            loadAnimationFrame(entityName, i, width, height);
+        Integer entity = ENTITY_INDEX.get(entityName);
+        if (entity == null) {
+            return;
+        }
+        SpriteAtlas[] targets = {getAtlas(width, height)};
+        for (int frame = 0; frame < ANIMATION_FRAMES; frame++) {
+            drawEntityFrame(targets, entity, frame);
         }
     }
 
     /**
-     * Preload all game entities.
+     * Preload all game entities: the atlases of every size the game draws them at.
      */
     public static void preloadAllEntities() {
-        String[] plants = {"SunFlower", "VenusFlyTrap", "Walnut", "Potatoe", "PeaShooter"};
-        String[] zombies = {"GenericZombie", "FrankTheTank", "BurrowingBailey"};
+        buildAtlases(PRELOAD_SIZES);
+    }
 
-        for (String plant : plants) {
-            preloadEntity(plant, 80, 60);
-            preloadEntity(plant, 50, 50);
-        }
-        for (String zombie : zombies) {
-            preloadEntity(zombie, 80, 60);
+    /**
+     * Create an image in the screen's native format, so drawing it needs no
+     * conversion. Without a screen, as in a headless benchmark, a plain
+     * premultiplied ARGB image is used.
+     *
+     * @param width        Width of the image
+     * @param height       Height of the image
+     * @param transparency Transparency.OPAQUE, BITMASK or TRANSLUCENT
+     * @return A new blank image
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
         }
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+            ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
     }
 
     /**
@@ -149,6 +404,7 @@ public class ResourceLoader {
      */
     public static void clearCache() {
         imageCache.clear();
+        atlases.clear();
     }
 
     /**
@@ -2,12 +2,13 @@ package util;
 
 import javax.sound.sampled.*;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Sound effect manager for the game.
- * Handles loading and playing WAV audio files.
+ * Handles loading and playing WAV audio files. The clip cache is safe to fill
+ * from several threads, as AssetPreloader does.
  */
 public class SoundManager {
 
@@ -21,8 +22,14 @@ public class SoundManager {
     public static final String BUTTON_CLICK = "button_click.wav";
     public static final String PLANT_ATTACK = "plant_attack.wav";
 
+    // Every sound effect, in the order they are preloaded
+    public static final String[] SOUNDS = {
+        BUTTON_CLICK, PLANT_PLACE, ZOMBIE_GROAN, CHOMP, SUN_COLLECT,
+        VICTORY, DEFEAT, PLANT_ATTACK
+    };
+
     // Cache for loaded audio clips
-    private static final Map<String, Clip> clipCache = new HashMap<>();
+    private static final Map<String, Clip> clipCache = new ConcurrentHashMap<>();
 
     // Sound enabled flag
     private static boolean soundEnabled = true;
@@ -102,11 +109,9 @@ public class SoundManager {
      * Get or load a clip from cache.
      */
     private static Clip getClip(String soundName) {
-        if (clipCache.containsKey(soundName)) {
-            Clip cached = clipCache.get(soundName);
-            if (cached != null && cached.isOpen()) {
-                return cached;
-            }
+        Clip cached = clipCache.get(soundName);
+        if (cached != null && cached.isOpen()) {
+            return cached;
         }
 
         try {
@@ -115,7 +120,12 @@ public class SoundManager {
                 AudioInputStream audioIn = AudioSystem.getAudioInputStream(url);
                 Clip clip = AudioSystem.getClip();
                 clip.open(audioIn);
-                clipCache.put(soundName, clip);
+                // Another thread may have loaded it meanwhile, keep only one open
+                if (cached == null ? clipCache.putIfAbsent(soundName, clip) != null
+                        : !clipCache.replace(soundName, cached, clip)) {
+                    clip.close();
+                    return clipCache.get(soundName);
+                }
                 return clip;
             }
         } catch (Exception e) {
@@ -150,15 +160,21 @@ public class SoundManager {
      * Preload all game sounds into cache.
      */
     public static void preloadSounds() {
-        String[] sounds = {
-            PLANT_PLACE, ZOMBIE_GROAN, CHOMP, SUN_COLLECT,
-            VICTORY, DEFEAT, BUTTON_CLICK, PLANT_ATTACK
-        };
-        for (String sound : sounds) {
+        for (String sound : SOUNDS) {
             getClip(sound);
         }
     }
 
+    /**
+     * Preload one sound into cache.
+     *
+     * @param soundName Name of the sound file
+     * @return Whether the sound was loaded
+     */
+    public static boolean preloadSound(String soundName) {
+        return getClip(soundName) != null;
+    }
+
     /**
      * Enable or disable sound effects.
      */
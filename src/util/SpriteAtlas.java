@@ -0,0 +1,181 @@
+package util;
+
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Every animation frame of the game's entities at one size, packed into a single
+ * image in the screen's native format. Each entity has a row and each frame a
+ * column; the frames are handed out as sub-images sharing the atlas's pixels, so
+ * drawing one needs no conversion or scaling. Frames may be drawn in from several
+ * threads while the atlas is in use. Each frame is drawn by the first thread to
+ * claim it. Getting a frame nobody has claimed yet draws it on the caller's
+ * thread, unless that is the event dispatch thread, which hands it to a
+ * background thread instead. Until a frame is drawn, getting it returns its
+ * still blank place in the atlas, which shows the frame once it is drawn.
+ */
+public class SpriteAtlas {
+
+    private final String[] names;
+    private final int frameCount;
+    private final int width;
+    private final int height;
+    private final BufferedImage image;
+    private final List<CompletableFuture<ImageIcon>> frames;
+    // 1 for each frame a thread has taken on drawing
+    private final AtomicIntegerArray claims;
+    // Blank place of each frame, returned until it is drawn, made on first use
+    private final AtomicReferenceArray<ImageIcon> placeholders;
+
+    /**
+     * Create an empty atlas. Frames are drawn in with drawFrame().
+     *
+     * @param names      Entity names, one row each
+     * @param frameCount Frames per entity
+     * @param width      Width of a frame
+     * @param height     Height of a frame
+     */
+    SpriteAtlas(String[] names, int frameCount, int width, int height) {
+        this.names = names;
+        this.frameCount = frameCount;
+        this.width = width;
+        this.height = height;
+        this.image = ResourceLoader.createCompatibleImage(frameCount * width, names.length * height,
+            Transparency.TRANSLUCENT);
+        this.frames = new ArrayList<>(names.length * frameCount);
+        for (int i = 0; i < names.length * frameCount; i++) {
+            frames.add(new CompletableFuture<>());
+        }
+        this.claims = new AtomicIntegerArray(names.length * frameCount);
+        this.placeholders = new AtomicReferenceArray<>(names.length * frameCount);
+    }
+
+    /**
+     * Take on drawing a frame. Only the first call for a frame succeeds, so no
+     * frame is drawn twice.
+     *
+     * @param entity Row of the entity
+     * @param frame  Frame index
+     * @return Whether the caller must draw or skip the frame
+     */
+    boolean claim(int entity, int frame) {
+        return claims.compareAndSet(entity * frameCount + frame, 0, 1);
+    }
+
+    /**
+     * Scale a decoded frame into its place in the atlas. The caller must have
+     * claimed the frame.
+     *
+     * @param entity Row of the entity
+     * @param frame  Frame index
+     * @param source The decoded frame at its original size
+     */
+    void drawFrame(int entity, int frame, BufferedImage source) {
+        // Reduce outside the lock, only the final draw touches the atlas
+        BufferedImage reduced = ResourceLoader.reduce(source, width, height);
+        synchronized (image) {
+            Graphics2D g = image.createGraphics();
+            ResourceLoader.drawScaled(g, reduced, frame * width, entity * height, width, height);
+            g.dispose();
+        }
+        frames.get(entity * frameCount + frame).complete(
+            new ImageIcon(image.getSubimage(frame * width, entity * height, width, height)));
+    }
+
+    /**
+     * Mark a claimed frame whose image could not be loaded, so getting it returns
+     * null. A frame already drawn is left as it is.
+     *
+     * @param entity Row of the entity
+     * @param frame  Frame index
+     */
+    void skipFrame(int entity, int frame) {
+        frames.get(entity * frameCount + frame).complete(null);
+    }
+
+    /**
+     * Get a frame of an entity.
+     *
+     * @param name  Name of entity
+     * @param frame Frame index (0 = static, 1-3 = animated)
+     * @return The frame, a blank placeholder while it is being drawn, or null
+     * if the entity or its frame image is missing
+     */
+    public ImageIcon getFrame(String name, int frame) {
+        return getFrame(indexOf(name), frame);
+    }
+
+    /**
+     * Get a frame of the entity in a row.
+     *
+     * @param entity Row of the entity
+     * @param frame  Frame index
+     * @return As getFrame(String, int)
+     */
+    ImageIcon getFrame(int entity, int frame) {
+        if (entity < 0 || entity >= names.length || frame < 0 || frame >= frameCount) {
+            return null;
+        }
+        int slot = entity * frameCount + frame;
+        CompletableFuture<ImageIcon> future = frames.get(slot);
+        if (future.isDone()) {
+            return future.join();
+        }
+        if (!SwingUtilities.isEventDispatchThread()) {
+            ResourceLoader.drawEntityFrame(new SpriteAtlas[] {this}, entity, frame);
+            if (future.isDone()) {
+                return future.join();
+            }
+        }
+        ImageIcon placeholder = placeholders.get(slot);
+        if (placeholder == null) {
+            // The sub-image shares the atlas's pixels, so it fills in once drawn
+            placeholder = new ImageIcon(image.getSubimage(frame * width, entity * height, width, height));
+            if (placeholders.compareAndSet(slot, null, placeholder)) {
+                if (claims.get(slot) == 0) {
+                    ResourceLoader.drawEntityFrameLater(this, entity, frame);
+                }
+            } else {
+                placeholder = placeholders.get(slot);
+            }
+        }
+        return placeholder;
+    }
+
+    /**
+     * Get the row of an entity.
+     *
+     * @return The row, or -1 if the atlas does not hold the entity
+     */
+    int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the whole atlas image.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public int getFrameWidth() {
+        return width;
+    }
+
+    public int getFrameHeight() {
+        return height;
+    }
+}
@@ -1,7 +1,6 @@
 package view;
 
 import model.GridObject;
-import model.NullSpace;
 import util.ResourceLoader;
 
 import javax.swing.*;
@@ -88,12 +87,12 @@ public class AnimationManager {
      * Register an entity for animation.
      */
     public void registerEntity(GridCellButton button, GridObject entity) {
-        if (entity == null || entity instanceof NullSpace) {
+        if (entity == null || entity.getEntityType().isEmpty()) {
             animations.remove(button);
             return;
         }
 
-        String entityName = entity.getObjectTitle();
+        String entityName = entity.getEntityType().getTitle();
 
         // Check if already registered with same entity
         AnimationData existing = animations.get(button);
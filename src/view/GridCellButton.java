@@ -1,22 +1,48 @@
 package view;
 
+import model.EntityType;
 import model.GridObject;
-import model.NullSpace;
 import model.Plant;
 import model.Zombie;
 import util.ResourceLoader;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
- * Custom grid cell button with health bar and hover effects.
+ * Custom grid cell button with health bar and hover effects. A cell is either a
+ * component of its own or, when hosted by a LawnCanvas, only holds the cell's
+ * state while the canvas paints it and handles its mouse input.
  */
 public class GridCellButton extends JButton {
 
+    // Grid icons by entity type id, loaded on first use
+    private static final ImageIcon[] ICONS = new ImageIcon[EntityType.count()];
+
+    private static final Color HIGHLIGHT = new Color(255, 255, 255, 30);
+    private static final Color SHADOW = new Color(0, 0, 0, 40);
+    private static final Color DISABLED_OVERLAY = new Color(100, 100, 100, 150);
+    private static final Color DANGER_TINT = new Color(255, 0, 0, 30);
+    private static final Color DANGER_STRIPES = new Color(255, 200, 0, 40);
+    private static final Color FLASH_PLACED = new Color(100, 255, 100, 150);
+    private static final Color FLASH_DANGER = new Color(255, 100, 100, 150);
+    private static final Color FLASH_SUN = new Color(255, 255, 100, 150);
+
+    // Pre-rendered backgrounds by color, size and highlight, and danger zone
+    // overlays by size, the least recently used dropped past MAX_TILES each
+    private static final int MAX_TILES = 256;
+    private static final Map<TileKey, BufferedImage> BACKGROUNDS = tileCache();
+    private static final Map<TileKey, BufferedImage> DANGER_OVERLAYS = tileCache();
+    private static boolean cacheTiles = true;
+
     private GridObject entity;
     private int row;
     private int col;
@@ -28,6 +54,12 @@ public class GridCellButton extends JButton {
     private Color baseColor;
     private boolean flashActive = false;
     private Color flashColor = null;
+    // Canvas that paints this cell, null when the cell is a component of its own
+    private LawnCanvas host;
+    // The background tile last painted and what it was drawn for
+    private BufferedImage background;
+    private Color backgroundColor;
+    private boolean backgroundFlash;
 
     public GridCellButton(int row, int col, int gridWidth) {
         super();
@@ -75,12 +107,18 @@ public class GridCellButton extends JButton {
     @Override
     protected void paintComponent(Graphics g) {
         Graphics2D g2d = (Graphics2D) g.create();
+        paintCell(g2d, getWidth(), getHeight());
+        g2d.dispose();
+    }
+
+    /**
+     * Paint the cell at the origin of the graphics, for the button itself or for
+     * the canvas hosting it.
+     */
+    void paintCell(Graphics2D g2d, int w, int h) {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 
-        int w = getWidth();
-        int h = getHeight();
-
         // Background color
         Color bgColor = baseColor;
         if (flashActive && flashColor != null) {
@@ -89,32 +127,21 @@ public class GridCellButton extends JButton {
             bgColor = GameTheme.GRASS_HOVER;
         }
 
-        // Draw cell background with rounded corners
-        RoundRectangle2D.Float cellBg = new RoundRectangle2D.Float(1, 1, w - 2, h - 2, 8, 8);
-        g2d.setColor(bgColor);
-        g2d.fill(cellBg);
-
-        // Draw subtle border
-        g2d.setColor(bgColor.darker());
-        g2d.setStroke(new BasicStroke(1));
-        g2d.draw(cellBg);
-
-        // Draw inner highlight for 3D effect
-        if (!flashActive) {
-            g2d.setColor(new Color(255, 255, 255, 30));
-            g2d.drawLine(3, 3, w - 4, 3);
-            g2d.drawLine(3, 3, 3, h - 4);
+        if (cacheTiles) {
+            g2d.drawImage(backgroundTile(bgColor, w, h), 0, 0, null);
+        } else {
+            paintBackground(g2d, bgColor, flashActive, w, h);
         }
 
         // Draw entity icon
-        if (entityIcon != null && !(entity instanceof NullSpace)) {
+        if (entityIcon != null && !entity.getEntityType().isEmpty()) {
             int iconW = entityIcon.getIconWidth();
             int iconH = entityIcon.getIconHeight();
             int iconX = (w - iconW) / 2;
             int iconY = (h - iconH) / 2 - 5; // Offset up for health bar
 
             // Draw shadow under entity
-            g2d.setColor(new Color(0, 0, 0, 40));
+            g2d.setColor(SHADOW);
             g2d.fillOval(iconX + 5, iconY + iconH - 5, iconW - 10, 10);
 
             // Draw the icon
@@ -122,29 +149,151 @@ public class GridCellButton extends JButton {
 
             // Gray overlay if disabled
             if (!isEnabled()) {
-                g2d.setColor(new Color(100, 100, 100, 150));
+                g2d.setColor(DISABLED_OVERLAY);
                 g2d.fillRect(iconX, iconY, iconW, iconH);
             }
         }
 
         // Draw health bar for entities
-        if (showHealthBar && entity != null && !(entity instanceof NullSpace) && healthPercentage < 100) {
+        if (showHealthBar && entity != null && !entity.getEntityType().isEmpty() && healthPercentage < 100) {
             drawHealthBar(g2d, w, h);
         }
 
         // Draw danger zone indicator
         if (GameTheme.isDangerZone(col, gridWidth)) {
-            g2d.setColor(new Color(255, 0, 0, 30));
-            g2d.fill(cellBg);
+            if (cacheTiles) {
+                g2d.drawImage(dangerOverlay(w, h), 0, 0, null);
+            } else {
+                paintDangerOverlay(g2d, w, h);
+            }
+        }
+    }
+
+    /**
+     * Draw the cell background with rounded corners, border and highlight.
+     */
+    private static void paintBackground(Graphics2D g2d, Color bgColor, boolean flash, int w, int h) {
+        RoundRectangle2D.Float cellBg = new RoundRectangle2D.Float(1, 1, w - 2, h - 2, 8, 8);
+        g2d.setColor(bgColor);
+        g2d.fill(cellBg);
+
+        // Draw subtle border
+        g2d.setColor(bgColor.darker());
+        g2d.setStroke(new BasicStroke(1));
+        g2d.draw(cellBg);
+
+        // Draw inner highlight for 3D effect
+        if (!flash) {
+            g2d.setColor(HIGHLIGHT);
+            g2d.drawLine(3, 3, w - 4, 3);
+            g2d.drawLine(3, 3, 3, h - 4);
+        }
+    }
+
+    /**
+     * Draw the red tint and warning stripes over a danger zone cell.
+     */
+    private static void paintDangerOverlay(Graphics2D g2d, int w, int h) {
+        g2d.setColor(DANGER_TINT);
+        g2d.fill(new RoundRectangle2D.Float(1, 1, w - 2, h - 2, 8, 8));
+
+        // Draw warning stripes
+        g2d.setColor(DANGER_STRIPES);
+        for (int i = -h; i < w; i += 20) {
+            g2d.drawLine(i, h, i + h, 0);
+        }
+    }
+
+    /**
+     * Set whether cells paint from pre-rendered tiles, for benchmarks to compare
+     * against painting every cell from scratch.
+     */
+    static void setCacheTiles(boolean cacheTiles) {
+        GridCellButton.cacheTiles = cacheTiles;
+    }
 
-            // Draw warning stripes
-            g2d.setColor(new Color(255, 200, 0, 40));
-            for (int i = -h; i < w; i += 20) {
-                g2d.drawLine(i, h, i + h, 0);
+    private static Map<TileKey, BufferedImage> tileCache() {
+        return new LinkedHashMap<TileKey, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, BufferedImage> eldest) {
+                return size() > MAX_TILES;
             }
+        };
+    }
+
+    /**
+     * Get the pre-rendered background for a color, reusing this cell's last one
+     * while nothing it depends on has changed.
+     */
+    private BufferedImage backgroundTile(Color bgColor, int w, int h) {
+        if (background != null && background.getWidth() == w && background.getHeight() == h
+                && bgColor.equals(backgroundColor) && flashActive == backgroundFlash) {
+            return background;
+        }
+        TileKey key = new TileKey(bgColor, w, h, flashActive);
+        BufferedImage tile = BACKGROUNDS.get(key);
+        if (tile == null) {
+            tile = ResourceLoader.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+            Graphics2D g = tile.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paintBackground(g, bgColor, flashActive, w, h);
+            g.dispose();
+            BACKGROUNDS.put(key, tile);
         }
+        background = tile;
+        backgroundColor = bgColor;
+        backgroundFlash = flashActive;
+        return tile;
+    }
 
-        g2d.dispose();
+    /**
+     * Get the pre-rendered danger zone overlay of a size.
+     */
+    private static BufferedImage dangerOverlay(int w, int h) {
+        TileKey key = new TileKey(null, w, h, false);
+        BufferedImage overlay = DANGER_OVERLAYS.get(key);
+        if (overlay == null) {
+            overlay = ResourceLoader.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+            Graphics2D g = overlay.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paintDangerOverlay(g, w, h);
+            g.dispose();
+            DANGER_OVERLAYS.put(key, overlay);
+        }
+        return overlay;
+    }
+
+    /**
+     * What a tile was drawn for: its color, if any, size and whether it has the
+     * highlight left off for a flash.
+     */
+    private static final class TileKey {
+        private final Color color;
+        private final int width;
+        private final int height;
+        private final boolean flash;
+
+        TileKey(Color color, int width, int height, boolean flash) {
+            this.color = color;
+            this.width = width;
+            this.height = height;
+            this.flash = flash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey) o;
+            return Objects.equals(color, other.color) && width == other.width && height == other.height
+                && flash == other.flash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(color, width, height, flash);
+        }
     }
 
     private void drawHealthBar(Graphics2D g2d, int cellWidth, int cellHeight) {
@@ -167,28 +316,76 @@ public class GridCellButton extends JButton {
         g2d.drawRoundRect(barX, barY, barWidth, barHeight, 3, 3);
     }
 
+    /**
+     * Get the grid icon of an entity type.
+     */
+    private static ImageIcon iconFor(EntityType type) {
+        ImageIcon icon = ICONS[type.getId()];
+        if (icon == null) {
+            icon = ResourceLoader.loadScaledIcon(type.getIconName(),
+                GameTheme.GRID_ICON_WIDTH, GameTheme.GRID_ICON_HEIGHT);
+            ICONS[type.getId()] = icon;
+        }
+        return icon;
+    }
+
+    /**
+     * Let a canvas paint this cell, or null to paint it as a component again.
+     */
+    void setHost(LawnCanvas host) {
+        this.host = host;
+        hovering = false;
+    }
+
+    /**
+     * Route repaints to the hosting canvas, which redraws only this cell.
+     */
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+        if (host != null) {
+            host.cellChanged(this);
+        } else {
+            super.repaint(tm, x, y, width, height);
+        }
+    }
+
+    /**
+     * Show or clear the hover highlight, for a hosting canvas.
+     */
+    void setHovering(boolean hovering) {
+        if (this.hovering != hovering) {
+            this.hovering = hovering;
+            repaint();
+        }
+    }
+
+    /**
+     * Tell the action listeners the cell was clicked, for a hosting canvas.
+     */
+    void click() {
+        if (isEnabled()) {
+            fireActionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, getActionCommand()));
+        }
+    }
+
     /**
      * Set the entity displayed in this cell.
      */
     public void setEntity(GridObject entity) {
         this.entity = entity;
 
-        if (entity == null || entity instanceof NullSpace) {
+        if (entity == null || entity.getEntityType().isEmpty()) {
             this.entityIcon = null;
             this.healthPercentage = 100;
         } else {
             // Load icon
-            this.entityIcon = ResourceLoader.loadScaledIcon(
-                entity.getObjectTitle() + ".png",
-                GameTheme.GRID_ICON_WIDTH,
-                GameTheme.GRID_ICON_HEIGHT
-            );
+            this.entityIcon = iconFor(entity.getEntityType());
 
             // Calculate health percentage
-            if (entity instanceof Plant) {
+            if (entity.getEntityType().isPlant()) {
                 Plant p = (Plant) entity;
                 this.healthPercentage = (p.getHealth() * 100) / p.getFullHealth();
-            } else if (entity instanceof Zombie) {
+            } else if (entity.getEntityType().isZombie()) {
                 Zombie z = (Zombie) entity;
                 this.healthPercentage = (z.getHealth() * 100) / z.getFullHealth();
             }
@@ -234,21 +431,21 @@ public class GridCellButton extends JButton {
      * Flash green for plant placement.
      */
     public void flashPlantPlaced() {
-        flash(new Color(100, 255, 100, 150), GameTheme.FLASH_DURATION);
+        flash(FLASH_PLACED, GameTheme.FLASH_DURATION);
     }
 
     /**
      * Flash red for zombie spawn or damage.
      */
     public void flashDanger() {
-        flash(new Color(255, 100, 100, 150), GameTheme.FLASH_DURATION);
+        flash(FLASH_DANGER, GameTheme.FLASH_DURATION);
     }
 
     /**
      * Flash yellow for sun collection.
      */
     public void flashSun() {
-        flash(new Color(255, 255, 100, 150), GameTheme.FLASH_DURATION);
+        flash(FLASH_SUN, GameTheme.FLASH_DURATION);
     }
 
     /**
@@ -0,0 +1,194 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+
+/**
+ * Draws the whole lawn on one component instead of one button per cell. The
+ * cells are still GridCellButtons, so the controller and the animation manager
+ * use them as before, but they are not added to the component tree: the canvas
+ * keeps their look in a back buffer, redraws a cell into it only when the cell
+ * changes, repaints just that cell's region and does the hit-testing for clicks.
+ */
+public class LawnCanvas extends JComponent {
+
+    // Space between cells, as in the button grid's layout
+    private static final int GAP = 2;
+
+    private final GridCellButton[][] cells;
+    private final int rows;
+    private final int cols;
+
+    // The lawn as last drawn, rebuilt when the canvas is resized
+    private BufferedImage buffer;
+    // Cells changed since they were last drawn into the buffer, row * cols + col
+    private final BitSet dirty = new BitSet();
+
+    private GridCellButton hovered;
+    private GridCellButton pressed;
+
+    public LawnCanvas(GridCellButton[][] cells) {
+        this.cells = cells;
+        this.rows = cells.length;
+        this.cols = cells[0].length;
+
+        setOpaque(true);
+        setCursor(new Cursor(Cursor.HAND_CURSOR));
+        setPreferredSize(new Dimension(cols * GameTheme.GRID_CELL_WIDTH + (cols - 1) * GAP,
+            rows * GameTheme.GRID_CELL_HEIGHT + (rows - 1) * GAP));
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cells[i][j].setHost(this);
+            }
+        }
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                hover(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                hover(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                hover(null);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    pressed = cellAt(e.getX(), e.getY());
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                // Like a button, a click must start and end on the same cell
+                GridCellButton cell = cellAt(e.getX(), e.getY());
+                if (SwingUtilities.isLeftMouseButton(e) && cell != null && cell == pressed) {
+                    cell.click();
+                }
+                pressed = null;
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /**
+     * Stop painting the cells so they can be used as buttons again.
+     */
+    public void release() {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cells[i][j].setHost(null);
+            }
+        }
+    }
+
+    /**
+     * Lay the cells out as the button grid would: equal cells with a gap between.
+     * The buffer is rebuilt at the next paint if the size changed.
+     */
+    @Override
+    public void doLayout() {
+        int cellW = Math.max(1, (getWidth() - (cols - 1) * GAP) / cols);
+        int cellH = Math.max(1, (getHeight() - (rows - 1) * GAP) / rows);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cells[i][j].setBounds(j * (cellW + GAP), i * (cellH + GAP), cellW, cellH);
+            }
+        }
+    }
+
+    /**
+     * Find the cell under a point.
+     * @return the cell, or null for a gap or outside the lawn
+     */
+    public GridCellButton cellAt(int x, int y) {
+        if (rows == 0 || x < 0 || y < 0) {
+            return null;
+        }
+        Rectangle first = cells[0][0].getBounds();
+        int col = x / (first.width + GAP);
+        int row = y / (first.height + GAP);
+        if (row >= rows || col >= cols) {
+            return null;
+        }
+        GridCellButton cell = cells[row][col];
+        return cell.getBounds().contains(x, y) ? cell : null;
+    }
+
+    /**
+     * Mark a cell to be drawn again and repaint its region.
+     */
+    void cellChanged(GridCellButton cell) {
+        dirty.set(cell.getRow() * cols + cell.getCol());
+        Rectangle r = cell.getBounds();
+        repaint(r.x, r.y, r.width, r.height);
+    }
+
+    private void hover(GridCellButton cell) {
+        if (cell == hovered) {
+            return;
+        }
+        if (hovered != null) {
+            hovered.setHovering(false);
+        }
+        hovered = cell;
+        if (cell != null && cell.isEnabled()) {
+            cell.setHovering(true);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (buffer == null || buffer.getWidth() != w || buffer.getHeight() != h) {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            buffer = gc != null ? gc.createCompatibleImage(w, h) : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = buffer.createGraphics();
+            g2d.setColor(GameTheme.PANEL_BACKGROUND);
+            g2d.fillRect(0, 0, w, h);
+            g2d.dispose();
+            dirty.set(0, rows * cols);
+        }
+        if (!dirty.isEmpty()) {
+            drawDirtyCells();
+        }
+        // Only the clip, the regions repainted since the last paint, is copied
+        g.drawImage(buffer, 0, 0, null);
+    }
+
+    /**
+     * Draw the changed cells into the back buffer.
+     */
+    private void drawDirtyCells() {
+        Graphics2D g2d = buffer.createGraphics();
+        for (int k = dirty.nextSetBit(0); k >= 0; k = dirty.nextSetBit(k + 1)) {
+            GridCellButton cell = cells[k / cols][k % cols];
+            Rectangle r = cell.getBounds();
+            // The cell's rounded corners show the background
+            g2d.setColor(GameTheme.PANEL_BACKGROUND);
+            g2d.fillRect(r.x, r.y, r.width, r.height);
+            Graphics2D cellGraphics = (Graphics2D) g2d.create(r.x, r.y, r.width, r.height);
+            cell.paintCell(cellGraphics, r.width, r.height);
+            cellGraphics.dispose();
+        }
+        dirty.clear();
+        g2d.dispose();
+    }
+}
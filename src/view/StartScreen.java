@@ -17,17 +17,21 @@ public class StartScreen extends JPanel {
     public interface StartScreenListener {
         void onPlayGame();
         void onSelectLevel(int level);
+        void onEndlessMode();
         void onLevelEditor();
     }
 
     private StartScreenListener listener;
     private JButton playButton;
     private JButton[] levelButtons;
+    private JButton endlessButton;
     private JButton editorButton;
     private Timer animationTimer;
     private int animationFrame = 0;
     private ImageIcon[] plantFrames;
     private ImageIcon[] zombieFrames;
+    // Run once the screen has first been painted
+    private Runnable firstPaintListener;
 
     public StartScreen() {
         setLayout(new BorderLayout());
@@ -43,6 +47,11 @@ public class StartScreen extends JPanel {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 paintBackground(g);
+                if (firstPaintListener != null) {
+                    // After this paint, once the children are drawn too
+                    SwingUtilities.invokeLater(firstPaintListener);
+                    firstPaintListener = null;
+                }
             }
         };
         contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
@@ -99,6 +108,13 @@ public class StartScreen extends JPanel {
         startAnimation();
     }
 
+    /**
+     * Set what to run once the screen has first been painted.
+     */
+    public void setFirstPaintListener(Runnable listener) {
+        firstPaintListener = listener;
+    }
+
     private void loadAnimationFrames() {
         plantFrames = new ImageIcon[4];
         zombieFrames = new ImageIcon[4];
@@ -222,6 +238,13 @@ public class StartScreen extends JPanel {
             panel.add(levelButtons[i]);
         }
 
+        endlessButton = createStyledButton("Endless", GameTheme.DANGER_RED, 120, 45);
+        endlessButton.addActionListener(e -> {
+            SoundManager.play(SoundManager.BUTTON_CLICK);
+            if (listener != null) listener.onEndlessMode();
+        });
+        panel.add(endlessButton);
+
         return panel;
     }
 
@@ -9,9 +9,9 @@ import javax.swing.*;
 import model.Board;
 import model.GridObject;
 import model.Level;
-import model.NullSpace;
 import model.Plant;
 import model.Zombie;
+import util.AssetPreloader;
 import util.ResourceLoader;
 import util.SoundManager;
 
@@ -42,6 +42,7 @@ public class View extends JFrame {
     private JLabel sunPointsLabel;
     private JPanel sunPointsPanel;
     private JLabel levelInfoLabel;
+    private JLabel hudLabel;
 
     // Action buttons
     private JButton undoTurn, endTurn, redoTurn, confirm;
@@ -49,6 +50,12 @@ public class View extends JFrame {
     // Grid
     private JPanel gridLayoutButtons;
     private GridCellButton[][] gridButtons;
+    // Draws the lawn on one component instead of a button per cell, null when off
+    private LawnCanvas lawnCanvas;
+    private boolean canvasLawn = Boolean.getBoolean("pvz.canvasLawn");
+
+    // Loads the images and sounds in the background, started first thing
+    private AssetPreloader preloader;
 
     // Plant selection (new style)
     private JPanel plantSelectionPanel;
@@ -64,6 +71,7 @@ public class View extends JFrame {
 
     // Level editor
     private JTextField genericZombieCB, frankTheTankCB, burrowingBaileyCB;
+    private JTextField rowsField, columnsField;
     private ArrayList<JTextField> availableZombies;
     private JTextArea numOfZombies;
     private JPanel genericZombiePanel, frankTheTankPanel, burrowingBaileyPanel;
@@ -80,8 +88,8 @@ public class View extends JFrame {
         setLayout(new BorderLayout());
         getContentPane().setBackground(GameTheme.PANEL_BACKGROUND);
 
-        // Preload resources
-        ResourceLoader.preloadAllEntities();
+        // Preload resources in the background, the start screen's first
+        preloader = AssetPreloader.start();
 
         // Create animation manager
         animationManager = new AnimationManager(this);
@@ -114,6 +122,12 @@ public class View extends JFrame {
      */
     private void createStartScreen() {
         startScreen = new StartScreen();
+        startScreen.setFirstPaintListener(() -> {
+            preloader.markFirstFrame();
+            if (Boolean.getBoolean("pvz.startupReport")) {
+                preloader.getCompletion().thenAccept(p -> System.out.print(p.getReport()));
+            }
+        });
     }
 
     /**
@@ -131,8 +145,7 @@ public class View extends JFrame {
         gamePanel.add(topPanel, BorderLayout.NORTH);
 
         // Create grid
-        createGrid();
-        gamePanel.add(gridLayoutButtons, BorderLayout.CENTER);
+        createGrid(Board.GRID_HEIGHT, Board.GRID_WIDTH);
 
         // Create plant selection panel
         createPlantSelectionPanel();
@@ -198,6 +211,9 @@ public class View extends JFrame {
         JCheckBoxMenuItem soundToggle = new JCheckBoxMenuItem("Sound Effects", true);
         soundToggle.addActionListener(e -> SoundManager.setSoundEnabled(soundToggle.isSelected()));
         optionsMenu.add(soundToggle);
+        JCheckBoxMenuItem canvasToggle = new JCheckBoxMenuItem("Single-Canvas Lawn", canvasLawn);
+        canvasToggle.addActionListener(e -> setCanvasLawn(canvasToggle.isSelected()));
+        optionsMenu.add(canvasToggle);
         menuBar.add(optionsMenu);
 
         // Main menu button on right
@@ -275,6 +291,13 @@ public class View extends JFrame {
 
         infoBar.add(sunPointsPanel, BorderLayout.WEST);
 
+        // Endless mode counters, hidden for the other levels
+        hudLabel = new JLabel("", SwingConstants.CENTER);
+        hudLabel.setFont(GameTheme.FONT_NORMAL);
+        hudLabel.setForeground(GameTheme.TEXT_LIGHT);
+        hudLabel.setVisible(false);
+        infoBar.add(hudLabel, BorderLayout.CENTER);
+
         // Level info
         levelInfoLabel = new JLabel("Level 1");
         levelInfoLabel.setFont(GameTheme.FONT_HEADING);
@@ -287,31 +310,95 @@ public class View extends JFrame {
     }
 
     /**
-     * Create the game grid.
+     * Create the game grid, replacing the current one.
      */
-    private void createGrid() {
-        gridLayoutButtons = new JPanel(new GridLayout(Board.GRID_HEIGHT, Board.GRID_WIDTH, 2, 2));
-        gridLayoutButtons.setBackground(GameTheme.PANEL_BACKGROUND);
-        gridLayoutButtons.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-
-        gridButtons = new GridCellButton[Board.GRID_HEIGHT][Board.GRID_WIDTH];
+    public void createGrid(int rows, int cols) {
+        gridButtons = new GridCellButton[rows][cols];
 
-        for (int i = 0; i < Board.GRID_HEIGHT; i++) {
-            for (int j = 0; j < Board.GRID_WIDTH; j++) {
-                gridButtons[i][j] = new GridCellButton(i, j, Board.GRID_WIDTH);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                gridButtons[i][j] = new GridCellButton(i, j, cols);
                 gridButtons[i][j].setEnabled(false);
                 gridButtons[i][j].setActionCommand(i + " " + j);
-                gridLayoutButtons.add(gridButtons[i][j]);
             }
         }
 
         // Legacy buttons array for compatibility
-        View.buttons = new JButton[Board.GRID_HEIGHT][Board.GRID_WIDTH];
-        for (int i = 0; i < Board.GRID_HEIGHT; i++) {
-            for (int j = 0; j < Board.GRID_WIDTH; j++) {
+        View.buttons = new JButton[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
                 buttons[i][j] = gridButtons[i][j];
             }
         }
+
+        layOutGrid();
+    }
+
+    /**
+     * Put the grid's cells on screen, as buttons or on one canvas.
+     */
+    private void layOutGrid() {
+        if (gridLayoutButtons != null) {
+            gamePanel.remove(gridLayoutButtons);
+            gridLayoutButtons.removeAll();
+        }
+        if (lawnCanvas != null) {
+            lawnCanvas.release();
+            lawnCanvas = null;
+        }
+        gridLayoutButtons = createGridPanel(gridButtons, canvasLawn);
+        if (canvasLawn)
+            lawnCanvas = (LawnCanvas) gridLayoutButtons.getComponent(0);
+
+        gamePanel.add(gridLayoutButtons, BorderLayout.CENTER);
+        gamePanel.revalidate();
+        gamePanel.repaint();
+    }
+
+    /**
+     * Create the panel showing the grid's cells.
+     *
+     * @param cells  the cells
+     * @param canvas true to draw the cells on one LawnCanvas, false for a button per cell
+     */
+    static JPanel createGridPanel(GridCellButton[][] cells, boolean canvas) {
+        JPanel panel;
+        if (canvas) {
+            panel = new JPanel(new BorderLayout());
+            panel.add(new LawnCanvas(cells), BorderLayout.CENTER);
+        } else {
+            panel = new JPanel(new GridLayout(cells.length, cells[0].length, 2, 2));
+            for (GridCellButton[] row : cells) {
+                for (GridCellButton cell : row) {
+                    panel.add(cell);
+                }
+            }
+        }
+        panel.setBackground(GameTheme.PANEL_BACKGROUND);
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        return panel;
+    }
+
+    /**
+     * Draw the lawn on one canvas, or with a button per cell. The cells and their
+     * listeners are kept, only how they are shown changes.
+     */
+    public void setCanvasLawn(boolean canvasLawn) {
+        if (this.canvasLawn == canvasLawn)
+            return;
+        this.canvasLawn = canvasLawn;
+        layOutGrid();
+    }
+
+    public boolean isCanvasLawn() {
+        return canvasLawn;
+    }
+
+    /**
+     * Get the preloader loading the game's images and sounds.
+     */
+    public AssetPreloader getPreloader() {
+        return preloader;
     }
 
     /**
@@ -581,11 +668,19 @@ public class View extends JFrame {
         levelInfoLabel.setText(info);
     }
 
+    /**
+     * Show the HUD with the given text, or hide it if the text is null.
+     */
+    public void setHud(String text) {
+        hudLabel.setVisible(text != null);
+        hudLabel.setText(text == null ? "" : text);
+    }
+
     /**
      * Get grid cell button at position.
      */
     public GridCellButton getGridButton(int row, int col) {
-        if (row >= 0 && row < Board.GRID_HEIGHT && col >= 0 && col < Board.GRID_WIDTH) {
+        if (row >= 0 && row < gridButtons.length && col >= 0 && col < gridButtons[row].length) {
             return gridButtons[row][col];
         }
         return null;
@@ -646,6 +741,13 @@ public class View extends JFrame {
         setFrankTheTankCB((JTextField) ((JPanel) frankTheTankPanel).getComponent(1));
         setBurrowingBaileyCB((JTextField) ((JPanel) burrowingBaileyPanel).getComponent(1));
 
+        JPanel rowsPanel = createZombieInputPanel("Rows:");
+        JPanel columnsPanel = createZombieInputPanel("Columns:");
+        rowsField = (JTextField) rowsPanel.getComponent(1);
+        rowsField.setText(String.valueOf(Board.GRID_HEIGHT));
+        columnsField = (JTextField) columnsPanel.getComponent(1);
+        columnsField.setText(String.valueOf(Board.GRID_WIDTH));
+
         availableZombies = new ArrayList<>();
         availableZombies.add(genericZombieCB);
         availableZombies.add(frankTheTankCB);
@@ -659,9 +761,10 @@ public class View extends JFrame {
         editorPanel.add(genericZombiePanel);
         editorPanel.add(frankTheTankPanel);
         editorPanel.add(burrowingBaileyPanel);
+        editorPanel.add(rowsPanel);
+        editorPanel.add(columnsPanel);
 
-        confirm = new JButton("Confirm");
-        styleButton(confirm);
+        // The controller listens to the confirm button created with the menus
         editorPanel.add(confirm);
 
         panel.add(editorPanel, BorderLayout.CENTER);
@@ -669,7 +772,7 @@ public class View extends JFrame {
         levelEditorFrame.add(panel);
         levelEditorFrame.pack();
         levelEditorFrame.setLocationRelativeTo(this);
-        levelEditorFrame.setSize(400, 220);
+        levelEditorFrame.setSize(400, 300);
         levelEditorFrame.setVisible(true);
     }
 
@@ -814,12 +917,12 @@ public class View extends JFrame {
             animationManager.registerEntity((GridCellButton) button, o);
         } else {
             // Legacy fallback
-            if (o instanceof NullSpace) {
+            if (o.getEntityType().isEmpty()) {
                 button.setIcon(null);
                 return;
             }
             try {
-                ImageIcon image = ResourceLoader.loadScaledIcon(o.getObjectTitle() + ".png", 80, 60);
+                ImageIcon image = ResourceLoader.loadScaledIcon(o.getEntityType().getIconName(), 80, 60);
                 button.setIcon(image);
                 button.setDisabledIcon(image);
             } catch (Exception ex) {
@@ -907,6 +1010,14 @@ public class View extends JFrame {
         this.burrowingBaileyCB = cb;
     }
 
+    public JTextField getRowsField() {
+        return rowsField;
+    }
+
+    public JTextField getColumnsField() {
+        return columnsField;
+    }
+
     public ArrayList<JTextField> getAvailableZombies() {
         return availableZombies;
     }